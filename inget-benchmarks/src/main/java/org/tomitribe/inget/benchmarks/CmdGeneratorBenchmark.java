@@ -0,0 +1,76 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ *
+ */
+package org.tomitribe.inget.benchmarks;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.tomitribe.inget.cmd.CmdGenerator;
+import org.tomitribe.inget.common.GenerationContext;
+import org.tomitribe.util.Files;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * The whole command line generation for the movies client, symbol solving included.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3)
+@Measurement(iterations = 5)
+@Fork(1)
+public class CmdGeneratorBenchmark {
+
+    private File dir;
+    private File output;
+    private GenerationContext context;
+
+    @Setup
+    public void setup() throws IOException {
+        dir = Fixtures.copy("movies-cli");
+        output = Files.tmpdir();
+        context = Fixtures.configure(dir)
+                .generatedSources(output.getAbsolutePath())
+                .build();
+        context.getTypeSolver().init(context);
+    }
+
+    @TearDown
+    public void tearDown() {
+        context.getTypeSolver().close();
+        Fixtures.delete(dir);
+        Fixtures.delete(output);
+    }
+
+    @Benchmark
+    public void execute() throws IOException {
+        CmdGenerator.execute(context);
+    }
+}
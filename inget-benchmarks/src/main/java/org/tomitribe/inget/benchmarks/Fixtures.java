@@ -0,0 +1,135 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ *
+ */
+package org.tomitribe.inget.benchmarks;
+
+import org.tomitribe.inget.common.Format;
+import org.tomitribe.inget.common.GenerationContext;
+import org.tomitribe.inget.test.CorpusGenerator;
+import org.tomitribe.util.Files;
+import org.tomitribe.util.IO;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.net.JarURLConnection;
+import java.net.URISyntaxException;
+import java.net.URL;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.Enumeration;
+import java.util.jar.JarEntry;
+import java.util.jar.JarFile;
+import java.util.stream.Stream;
+
+/**
+ * Input sources for the benchmarks: copies of the generator test fixtures
+ * and a synthetic model corpus of any size.
+ */
+public class Fixtures {
+
+    public static final String MODEL_PACKAGE = "io.superbiz.video.model";
+    public static final String RESOURCE_PACKAGE = "io.superbiz.video.rest";
+
+    private Fixtures() {
+        // no-op
+    }
+
+    /**
+     * Copies a fixture packaged under fixtures/ into a new temporary directory.
+     */
+    public static File copy(final String name) throws IOException {
+        final File dir = Files.tmpdir();
+        final String prefix = "fixtures/" + name + "/";
+        final URL url = Fixtures.class.getClassLoader().getResource(prefix);
+        if (url == null) {
+            throw new IllegalArgumentException("No fixture " + name);
+        }
+
+        if ("jar".equals(url.getProtocol())) {
+            final JarFile jar = ((JarURLConnection) url.openConnection()).getJarFile();
+            final Enumeration<JarEntry> entries = jar.entries();
+            while (entries.hasMoreElements()) {
+                final JarEntry entry = entries.nextElement();
+                if (!entry.isDirectory() && entry.getName().startsWith(prefix)) {
+                    try (final InputStream in = jar.getInputStream(entry)) {
+                        write(new File(dir, entry.getName().substring(prefix.length())), in);
+                    }
+                }
+            }
+        } else {
+            final Path root = toPath(url);
+            try (final Stream<Path> walk = java.nio.file.Files.walk(root)) {
+                for (Path path : (Iterable<Path>) walk.filter(java.nio.file.Files::isRegularFile)::iterator) {
+                    try (final InputStream in = java.nio.file.Files.newInputStream(path)) {
+                        write(new File(dir, root.relativize(path).toString()), in);
+                    }
+                }
+            }
+        }
+        return dir;
+    }
+
+    /**
+     * Writes the given number of annotated model classes into a new temporary directory.
+     */
+    public static File synthetic(final int models) throws IOException {
+        return CorpusGenerator.models(models)
+                .modelPackage(MODEL_PACKAGE)
+                .references(1)
+                .summaries(1)
+                .write(Files.tmpdir());
+    }
+
+    /**
+     * Points the generators to the directory, the same way the tests do.
+     */
+    public static GenerationContext.Builder configure(final File dir) {
+        return GenerationContext.builder()
+                .modelSources(dir.getAbsolutePath())
+                .resourceSources(dir.getAbsolutePath())
+                .generatedSources(dir.getAbsolutePath())
+                .clientSources(dir.getAbsolutePath())
+                .tempSource(dir.getAbsolutePath())
+                .modelPackage(MODEL_PACKAGE)
+                .resourcePackage(RESOURCE_PACKAGE)
+                .resourceSuffix("ResourceBean")
+                .modelSuffix("Model")
+                .clientName("MovieClient")
+                .cmdLineName("cmdline")
+                .format(Format.ECLIPSE)
+                .threads(1);
+    }
+
+    public static void delete(final File dir) {
+        Files.remove(dir);
+    }
+
+    private static void write(final File file, final InputStream in) throws IOException {
+        Files.mkparent(file);
+        IO.copy(in, file);
+    }
+
+    private static Path toPath(final URL url) {
+        try {
+            return Paths.get(url.toURI());
+        } catch (URISyntaxException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+}
@@ -0,0 +1,95 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ *
+ */
+package org.tomitribe.inget.benchmarks;
+
+import com.github.javaparser.JavaParser;
+import com.github.javaparser.ast.CompilationUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.tomitribe.inget.common.GenerationContext;
+import org.tomitribe.inget.common.ImportTracker;
+import org.tomitribe.inget.common.Reformat;
+import org.tomitribe.inget.resource.ResourcesGenerator;
+import org.tomitribe.util.IO;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+/**
+ * Formatting of a generated resource, as it comes out of the pretty printer.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3)
+@Measurement(iterations = 5)
+@Fork(1)
+public class FormatBenchmark {
+
+    private File dir;
+    private GenerationContext context;
+    private String source;
+    private CompilationUnit duplicatedImports;
+
+    @Setup
+    public void setup() throws IOException {
+        dir = Fixtures.copy("movies");
+        context = Fixtures.configure(dir).build();
+        context.getTypeSolver().init(context);
+        ResourcesGenerator.execute(context);
+
+        final File resource = new File(dir, Fixtures.RESOURCE_PACKAGE.replace('.', '/') + "/MoviesResourceBean.java");
+        source = JavaParser.parse(IO.slurp(resource)).toString();
+
+        // every import twice, the way the generators leave them before cleaning up
+        duplicatedImports = JavaParser.parse(Stream.of(source.split("\n"))
+                .map(line -> line.startsWith("import ") ? line + "\n" + line : line)
+                .collect(Collectors.joining("\n")));
+    }
+
+    @TearDown
+    public void tearDown() {
+        context.getTypeSolver().close();
+        Fixtures.delete(dir);
+    }
+
+    @Benchmark
+    public String reformat() {
+        return Reformat.apply(source);
+    }
+
+    @Benchmark
+    public CompilationUnit importTracker() {
+        final CompilationUnit unit = duplicatedImports.clone();
+        ImportTracker.apply(unit);
+        return unit;
+    }
+}
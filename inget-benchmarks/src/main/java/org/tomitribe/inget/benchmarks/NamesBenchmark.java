@@ -0,0 +1,64 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ *
+ */
+package org.tomitribe.inget.benchmarks;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+import org.tomitribe.inget.common.Utils;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * The name helpers called for every class, method and option generated.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3)
+@Measurement(iterations = 5)
+@Fork(1)
+public class NamesBenchmark {
+
+    private final String[] names = {
+        "Movie", "Credential", "Category", "Address", "Status", "Box", "Company", "BulkMovieResult",
+        "MoviesResourceBeanClient", "getMovieCredentialsByIdAndStatus"
+    };
+
+    @Benchmark
+    public void formatCamelCaseTo(final Blackhole blackhole) {
+        for (String name : names) {
+            blackhole.consume(Utils.formatCamelCaseTo(name, "-"));
+        }
+    }
+
+    @Benchmark
+    public void toPlural(final Blackhole blackhole) {
+        for (String name : names) {
+            blackhole.consume(Utils.toPlural(name));
+        }
+    }
+}
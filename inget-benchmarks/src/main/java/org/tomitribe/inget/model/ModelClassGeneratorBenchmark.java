@@ -0,0 +1,96 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ *
+ */
+package org.tomitribe.inget.model;
+
+import com.github.javaparser.JavaParser;
+import com.github.javaparser.ast.CompilationUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+import org.tomitribe.inget.benchmarks.Fixtures;
+import org.tomitribe.inget.common.GenerationContext;
+import org.tomitribe.inget.common.Operation;
+import org.tomitribe.inget.common.Utils;
+import org.tomitribe.util.IO;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Building the Create class of every model of a corpus, without formatting or writing it.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3)
+@Measurement(iterations = 5)
+@Fork(1)
+public class ModelClassGeneratorBenchmark {
+
+    @Param({"movies", "synthetic"})
+    private String corpus;
+
+    @Param({"50"})
+    private int models;
+
+    private File dir;
+    private GenerationContext context;
+    private final List<CompilationUnit> units = new ArrayList<>();
+
+    @Setup
+    public void setup() throws IOException {
+        dir = "movies".equals(corpus) ? Fixtures.copy("movies") : Fixtures.synthetic(models);
+        context = Fixtures.configure(dir).build();
+
+        for (File model : Utils.getModel(context)) {
+            final CompilationUnit unit = JavaParser.parse(IO.slurp(model));
+            if (Utils.getClazz(unit) != null) {
+                units.add(unit);
+            }
+        }
+    }
+
+    @TearDown
+    public void tearDown() {
+        Fixtures.delete(dir);
+    }
+
+    @Benchmark
+    public void createClass(final Blackhole blackhole) throws IOException {
+        for (CompilationUnit model : units) {
+            final CompilationUnit unit = model.clone();
+            final String rootClassName = Utils.getRootName(Utils.getClazz(unit));
+            blackhole.consume(ModelClassGenerator.createClass(context, unit, Utils.getClazz(unit), rootClassName,
+                    Operation.CREATE, ModelGenerator.CREATE_PREFIX));
+        }
+    }
+}
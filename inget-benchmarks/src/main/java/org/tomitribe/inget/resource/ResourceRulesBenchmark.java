@@ -0,0 +1,109 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ *
+ */
+package org.tomitribe.inget.resource;
+
+import com.github.javaparser.JavaParser;
+import com.github.javaparser.ast.CompilationUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.tomitribe.inget.benchmarks.Fixtures;
+import org.tomitribe.inget.common.GenerationContext;
+import org.tomitribe.inget.common.Utils;
+import org.tomitribe.inget.model.ModelGenerator;
+import org.tomitribe.util.IO;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * The whole rule chain applied to every resource of a corpus. After the
+ * first invocation the resources are already generated, which is also what
+ * every build but the first one does.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3)
+@Measurement(iterations = 5)
+@Fork(1)
+public class ResourceRulesBenchmark {
+
+    @Param({"movies", "synthetic"})
+    private String corpus;
+
+    @Param({"50"})
+    private int models;
+
+    private File dir;
+    private GenerationContext context;
+    private final List<CompilationUnit> modelUnits = new ArrayList<>();
+    private final List<File> resources = new ArrayList<>();
+
+    @Setup
+    public void setup() throws IOException {
+        if ("movies".equals(corpus)) {
+            dir = Fixtures.copy("movies");
+            context = Fixtures.configure(dir).build();
+        } else {
+            dir = Fixtures.synthetic(models);
+            context = Fixtures.configure(dir).build();
+            ModelGenerator.execute(context);
+        }
+
+        context.getTypeSolver().init(context);
+        ResourcesGenerator.execute(context);
+
+        for (File model : Utils.getModel(context)) {
+            final CompilationUnit unit = JavaParser.parse(IO.slurp(model));
+            if (Utils.getClazz(unit) == null || !Utils.getClazz(unit).getAnnotationByName("Resource").isPresent()) {
+                continue;
+            }
+            for (File resource : Utils.getResources(context, Utils.getRootName(Utils.getClazz(unit)))) {
+                modelUnits.add(unit);
+                resources.add(resource);
+            }
+        }
+    }
+
+    @TearDown
+    public void tearDown() {
+        context.getTypeSolver().close();
+        Fixtures.delete(dir);
+    }
+
+    @Benchmark
+    public void applyGenerationInResource() throws IOException {
+        for (int i = 0; i < resources.size(); i++) {
+            ResourcesGenerator.applyGenerationInResource(context, modelUnits.get(i).clone(), resources.get(i));
+        }
+    }
+}
@@ -19,7 +19,6 @@
 package org.tomitribe.inget.cmd;
 
 import com.github.javaparser.JavaParser;
-import com.github.javaparser.ParserConfiguration;
 import com.github.javaparser.ast.CompilationUnit;
 import com.github.javaparser.ast.Modifier;
 import com.github.javaparser.ast.NodeList;
@@ -40,26 +39,23 @@ import com.github.javaparser.resolution.declarations.ResolvedFieldDeclaration;
 import com.github.javaparser.resolution.declarations.ResolvedReferenceTypeDeclaration;
 import com.github.javaparser.resolution.types.ResolvedReferenceType;
 import com.github.javaparser.resolution.types.ResolvedType;
-import com.github.javaparser.symbolsolver.JavaSymbolSolver;
-import com.github.javaparser.symbolsolver.javaparsermodel.JavaParserFacade;
 import com.github.javaparser.symbolsolver.javaparsermodel.declarations.JavaParserClassDeclaration;
 import com.github.javaparser.symbolsolver.javaparsermodel.declarations.JavaParserFieldDeclaration;
-import com.google.googlejavaformat.java.RemoveUnusedImports;
 import org.apache.commons.lang3.text.WordUtils;
 import org.tomitribe.inget.cmd.base.ModelType;
 import org.tomitribe.inget.common.Authentication;
-import org.tomitribe.inget.common.Configuration;
-import org.tomitribe.inget.common.CustomTypeSolver;
+import org.tomitribe.inget.common.GenerationContext;
 import org.tomitribe.inget.common.ImportManager;
 import org.tomitribe.inget.common.Operation;
-import org.tomitribe.inget.common.Reformat;
-import org.tomitribe.inget.common.RemoveDuplicateImports;
 import org.tomitribe.inget.common.TemplateUtil;
+import org.tomitribe.inget.common.Timings;
 import org.tomitribe.inget.common.Utils;
+import org.tomitribe.util.IO;
 import org.tomitribe.util.Join;
 
 import java.io.File;
 import java.io.IOException;
+import java.nio.file.Path;
 import java.util.ArrayList;
 import java.util.Collection;
 import java.util.EnumSet;
@@ -68,8 +64,9 @@ import java.util.List;
 import java.util.Map;
 import java.util.Objects;
 import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Predicate;
 import java.util.stream.Collectors;
-import java.util.stream.Stream;
 
 import static org.apache.commons.lang3.StringUtils.capitalize;
 import static org.apache.commons.lang3.StringUtils.isEmpty;
@@ -77,45 +74,165 @@ import static org.tomitribe.inget.common.Utils.formatCamelCaseTo;
 
 public class CmdGenerator {
 
-    private static final String BASE_OUTPUT_PACKAGE = Configuration.resourcePackage + ".cmd.base";
+    private static final Group NOT_A_CLIENT = new Group(null, null);
 
-    private CmdGenerator(){
+    private final GenerationContext context;
+    private final String baseOutputPackage;
+
+    private CmdGenerator(final GenerationContext context) {
+        this.context = context;
+        this.baseOutputPackage = context.getResourcePackage() + ".cmd.base";
     }
 
-    public static void execute() throws IOException {
-        final List<File> sourceClients = Utils.getClient();
+    public static void execute(final GenerationContext context) throws IOException {
+        start(context).finish();
+    }
 
-        generateBaseCommand();
-        JavaParser.setStaticConfiguration(
-                new ParserConfiguration().setSymbolResolver(new JavaSymbolSolver(CustomTypeSolver.get())));
+    /**
+     * Starts a generation that can be given the clients as they are generated.
+     */
+    public static Session start(final GenerationContext context) throws IOException {
+        final CmdGenerator generator = new CmdGenerator(context);
+        generator.generateBaseCommand();
+        return new Session(generator);
+    }
 
-        final Map<String, List<String>> groups = new HashMap<>();
-        for (final File sourceClient : sourceClients) {
-            final CompilationUnit client = JavaParser.parse(sourceClient);
-            if (!(client.toString().contains("javax.ws.rs") && client.toString().contains("@Path"))) {
-                continue;
+    /**
+     * The commands of each client can be generated in any order, the main
+     * class lists the groups in the order of {@link Utils#getClient(GenerationContext)}
+     * when the session finishes, so the result does not depend on that order.
+     */
+    public static class Session {
+
+        private final CmdGenerator generator;
+        private final Map<Path, Group> groups = new ConcurrentHashMap<>();
+
+        private Session(final CmdGenerator generator) {
+            this.generator = generator;
+        }
+
+        /**
+         * Generates the commands of a client, unless they already were.
+         */
+        public void add(final File sourceClient, final String content) {
+            final Path key = key(sourceClient);
+            if (groups.containsKey(key)) {
+                return;
             }
-            final ClassOrInterfaceDeclaration clientClass = Utils.getClazz(client);
-            final String replaceValue = Configuration.resourceSuffix == null ?
-                    "Client" : Configuration.resourceSuffix + "Client";
-            final String clientGroup =
-                    clientClass.getNameAsString().replace(replaceValue, "");
-
-            final List<MethodDeclaration> methods = clientClass.getMethods();
-            final List<String> commands =
-                    methods.stream()
-                            .map(methodDeclaration -> generateCommandFromClientMethod(methodDeclaration, clientGroup))
-                            .collect(Collectors.toList());
 
-            groups.put(clientGroup, commands);
+            final GenerationContext context = generator.context;
+            context.getTimings().source(sourceClient);
+            try {
+                groups.put(key, generator.generateCommands(content));
+            } finally {
+                context.getTimings().source(null);
+            }
+            context.getTypeSolver().release();
+        }
+
+        /**
+         * Generates the commands of the clients that were not added and the main class.
+         */
+        public void finish() throws IOException {
+            finish(client -> true);
+        }
+
+        /**
+         * Generates the main class and the commands of the clients that were not added and match the
+         * filter. The commands of the other clients are left as a previous generation wrote them,
+         * unless some are missing.
+         */
+        public void finish(final Predicate<File> regenerate) throws IOException {
+            generator.context.getSourceIndex().reset();
+
+            final Map<String, List<String>> commands = new HashMap<>();
+            for (final File sourceClient : Utils.getClient(generator.context)) {
+                if (!groups.containsKey(key(sourceClient))) {
+                    if (regenerate.test(sourceClient)) {
+                        add(sourceClient, IO.slurp(sourceClient));
+                    } else {
+                        refer(sourceClient, IO.slurp(sourceClient));
+                    }
+                }
+
+                final Group group = groups.get(key(sourceClient));
+                if (group != NOT_A_CLIENT) {
+                    commands.put(group.name, group.commands);
+                }
+            }
+
+            generator.generateCli(commands);
+        }
+
+        private void refer(final File sourceClient, final String content) {
+            final Group group = generator.generateCommands(content, false);
+            final boolean written = group == NOT_A_CLIENT || group.commands.stream()
+                    .allMatch(command -> Utils.file(generator.context, command + ".java", generator.commandPackage()).exists());
+            if (written) {
+                groups.put(key(sourceClient), group);
+            } else {
+                add(sourceClient, content);
+            }
+        }
+
+        private static Path key(final File file) {
+            return file.toPath().toAbsolutePath().normalize();
+        }
+    }
+
+    private String commandPackage() {
+        return context.getResourcePackage() + ".cmd";
+    }
+
+    private Group generateCommands(final String content) {
+        return generateCommands(content, true);
+    }
+
+    private Group generateCommands(final String content, final boolean write) {
+        return context.getTypeSolver().resolve(() -> resolveCommands(content, write));
+    }
+
+    /**
+     * Generates the commands of a client, or only names them for the main class.
+     */
+    private Group resolveCommands(final String content, final boolean write) {
+        final long start = Timings.start();
+        final CompilationUnit client = context.parse(content);
+        context.getTimings().stop("parse", start);
+        if (!(client.toString().contains("javax.ws.rs") && client.toString().contains("@Path"))) {
+            return NOT_A_CLIENT;
         }
+        final ClassOrInterfaceDeclaration clientClass = Utils.getClazz(client);
+        final String replaceValue = context.getResourceSuffix() == null ?
+                "Client" : context.getResourceSuffix() + "Client";
+        final String clientGroup =
+                clientClass.getNameAsString().replace(replaceValue, "");
 
-        generateCli(groups);
+        final List<MethodDeclaration> methods = clientClass.getMethods();
+        final List<String> commands =
+                methods.stream()
+                        .map(methodDeclaration -> write ? generateCommandFromClientMethod(methodDeclaration, clientGroup)
+                                : commandClassName(methodDeclaration, clientGroup))
+                        .collect(Collectors.toList());
+
+        return new Group(clientGroup, commands);
+    }
+
+    private static final class Group {
+        private final String name;
+        private final List<String> commands;
+
+        private Group(final String name, final List<String> commands) {
+            this.name = name;
+            this.commands = commands;
+        }
     }
 
-    private static void generateBaseCommand() throws IOException {
-        final CompilationUnit baseCommand = JavaParser.parse(TemplateUtil.readTemplate("DefaultCommand.java"));
-        baseCommand.setPackageDeclaration(BASE_OUTPUT_PACKAGE);
+    private void generateBaseCommand() throws IOException {
+        final String template = TemplateUtil.template("DefaultCommand.java", "%cmdLineName%")
+                .apply(context.getCmdLineName());
+        final CompilationUnit baseCommand = JavaParser.parse(template);
+        baseCommand.setPackageDeclaration(baseOutputPackage);
         Utils.addGeneratedAnnotation(baseCommand, Utils.getClazz(baseCommand), null, CmdGenerator.class);
         ClassOrInterfaceDeclaration commandClass = baseCommand.getClassByName("DefaultCommand").get();
         addCommandOptions(commandClass);
@@ -124,25 +241,24 @@ public class CmdGenerator {
         readValueConfigurationValueIfNotProvidedMethod(commandClass);
         CompilationUnit modifiedClassUnit = commandClass.findCompilationUnit().get();
         addImports(modifiedClassUnit);
-        String baseCmd = modifiedClassUnit.toString().replaceAll("%cmdLineName%", Configuration.cmdLineName);
-        Utils.save("DefaultCommand.java", BASE_OUTPUT_PACKAGE, baseCmd);
+        Utils.save(context, "DefaultCommand.java", baseOutputPackage, modifiedClassUnit);
     }
 
-    private static void addImports(CompilationUnit modifiedClassUnit) {
+    private void addImports(CompilationUnit modifiedClassUnit) {
         modifiedClassUnit.addImport(ImportManager.getImport("ClientConfiguration"));
-        if (Configuration.authentication == Authentication.BASIC) {
+        if (context.getAuthentication() == Authentication.BASIC) {
             modifiedClassUnit.addImport(ImportManager.getImport("BasicConfiguration"));
         }
-        if (Configuration.authentication == Authentication.SIGNATURE) {
+        if (context.getAuthentication() == Authentication.SIGNATURE) {
             modifiedClassUnit.addImport(ImportManager.getImport("SignatureConfiguration"));
         }
     }
 
-    private static void buildConfiguration(ClassOrInterfaceDeclaration commandClass) {
+    private void buildConfiguration(ClassOrInterfaceDeclaration commandClass) {
         MethodDeclaration buildConfig = commandClass.getMethodsByName("buildConfiguration").stream().findFirst().get();
         BlockStmt body = buildConfig.getBody().get();
 
-        if (Configuration.authentication == Authentication.BASIC) {
+        if (context.getAuthentication() == Authentication.BASIC) {
             body.asBlockStmt().addStatement(JavaParser.parseStatement("BasicConfiguration basicConfiguration = null;"));
 
             String basic = "if (username != null && password != null) {" +
@@ -153,7 +269,7 @@ public class CmdGenerator {
             body.asBlockStmt().addStatement(JavaParser.parseStatement(basic));
         }
 
-        if (Configuration.authentication == Authentication.SIGNATURE) {
+        if (context.getAuthentication() == Authentication.SIGNATURE) {
             body.asBlockStmt().addStatement(JavaParser.parseStatement("SignatureConfiguration signatureConfiguration = null;"));
 
             String signature =
@@ -168,9 +284,9 @@ public class CmdGenerator {
         body.asBlockStmt().addStatement(JavaParser.parseStatement("return builder.build();"));
     }
 
-    private static void updateConfigWithNewValueMethod(ClassOrInterfaceDeclaration commandClass) {
+    private void updateConfigWithNewValueMethod(ClassOrInterfaceDeclaration commandClass) {
         MethodDeclaration updateConfig = commandClass.getMethodsByName("updateConfigWithNewValue").stream().findFirst().get();
-        if (Configuration.authentication == Authentication.BASIC) {
+        if (context.getAuthentication() == Authentication.BASIC) {
             String username =
                     "if (username != null) {" +
                             "   conf.put(\"basic.username\", username);" +
@@ -185,7 +301,7 @@ public class CmdGenerator {
             updateConfig.getBody().get().asBlockStmt().addStatement(JavaParser.parseStatement(password));
         }
 
-        if (Configuration.authentication == Authentication.SIGNATURE) {
+        if (context.getAuthentication() == Authentication.SIGNATURE) {
             String keyId =
                     "if (keyId != null) {" +
                             "    conf.put(\"signature.key-id\", keyId);" +
@@ -199,9 +315,9 @@ public class CmdGenerator {
         }
     }
 
-    private static void readValueConfigurationValueIfNotProvidedMethod(ClassOrInterfaceDeclaration commandClass) {
+    private void readValueConfigurationValueIfNotProvidedMethod(ClassOrInterfaceDeclaration commandClass) {
         MethodDeclaration updateConfig = commandClass.getMethodsByName("readValueConfigurationValueIfNotProvided").stream().findFirst().get();
-        if (Configuration.authentication == Authentication.BASIC) {
+        if (context.getAuthentication() == Authentication.BASIC) {
             String username =
                     " if (username == null && conf.containsKey(\"basic.username\")) {\n" +
                             "         username = conf.getProperty(\"basic.username\");\n" +
@@ -215,7 +331,7 @@ public class CmdGenerator {
             updateConfig.getBody().get().asBlockStmt().addStatement(JavaParser.parseStatement(password));
         }
 
-        if (Configuration.authentication == Authentication.SIGNATURE) {
+        if (context.getAuthentication() == Authentication.SIGNATURE) {
             String keyId =
                     "if (keyId == null && conf.containsKey(\"signature.key-id\")) {" +
                             "         keyId = conf.getProperty(\"signature.key-id\");" +
@@ -230,17 +346,17 @@ public class CmdGenerator {
         }
     }
 
-    private static void addCommandOptions(ClassOrInterfaceDeclaration commandClass) {
+    private void addCommandOptions(ClassOrInterfaceDeclaration commandClass) {
         FieldDeclaration f = null;
 
-        if (Configuration.authentication == Authentication.BASIC) {
+        if (context.getAuthentication() == Authentication.BASIC) {
             f = commandClass.addField("String", "username", Modifier.PRIVATE);
             f.addAnnotation(JavaParser.parseAnnotation("@Option(name = {\"-u\", \"--username\"}, type = OptionType.GLOBAL)"));
             f = commandClass.addField("String", "password", Modifier.PRIVATE);
             f.addAnnotation(JavaParser.parseAnnotation("@Option(name = {\"-p\", \"--password\"}, type = OptionType.GLOBAL)"));
         }
 
-        if (Configuration.authentication == Authentication.SIGNATURE) {
+        if (context.getAuthentication() == Authentication.SIGNATURE) {
             f = commandClass.addField("String", "keyId", Modifier.PRIVATE);
             f.addAnnotation(JavaParser.parseAnnotation("@Option(name = {\"-k\", \"--key-id\"}, type = OptionType.GLOBAL)"));
             f = commandClass.addField("String", "keyLocation", Modifier.PRIVATE);
@@ -250,11 +366,11 @@ public class CmdGenerator {
         }
     }
 
-    private static String generateCommandFromClientMethod(final MethodDeclaration clientMethod,
-                                                          final String clientGroup) {
-        final CompilationUnit command = new CompilationUnit(Configuration.resourcePackage + ".cmd");
+    private String generateCommandFromClientMethod(final MethodDeclaration clientMethod,
+                                                   final String clientGroup) {
+        final CompilationUnit command = new CompilationUnit(commandPackage());
 
-        final String commandClassName = clientGroup + WordUtils.capitalize(clientMethod.getNameAsString()) + "Cmd";
+        final String commandClassName = commandClassName(clientMethod, clientGroup);
         command.addClass(commandClassName);
 
         final ClassOrInterfaceDeclaration commandClass =
@@ -268,9 +384,13 @@ public class CmdGenerator {
         return commandClassName;
     }
 
-    private static void addCommandAnnotation(final String clientMethodName,
-                                             final CompilationUnit command,
-                                             final ClassOrInterfaceDeclaration commandClass) {
+    private static String commandClassName(final MethodDeclaration clientMethod, final String clientGroup) {
+        return clientGroup + WordUtils.capitalize(clientMethod.getNameAsString()) + "Cmd";
+    }
+
+    private void addCommandAnnotation(final String clientMethodName,
+                                      final CompilationUnit command,
+                                      final ClassOrInterfaceDeclaration commandClass) {
         final NormalAnnotationExpr commandAnnotation = new NormalAnnotationExpr();
         commandAnnotation.setName("Command");
         commandAnnotation.addPair("name", "\"" + formatCamelCaseTo(clientMethodName, "-") + "\"");
@@ -278,10 +398,10 @@ public class CmdGenerator {
         command.addImport(ImportManager.getImport("Command"));
     }
 
-    private static void extendCommandBaseClass(final CompilationUnit command,
-                                               final ClassOrInterfaceDeclaration commandClass) {
+    private void extendCommandBaseClass(final CompilationUnit command,
+                                        final ClassOrInterfaceDeclaration commandClass) {
         commandClass.addExtendedType("DefaultCommand");
-        command.addImport(BASE_OUTPUT_PACKAGE + ".DefaultCommand");
+        command.addImport(baseOutputPackage + ".DefaultCommand");
 
         final MethodDeclaration method = new MethodDeclaration();
         method.setName("run");
@@ -296,10 +416,10 @@ public class CmdGenerator {
         command.addImport(ImportManager.getImport("ClientConfiguration"));
     }
 
-    private static void addCommandFlags(final CompilationUnit command,
-                                        final ClassOrInterfaceDeclaration commandClass,
-                                        final String clientGroup,
-                                        final MethodDeclaration clientMethod) {
+    private void addCommandFlags(final CompilationUnit command,
+                                 final ClassOrInterfaceDeclaration commandClass,
+                                 final String clientGroup,
+                                 final MethodDeclaration clientMethod) {
         final NodeList<Parameter> parameters = clientMethod.getParameters();
 
         final List<Parameter> arguments =
@@ -308,7 +428,7 @@ public class CmdGenerator {
                         .collect(Collectors.toList());
         if (arguments.size() == 1) {
             final Parameter parameter = arguments.get(0);
-            addArgumentFlag(parameter.getType().resolve().describe(), parameter.getNameAsString(), command, commandClass);
+            addArgumentFlag(resolve(parameter.getType()).describe(), parameter.getNameAsString(), command, commandClass);
         }
 
         if (arguments.size() > 1) {
@@ -319,20 +439,20 @@ public class CmdGenerator {
         options.removeAll(arguments);
 
         for (final Parameter option : options) {
-            ResolvedType resolvedType = option.getType().resolve();
+            ResolvedType resolvedType = resolve(option.getType());
             if (isPrimitiveOrValueOf(resolvedType) || isPrimitiveAndValueOfCollection(resolvedType)) {
                 addOptionFlag(resolvedType.describe(), option.getNameAsString(), command, commandClass);
             } else {
                 ResolvedReferenceTypeDeclaration typeDeclaration = null;
                 boolean isGeneric = option.toString().contains("<");
                 if (isGeneric) {
-                    typeDeclaration = JavaParserFacade.get(CustomTypeSolver.get())
+                    typeDeclaration = context.getTypeSolver().facade()
                             .convertToUsage(option.getType().asClassOrInterfaceType().getTypeArguments().get().iterator().next())
                             .asReferenceType()
                             .getTypeDeclaration();
                 } else {
                     typeDeclaration =
-                            JavaParserFacade.get(CustomTypeSolver.get())
+                            context.getTypeSolver().facade()
                                     .getType(option)
                                     .asReferenceType()
                                     .getTypeDeclaration();
@@ -344,10 +464,10 @@ public class CmdGenerator {
         addRunStatement(command, commandClass, clientGroup, clientMethod);
     }
 
-    private static void expandParameterReference(final ResolvedReferenceTypeDeclaration parameter,
-                                                 final String prefix,
-                                                 final CompilationUnit command,
-                                                 final ClassOrInterfaceDeclaration commandClass) {
+    private void expandParameterReference(final ResolvedReferenceTypeDeclaration parameter,
+                                          final String prefix,
+                                          final CompilationUnit command,
+                                          final ClassOrInterfaceDeclaration commandClass) {
         for (final ResolvedFieldDeclaration field : parameter.getAllFields()) {
             if (field.isStatic()) {
                 continue;
@@ -360,7 +480,7 @@ public class CmdGenerator {
                         command,
                         commandClass);
             } else if (type.isReferenceType()) {
-                if (Utils.isCollection(type)) {
+                if (Utils.isCollection(context, type)) {
                     ResolvedReferenceType resolvedReferenceType = type.asReferenceType().getTypeParametersMap().get(0).b.asReferenceType();
                     ResolvedReferenceTypeDeclaration typeDeclaration = resolvedReferenceType.getTypeDeclaration();
                     expandParameterReference(typeDeclaration, typeDeclaration.getName().toLowerCase(), command, commandClass);
@@ -371,10 +491,10 @@ public class CmdGenerator {
         }
     }
 
-    private static void addArgumentFlag(final String type,
-                                        final String name,
-                                        final CompilationUnit command,
-                                        final ClassOrInterfaceDeclaration commandClass) {
+    private void addArgumentFlag(final String type,
+                                 final String name,
+                                 final CompilationUnit command,
+                                 final ClassOrInterfaceDeclaration commandClass) {
         final FieldDeclaration flag = commandClass.addField(type, name, Modifier.PRIVATE);
 
         final NormalAnnotationExpr argumentsAnnotation = new NormalAnnotationExpr();
@@ -384,8 +504,8 @@ public class CmdGenerator {
         flag.addAnnotation(argumentsAnnotation);
     }
 
-    private static void addArgumentsFlag(final CompilationUnit command,
-                                         final ClassOrInterfaceDeclaration commandClass) {
+    private void addArgumentsFlag(final CompilationUnit command,
+                                  final ClassOrInterfaceDeclaration commandClass) {
         final FieldDeclaration flag = commandClass.addField("Collection<String>", "arguments", Modifier.PRIVATE);
         command.addImport(Collection.class);
 
@@ -396,10 +516,10 @@ public class CmdGenerator {
         flag.addAnnotation(argumentsAnnotation);
     }
 
-    private static void addOptionFlag(final String type,
-                                      final String name,
-                                      final CompilationUnit command,
-                                      final ClassOrInterfaceDeclaration commandClass) {
+    private void addOptionFlag(final String type,
+                               final String name,
+                               final CompilationUnit command,
+                               final ClassOrInterfaceDeclaration commandClass) {
 
         boolean isPresent = commandClass.getFields()
                 .stream().filter(f -> f.getVariables().get(0).getNameAsString().equals(name))
@@ -418,9 +538,9 @@ public class CmdGenerator {
         flag.addAnnotation(argumentsAnnotation);
     }
 
-    private static void addInstantiation(String fieldName, final ResolvedReferenceTypeDeclaration parameter,
-                                         final CompilationUnit command,
-                                         final ClassOrInterfaceDeclaration commandClass) {
+    private void addInstantiation(String fieldName, final ResolvedReferenceTypeDeclaration parameter,
+                                  final CompilationUnit command,
+                                  final ClassOrInterfaceDeclaration commandClass) {
         final MethodDeclaration run =
                 commandClass.getMethodsByName("run").stream().findFirst().orElseThrow(IllegalArgumentException::new);
 
@@ -458,16 +578,16 @@ public class CmdGenerator {
         }
     }
 
-    private static void addRunStatement(CompilationUnit command, final ClassOrInterfaceDeclaration commandClass, String clientGroup, MethodDeclaration clientMethod) {
-        command.addImport(Configuration.getClientPackage() + "." + Configuration.clientName);
+    private void addRunStatement(CompilationUnit command, final ClassOrInterfaceDeclaration commandClass, String clientGroup, MethodDeclaration clientMethod) {
+        command.addImport(context.getClientPackage() + "." + context.getClientName());
 
         List<String> runParams = clientMethod.getParameters().stream().map(p -> {
             if (p.getTypeAsString().startsWith("List")) {
                 Type type = p.getType().asClassOrInterfaceType().getTypeArguments().get().stream().findFirst().get();
-                if (isPrimitiveOrValueOf(type.resolve())) {
+                if (isPrimitiveOrValueOf(resolve(type))) {
                     return p.getNameAsString();
                 } else {
-                    ClassOrInterfaceDeclaration clazz = ((JavaParserClassDeclaration) JavaParserFacade.get(CustomTypeSolver.get())
+                    ClassOrInterfaceDeclaration clazz = ((JavaParserClassDeclaration) context.getTypeSolver().facade()
                             .convertToUsage(type)
                             .asReferenceType().getTypeDeclaration())
                             .getWrappedNode();
@@ -484,7 +604,7 @@ public class CmdGenerator {
         final MethodDeclaration run =
                 commandClass.getMethodsByName("run").stream().findFirst().orElseThrow(IllegalArgumentException::new);
 
-        String runCommand = "new " + Configuration.clientName + "(clientConfiguration)." + clientGroup.toLowerCase() + "()."
+        String runCommand = "new " + context.getClientName() + "(clientConfiguration)." + clientGroup.toLowerCase() + "()."
                 + clientMethod.getNameAsString() + "(" + Join.join(",", runParams) + ")";
 
         if (!clientMethod.getType().isVoidType()) {
@@ -503,7 +623,15 @@ public class CmdGenerator {
 
     }
 
-    private static boolean isPrimitiveOrValueOf(final ResolvedType type) {
+    /**
+     * The model classes are parsed by the type solvers without a symbol
+     * resolver, so their types are resolved by the facade of this generation.
+     */
+    private ResolvedType resolve(final Type type) {
+        return context.getTypeSolver().facade().convertToUsage(type);
+    }
+
+    private boolean isPrimitiveOrValueOf(final ResolvedType type) {
         if (type.isPrimitive()) {
             return true;
         }
@@ -531,11 +659,12 @@ public class CmdGenerator {
         return false;
     }
 
-    private static boolean isPrimitiveAndValueOfCollection(final ResolvedType type) {
+    private boolean isPrimitiveAndValueOfCollection(final ResolvedType type) {
         if (type.isReferenceType()) {
             final ResolvedReferenceTypeDeclaration typeDeclaration = type.asReferenceType().getTypeDeclaration();
 
-            if (typeDeclaration.canBeAssignedTo(CustomTypeSolver.get().solveType("java.util.Collection"))) {
+            final Optional<ResolvedReferenceTypeDeclaration> collection = context.getTypeSolver().tryToSolve("java.util.Collection");
+            if (collection.isPresent() && typeDeclaration.canBeAssignedTo(collection.get())) {
                 final List<ResolvedType> collectionParameters = type.asReferenceType().typeParametersValues();
                 if (collectionParameters.size() == 1) {
                     return isPrimitiveOrValueOf(collectionParameters.get(0));
@@ -546,9 +675,9 @@ public class CmdGenerator {
         return false;
     }
 
-    private static void generateCli(final Map<String, List<String>> groups) throws IOException {
-        final CompilationUnit cli = new CompilationUnit(BASE_OUTPUT_PACKAGE);
-        cli.setPackageDeclaration(BASE_OUTPUT_PACKAGE);
+    private void generateCli(final Map<String, List<String>> groups) throws IOException {
+        final CompilationUnit cli = new CompilationUnit(baseOutputPackage);
+        cli.setPackageDeclaration(baseOutputPackage);
         cli.addClass("MainCli");
 
         final ClassOrInterfaceDeclaration cliClass =
@@ -564,7 +693,7 @@ public class CmdGenerator {
 
         final BlockStmt block = new BlockStmt();
         cli.addImport(ImportManager.getImport("Cli"));
-        block.addStatement("final Cli.CliBuilder<Runnable> cliBuilder = Cli.builder(\"" + Configuration.cmdLineName + "\");");
+        block.addStatement("final Cli.CliBuilder<Runnable> cliBuilder = Cli.builder(\"" + context.getCmdLineName() + "\");");
         cli.addImport(ImportManager.getImport("Help"));
         block.addStatement("cliBuilder.withDefaultCommand(Help.class);");
         block.addStatement("cliBuilder.withCommand(Help.class);");
@@ -579,7 +708,7 @@ public class CmdGenerator {
             final List<String> commands = groups.get(group);
             for (final String command : commands) {
                 groupCommand.append(".withCommand(").append(command).append(".class").append(")");
-                cli.addImport(Configuration.resourcePackage + ".cmd." + command);
+                cli.addImport(context.getResourcePackage() + ".cmd." + command);
             }
             groupCommand.append(";");
             block.addStatement(groupCommand.toString());
@@ -594,32 +723,24 @@ public class CmdGenerator {
         runBlock.append("System.out.println(e.getMessage());");
         runBlock.append("}");
         block.addStatement(runBlock.toString());
-        Utils.save("MainCli.java", BASE_OUTPUT_PACKAGE, cli.toString());
+        Utils.save(context, "MainCli.java", baseOutputPackage, cli);
     }
 
-    private static void save(final String className, final CompilationUnit classToBeSaved) {
+    private void save(final String className, final CompilationUnit classToBeSaved) {
         if (classToBeSaved == null) {
             return;
         }
 
-        final String modified =
-                Stream.of(classToBeSaved.toString())
-                        .map(RemoveDuplicateImports::apply)
-                        .map(Reformat::apply)
-                        .map(RemoveUnusedImports::removeUnusedImports)
-                        .findFirst()
-                        .orElseThrow(IllegalStateException::new);
-
         try {
-            Utils.save(className + ".java", Configuration.resourcePackage + ".cmd", modified);
+            Utils.save(context, className + ".java", commandPackage(), classToBeSaved);
         } catch (final IOException e) {
             e.printStackTrace();
         }
     }
 
-    private static String readInstanceFields(final CompilationUnit rootClassUnit,
-                                             final List<FieldDeclaration> fields, final String prefix,
-                                             final String classFieldName, final ModelType modelType) {
+    private String readInstanceFields(final CompilationUnit rootClassUnit,
+                                      final List<FieldDeclaration> fields, final String prefix,
+                                      final String classFieldName, final ModelType modelType) {
         return fields
                 .stream()
                 .filter(f -> !f.isStatic())
@@ -627,31 +748,31 @@ public class CmdGenerator {
                 .collect(Collectors.joining());
     }
 
-    private static String readFieldOrUnflattenClass(final CompilationUnit rootClassUnit,
-                                                    final FieldDeclaration field, final String prefix,
-                                                    final String classFieldName, final ModelType modelType) {
-        if (Utils.isWrapperOrPrimitiveOrDate(field)) {
+    private String readFieldOrUnflattenClass(final CompilationUnit rootClassUnit,
+                                             final FieldDeclaration field, final String prefix,
+                                             final String classFieldName, final ModelType modelType) {
+        if (Utils.isWrapperOrPrimitiveOrDate(context, field)) {
             return readField(field, prefix, classFieldName, modelType);
         } else {
             return unFlattenClass(rootClassUnit, field, prefix, classFieldName, modelType);
         }
     }
 
-    private static String unFlattenClass(final CompilationUnit rootClassUnit,
-                                         final FieldDeclaration field, final String prefix,
-                                         final String classFieldName, final ModelType modelType) {
+    private String unFlattenClass(final CompilationUnit rootClassUnit,
+                                  final FieldDeclaration field, final String prefix,
+                                  final String classFieldName, final ModelType modelType) {
         ResolvedReferenceTypeDeclaration resolvedType = null;
 
 
-        if (Utils.isCollection(field.getElementType().resolve())) {
-            resolvedType = field.getElementType().resolve()
+        if (Utils.isCollection(context, resolve(field.getElementType()))) {
+            resolvedType = resolve(field.getElementType())
                     .asReferenceType()
                     .getTypeParametersMap()
                     .get(0).b
                     .asReferenceType()
                     .getTypeDeclaration();
         } else {
-            resolvedType = JavaParserFacade.get(CustomTypeSolver.get())
+            resolvedType = context.getTypeSolver().facade()
                     .getType(field.getVariables().get(0))
                     .asReferenceType()
                     .getTypeDeclaration();
@@ -717,7 +838,7 @@ public class CmdGenerator {
         }
     }
 
-    private static String readField(final FieldDeclaration field, final String prefix, final String classFieldName, final ModelType modelType) {
+    private String readField(final FieldDeclaration field, final String prefix, final String classFieldName, final ModelType modelType) {
         FieldDeclaration newField = field.clone();
         if (!newField.getAnnotationByName("Model").isPresent() ||
                 !Utils.hasOperations(newField)) {
@@ -734,22 +855,22 @@ public class CmdGenerator {
         return "";
     }
 
-    private static void writeFieldOrFlattenClass(CompilationUnit rootClassUnit, String operation, String classPrefix,
-                                                 ClassOrInterfaceDeclaration newClass, FieldDeclaration f, String objectName,
-                                                 String pkg, String clazzName) {
-        if (Utils.isWrapperOrPrimitiveOrDate(f)) {
+    private void writeFieldOrFlattenClass(CompilationUnit rootClassUnit, String operation, String classPrefix,
+                                          ClassOrInterfaceDeclaration newClass, FieldDeclaration f, String objectName,
+                                          String pkg, String clazzName) {
+        if (Utils.isWrapperOrPrimitiveOrDate(context, f)) {
             writeField(operation, rootClassUnit, newClass, f, objectName, pkg, clazzName, false);
         } else {
             resolveFieldClass(rootClassUnit, operation, classPrefix, newClass, f, objectName);
         }
     }
 
-    private static void resolveFieldClass(CompilationUnit rootClassUnit, String operation, String classPrefix,
-                                          ClassOrInterfaceDeclaration newClass, FieldDeclaration f, String objectName) {
+    private void resolveFieldClass(CompilationUnit rootClassUnit, String operation, String classPrefix,
+                                   ClassOrInterfaceDeclaration newClass, FieldDeclaration f, String objectName) {
         VariableDeclarator type = f.getVariables().stream().findFirst().get();
         ResolvedReferenceTypeDeclaration solvedType;
         try {
-            solvedType = JavaParserFacade.get(CustomTypeSolver.get())
+            solvedType = context.getTypeSolver().facade()
                     .getType(type)
                     .asReferenceType()
                     .getTypeDeclaration();
@@ -765,9 +886,9 @@ public class CmdGenerator {
         }
     }
 
-    private static void flattenClassFields(CompilationUnit rootClassUnit, String operation, String classPrefix,
-                                           ClassOrInterfaceDeclaration newClass, VariableDeclarator type,
-                                           ResolvedReferenceTypeDeclaration solvedType, String pkg, String clazzName) {
+    private void flattenClassFields(CompilationUnit rootClassUnit, String operation, String classPrefix,
+                                    ClassOrInterfaceDeclaration newClass, VariableDeclarator type,
+                                    ResolvedReferenceTypeDeclaration solvedType, String pkg, String clazzName) {
         List<ResolvedFieldDeclaration> allFields = solvedType.getAllFields();
 
         List<FieldDeclaration> fieldsToBeExpanded = allFields.stream()
@@ -785,7 +906,7 @@ public class CmdGenerator {
         });
     }
 
-    private static void handleId(FieldDeclaration f, CompilationUnit rootClassUnit, ClassOrInterfaceDeclaration newClass) {
+    private void handleId(FieldDeclaration f, CompilationUnit rootClassUnit, ClassOrInterfaceDeclaration newClass) {
         FieldDeclaration newField = f.clone();
         newClass.addMember(newField);
         newField.setAnnotations(new NodeList<>());
@@ -793,9 +914,9 @@ public class CmdGenerator {
         addCommand(f, newField, rootClassUnit, true);
     }
 
-    private static void writeField(String operation, CompilationUnit rootClassUnit,
-                                   ClassOrInterfaceDeclaration newClass, FieldDeclaration f, String objectCommandName,
-                                   String pkg, String clazzName, boolean isEnum) {
+    private void writeField(String operation, CompilationUnit rootClassUnit,
+                            ClassOrInterfaceDeclaration newClass, FieldDeclaration f, String objectCommandName,
+                            String pkg, String clazzName, boolean isEnum) {
         FieldDeclaration newField = f.clone();
         if (!newField.getAnnotationByName("Model").isPresent()
                 || !Utils.hasOperations(newField) ||
@@ -821,7 +942,7 @@ public class CmdGenerator {
         }
     }
 
-    private static void addTypeInfoAnnotation(String pkg, String clazzName, boolean isEnum, FieldDeclaration newField, CompilationUnit newClassCompilationUnit) {
+    private void addTypeInfoAnnotation(String pkg, String clazzName, boolean isEnum, FieldDeclaration newField, CompilationUnit newClassCompilationUnit) {
         NormalAnnotationExpr typeInfo = new NormalAnnotationExpr();
         typeInfo.setName("TypeInfo");
         typeInfo.addPair("value", "\"" + pkg + "-" + clazzName + "\"");
@@ -832,7 +953,7 @@ public class CmdGenerator {
         newField.addAnnotation(typeInfo);
     }
 
-    private static void addCommand(FieldDeclaration oldField, FieldDeclaration field, CompilationUnit unit, boolean id) {
+    private void addCommand(FieldDeclaration oldField, FieldDeclaration field, CompilationUnit unit, boolean id) {
         String fieldName = field.getVariables().stream().findFirst().get().getNameAsString();
         StringBuilder annotation = new StringBuilder();
         boolean required = getRequired(oldField);
@@ -850,7 +971,7 @@ public class CmdGenerator {
         }
     }
 
-    private static boolean getRequired(FieldDeclaration field) {
+    private boolean getRequired(FieldDeclaration field) {
         Optional<AnnotationExpr> schema = field.getAnnotationByName("Schema");
         if (schema.isPresent()) {
             AnnotationExpr ann = schema.get();
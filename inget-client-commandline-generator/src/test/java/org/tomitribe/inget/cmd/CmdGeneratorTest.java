@@ -20,41 +20,43 @@
 
 package org.tomitribe.inget.cmd;
 
-import org.junit.After;
 import org.junit.Test;
 import org.tomitribe.inget.common.Authentication;
-import org.tomitribe.inget.common.Configuration;
-import org.tomitribe.inget.common.CustomTypeSolver;
+import org.tomitribe.inget.common.GenerationContext;
+import org.tomitribe.inget.common.Utils;
 import org.tomitribe.inget.test.Resources;
+import org.tomitribe.util.IO;
+
+import java.io.File;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
 
 import static org.tomitribe.inget.test.Scenarios.assertFiles;
 
 public class CmdGeneratorTest {
 
-    @After
-    public void after(){
-        Configuration.clean();
-    }
-
     @Test
     public void testCmdNoAuth() throws Exception {
         final Resources movies = Resources.name("movies-no-auth");
 
-        Configuration.modelSources = movies.input().getAbsolutePath();
-        Configuration.resourceSources = movies.input().getAbsolutePath();
-        Configuration.generatedSources = movies.actual().getAbsolutePath();
-        Configuration.clientSources = movies.input().getAbsolutePath();
-        Configuration.modelPackage = "io.superbiz.video.model.model";
-        Configuration.resourcePackage = "io.superbiz.video.model.rest";
-        Configuration.clientName = "MovieClient";
-        Configuration.resourceSuffix = "ResourceBean";
-        Configuration.modelSuffix = "Model";
-        Configuration.cmdLineName = "cmdline";
-        Configuration.tempSource = movies.tempSource().getAbsolutePath();
+        final GenerationContext context = GenerationContext.builder()
+                .modelSources(movies.input().getAbsolutePath())
+                .resourceSources(movies.input().getAbsolutePath())
+                .generatedSources(movies.actual().getAbsolutePath())
+                .clientSources(movies.input().getAbsolutePath())
+                .modelPackage("io.superbiz.video.model.model")
+                .resourcePackage("io.superbiz.video.model.rest")
+                .clientName("MovieClient")
+                .resourceSuffix("ResourceBean")
+                .modelSuffix("Model")
+                .cmdLineName("cmdline")
+                .tempSource(movies.tempSource().getAbsolutePath())
+                .build();
 
-        CustomTypeSolver.init();
+        context.getTypeSolver().init(context);
 
-        CmdGenerator.execute();
+        CmdGenerator.execute(context);
 
         assertFiles(movies.expected(".*\\.java$"), movies.actual(".*\\.java$"));
     }
@@ -63,22 +65,24 @@ public class CmdGeneratorTest {
     public void testCmdBasic() throws Exception {
         final Resources movies = Resources.name("movies-basic-auth");
 
-        Configuration.modelSources = movies.input().getAbsolutePath();
-        Configuration.resourceSources = movies.input().getAbsolutePath();
-        Configuration.generatedSources = movies.actual().getAbsolutePath();
-        Configuration.clientSources = movies.input().getAbsolutePath();
-        Configuration.modelPackage = "io.superbiz.video.model";
-        Configuration.resourcePackage = "io.superbiz.video.rest";
-        Configuration.clientName = "MovieClient";
-        Configuration.resourceSuffix = "ResourceBean";
-        Configuration.modelSuffix = "Model";
-        Configuration.cmdLineName = "cmdline";
-        Configuration.tempSource = movies.tempSource().getAbsolutePath();
-        Configuration.authentication = Authentication.BASIC;
-
-        CustomTypeSolver.init();
-
-        CmdGenerator.execute();
+        final GenerationContext context = GenerationContext.builder()
+                .modelSources(movies.input().getAbsolutePath())
+                .resourceSources(movies.input().getAbsolutePath())
+                .generatedSources(movies.actual().getAbsolutePath())
+                .clientSources(movies.input().getAbsolutePath())
+                .modelPackage("io.superbiz.video.model")
+                .resourcePackage("io.superbiz.video.rest")
+                .clientName("MovieClient")
+                .resourceSuffix("ResourceBean")
+                .modelSuffix("Model")
+                .cmdLineName("cmdline")
+                .tempSource(movies.tempSource().getAbsolutePath())
+                .authentication(Authentication.BASIC)
+                .build();
+
+        context.getTypeSolver().init(context);
+
+        CmdGenerator.execute(context);
 
         assertFiles(movies.expected(".*\\.java$"), movies.actual(".*\\.java$"));
     }
@@ -87,24 +91,61 @@ public class CmdGeneratorTest {
     public void testCmdSignature() throws Exception {
         final Resources movies = Resources.name("movies-signature-auth");
 
-        Configuration.modelSources = movies.input().getAbsolutePath();
-        Configuration.resourceSources = movies.input().getAbsolutePath();
-        Configuration.generatedSources = movies.actual().getAbsolutePath();
-        Configuration.clientSources = movies.input().getAbsolutePath();
-        Configuration.modelPackage = "io.superbiz.video.model.model";
-        Configuration.resourcePackage = "io.superbiz.video.model.rest";
-        Configuration.clientName = "MovieClient";
-        Configuration.resourceSuffix = "ResourceBean";
-        Configuration.modelSuffix = "Model";
-        Configuration.cmdLineName = "cmdline";
-        Configuration.tempSource = movies.tempSource().getAbsolutePath();
-        Configuration.authentication = Authentication.SIGNATURE;
+        final GenerationContext context = GenerationContext.builder()
+                .modelSources(movies.input().getAbsolutePath())
+                .resourceSources(movies.input().getAbsolutePath())
+                .generatedSources(movies.actual().getAbsolutePath())
+                .clientSources(movies.input().getAbsolutePath())
+                .modelPackage("io.superbiz.video.model.model")
+                .resourcePackage("io.superbiz.video.model.rest")
+                .clientName("MovieClient")
+                .resourceSuffix("ResourceBean")
+                .modelSuffix("Model")
+                .cmdLineName("cmdline")
+                .tempSource(movies.tempSource().getAbsolutePath())
+                .authentication(Authentication.SIGNATURE)
+                .build();
+
+        context.getTypeSolver().init(context);
+
+        CmdGenerator.execute(context);
 
-        CustomTypeSolver.init();
+        assertFiles(movies.expected(".*\\.java$"), movies.actual(".*\\.java$"));
+    }
+
+    @Test
+    public void testSession() throws Exception {
+        final Resources movies = Resources.name("movies-basic-auth");
 
-        CmdGenerator.execute();
+        final GenerationContext context = GenerationContext.builder()
+                .modelSources(movies.input().getAbsolutePath())
+                .resourceSources(movies.input().getAbsolutePath())
+                .generatedSources(movies.actual().getAbsolutePath())
+                .clientSources(movies.input().getAbsolutePath())
+                .modelPackage("io.superbiz.video.model")
+                .resourcePackage("io.superbiz.video.rest")
+                .clientName("MovieClient")
+                .resourceSuffix("ResourceBean")
+                .modelSuffix("Model")
+                .cmdLineName("cmdline")
+                .tempSource(movies.tempSource().getAbsolutePath())
+                .authentication(Authentication.BASIC)
+                .build();
+
+        context.getTypeSolver().init(context);
+
+        final CmdGenerator.Session session = CmdGenerator.start(context);
+
+        // the clients as a pipeline hands them over, in any order and possibly twice
+        final List<File> clients = new ArrayList<>(Utils.getClient(context));
+        Collections.reverse(clients);
+        for (final File client : clients) {
+            session.add(client, IO.slurp(client));
+            session.add(client, IO.slurp(client));
+        }
+        session.finish();
 
         assertFiles(movies.expected(".*\\.java$"), movies.actual(".*\\.java$"));
     }
 
-}
\ No newline at end of file
+}
@@ -3,7 +3,7 @@ package io.superbiz.video.model.rest.cmd;
 import io.airlift.airline.Command;
 import io.airlift.airline.Option;
 import io.superbiz.video.model.rest.client.MovieClient;
-import io.superbiz.video.rest.cmd.base.DefaultCommand;
+import io.superbiz.video.model.rest.cmd.base.DefaultCommand;
 import org.tomitribe.inget.client.ClientConfiguration;
 
 @Command(name = "add-movie")
@@ -1,4 +1,4 @@
-package io.superbiz.video.rest.cmd.base;
+package io.superbiz.video.model.rest.cmd.base;
 
 import io.airlift.airline.Option;
 import io.airlift.airline.OptionType;
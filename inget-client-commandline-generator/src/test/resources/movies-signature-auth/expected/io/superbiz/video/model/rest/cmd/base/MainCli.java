@@ -1,4 +1,4 @@
-package io.superbiz.video.rest.cmd.base;
+package io.superbiz.video.model.rest.cmd.base;
 
 import io.airlift.airline.Cli;
 import io.airlift.airline.Help;
@@ -21,6 +21,7 @@ package org.tomitribe.inget.client;
 
 import com.github.javaparser.JavaParser;
 import com.github.javaparser.ast.CompilationUnit;
+import com.github.javaparser.ast.ImportDeclaration;
 import com.github.javaparser.ast.Modifier;
 import com.github.javaparser.ast.NodeList;
 import com.github.javaparser.ast.body.ClassOrInterfaceDeclaration;
@@ -41,21 +42,25 @@ import com.github.javaparser.ast.stmt.ReturnStmt;
 import com.github.javaparser.ast.stmt.SwitchEntryStmt;
 import com.github.javaparser.ast.stmt.SwitchStmt;
 import com.github.javaparser.ast.type.TypeParameter;
-import com.google.googlejavaformat.java.RemoveUnusedImports;
 import org.apache.commons.lang3.text.WordUtils;
-import org.tomitribe.inget.common.Configuration;
+import org.tomitribe.inget.common.GenerationContext;
 import org.tomitribe.inget.common.ImportManager;
-import org.tomitribe.inget.common.Reformat;
-import org.tomitribe.inget.common.RemoveDuplicateImports;
+import org.tomitribe.inget.common.Timings;
 import org.tomitribe.inget.common.Utils;
+import org.tomitribe.util.IO;
 
+import java.io.File;
 import java.io.IOException;
+import java.nio.file.Path;
+import java.util.ArrayList;
 import java.util.EnumSet;
 import java.util.Iterator;
 import java.util.List;
 import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Predicate;
 import java.util.stream.Collectors;
-import java.util.stream.Stream;
 
 public class ClientGenerator {
 
@@ -63,9 +68,23 @@ public class ClientGenerator {
         // no-op
     }
 
-    public static void execute() throws IOException {
-        createClientExceptions(Configuration.resourcePackage + ".client.base");
-        CompilationUnit genericClientUnit = createResourceClient();
+    /**
+     * Told about each client interface as soon as it is generated.
+     */
+    public interface Listener {
+        void generated(File client, String content) throws IOException;
+    }
+
+    public static void execute(final GenerationContext context) throws IOException {
+        start(context, null).finish();
+    }
+
+    /**
+     * Starts a generation that can be given the resources as they are generated.
+     */
+    public static Session start(final GenerationContext context, final Listener listener) throws IOException {
+        createClientExceptions(context, context.getResourcePackage() + ".client.base");
+        CompilationUnit genericClientUnit = createResourceClient(context);
         ClassOrInterfaceDeclaration genericClientClass = Utils.getClazz(genericClientUnit);
         genericClientUnit.addImport(ImportManager.getImport("RestClientBuilder"));
         genericClientUnit.addImport(ImportManager.getImport("JohnzonProvider"));
@@ -78,7 +97,7 @@ public class ClientGenerator {
         cBuilder.append("builder = RestClientBuilder.newBuilder()" +
                 ".baseUrl(new java.net.URL(config.getUrl()))\n" +
                 ".register(JohnzonProvider.class)");
-        cBuilder.append(".register(" + Configuration.clientName + "ExceptionMapper.class);");
+        cBuilder.append(".register(" + context.getClientName() + "ExceptionMapper.class);");
         cBuilder.append(" } catch (java.net.MalformedURLException e) {");
         cBuilder.append("throw new javax.ws.rs.WebApplicationException(\"URL is not valid \" + e.getMessage());");
         cBuilder.append("}");
@@ -87,14 +106,100 @@ public class ClientGenerator {
 
         registerFilters(genericClientClass);
 
-        Map<String, String> relatedResources = Utils.getResources();
+        return new Session(context, listener, genericClientClass);
+    }
 
-        Iterator<Map.Entry<String, String>> it = relatedResources.entrySet().iterator();
-        while (it.hasNext()) {
-            Map.Entry<String, String> resource = it.next();
-            generateClient(resource.getKey(), resource.getValue(), genericClientClass);
+    /**
+     * The client interfaces can be generated in any order, the generic client
+     * refers to them in the order of {@link Utils#getResources(GenerationContext)} when the
+     * session finishes, so the result does not depend on that order.
+     */
+    public static class Session {
+
+        private final GenerationContext context;
+        private final Listener listener;
+        private final ClassOrInterfaceDeclaration genericClientClass;
+        private final Map<String, Client> clients = new ConcurrentHashMap<>();
+        private final Set<Path> written = ConcurrentHashMap.newKeySet();
+
+        private Session(final GenerationContext context, final Listener listener,
+                        final ClassOrInterfaceDeclaration genericClientClass) {
+            this.context = context;
+            this.listener = listener;
+            this.genericClientClass = genericClientClass;
         }
-        save(genericClientUnit.getPackageDeclaration().get().getNameAsString(), Configuration.clientName, genericClientUnit);
+
+        /**
+         * Generates the client interface of a resource, unless it already was.
+         */
+        public void add(final String fileName, final String resourceContent) throws IOException {
+            if (clients.containsKey(fileName)) {
+                return;
+            }
+
+            final Timings timings = context.getTimings();
+            timings.source(new File(fileName));
+            final long start = Timings.start();
+            try {
+                final Client client = generateClient(context, listener, fileName, resourceContent, true);
+                written.add(path(Utils.file(context, client.name + ".java", client.pkg)));
+                clients.put(fileName, client);
+            } finally {
+                timings.stop("generate.client", start);
+                timings.source(null);
+            }
+        }
+
+        /**
+         * Generates the client interfaces of the resources that were not added and the generic client.
+         */
+        public void finish() throws IOException {
+            finish(fileName -> true);
+        }
+
+        /**
+         * Generates the generic client and the client interfaces of the resources that were not added
+         * and match the filter. The interfaces of the other resources are left as a previous generation
+         * wrote them, unless they are missing.
+         */
+        public void finish(final Predicate<String> regenerate) throws IOException {
+            context.getSourceIndex().reset();
+            // the interfaces generated so far look like resources too, they were not there when it started
+            Map<String, File> relatedResources = Utils.getResources(context, f -> !written.contains(path(f)));
+
+            Iterator<Map.Entry<String, File>> it = relatedResources.entrySet().iterator();
+            while (it.hasNext()) {
+                Map.Entry<String, File> resource = it.next();
+                if (regenerate.test(resource.getKey())) {
+                    add(resource.getKey(), IO.slurp(resource.getValue()));
+                } else {
+                    refer(resource.getKey(), IO.slurp(resource.getValue()));
+                }
+
+                final Client client = clients.get(resource.getKey());
+                createResourceClientReference(context, client.name, client.pkg, genericClientClass);
+                client.imports.forEach(genericClientClass.findCompilationUnit().get()::addImport);
+            }
+            final CompilationUnit genericClientUnit = genericClientClass.findCompilationUnit().get();
+            save(context, genericClientUnit.getPackageDeclaration().get().getNameAsString(), context.getClientName(),
+                    genericClientUnit);
+        }
+        private void refer(final String fileName, final String resourceContent) throws IOException {
+            if (clients.containsKey(fileName)) {
+                return;
+            }
+
+            final Client client = generateClient(context, null, fileName, resourceContent, false);
+            if (!Utils.file(context, client.name + ".java", client.pkg).exists()) {
+                add(fileName, resourceContent);
+                return;
+            }
+            clients.put(fileName, client);
+        }
+    }
+
+    private static Path path(final File file) {
+        return file.toPath().toAbsolutePath().normalize();
     }
 
     private static void addCxfLogInterceptor(ClassOrInterfaceDeclaration clazz) {
@@ -104,30 +209,30 @@ public class ClientGenerator {
         clazz.addAnnotation(JavaParser.parseAnnotation("@OutInterceptors(classes = NoOpInterceptor.class)"));
     }
 
-    private static CompilationUnit createResourceClient() throws IOException {
-        final String outputBasePackage = Configuration.getClientPackage();
+    private static CompilationUnit createResourceClient(final GenerationContext context) throws IOException {
+        final String outputBasePackage = context.getClientPackage();
         final CompilationUnit newClassCompilationUnit = new CompilationUnit(outputBasePackage);
-        newClassCompilationUnit.addClass(Configuration.clientName, Modifier.PUBLIC);
-        final ClassOrInterfaceDeclaration newClass = newClassCompilationUnit.getClassByName(Configuration.clientName).get();
+        newClassCompilationUnit.addClass(context.getClientName(), Modifier.PUBLIC);
+        final ClassOrInterfaceDeclaration newClass = newClassCompilationUnit.getClassByName(context.getClientName()).get();
 
         ConstructorDeclaration constructor = newClass.addConstructor(Modifier.PUBLIC);
         constructor.addParameter("ClientConfiguration", "config");
         newClassCompilationUnit.addImport(ImportManager.getImport("ClientConfiguration"));
         newClassCompilationUnit.addImport(
-                Configuration.resourcePackage + ".client.base." + Configuration.clientName + "ExceptionMapper");
+                context.getResourcePackage() + ".client.base." + context.getClientName() + "ExceptionMapper");
         Utils.addGeneratedAnnotation(newClassCompilationUnit, newClass, null, ClientGenerator.class);
 
         return newClassCompilationUnit;
     }
 
-    private static void createClientExceptions(final String outputBasePackage) throws IOException {
+    private static void createClientExceptions(final GenerationContext context, final String outputBasePackage) throws IOException {
         final CompilationUnit clientException = new CompilationUnit(outputBasePackage);
-        clientException.addClass(Configuration.clientName + "Exception", Modifier.PUBLIC);
+        clientException.addClass(context.getClientName() + "Exception", Modifier.PUBLIC);
         final ClassOrInterfaceDeclaration clientExceptionClass =
-                clientException.getClassByName(Configuration.clientName + "Exception").get();
+                clientException.getClassByName(context.getClientName() + "Exception").get();
         clientExceptionClass.addExtendedType(RuntimeException.class);
         Utils.addGeneratedAnnotation(clientException, Utils.getClazz(clientException), null, ClientGenerator.class);
-        save(outputBasePackage, Configuration.clientName + "Exception", clientException);
+        save(context, outputBasePackage, context.getClientName() + "Exception", clientException);
 
         final CompilationUnit entityNotFoundException = new CompilationUnit(outputBasePackage);
         entityNotFoundException.addClass("EntityNotFoundException", Modifier.PUBLIC);
@@ -135,12 +240,12 @@ public class ClientGenerator {
                 entityNotFoundException.getClassByName("EntityNotFoundException").get();
         entityNotFoundExceptionClass.addExtendedType(clientExceptionClass.getNameAsString());
         Utils.addGeneratedAnnotation(entityNotFoundException, Utils.getClazz(entityNotFoundException), null, ClientGenerator.class);
-        save(outputBasePackage, "EntityNotFoundException", entityNotFoundException);
+        save(context, outputBasePackage, "EntityNotFoundException", entityNotFoundException);
 
         final CompilationUnit exceptionMapper = new CompilationUnit(outputBasePackage);
-        exceptionMapper.addClass(Configuration.clientName + "ExceptionMapper", Modifier.PUBLIC);
+        exceptionMapper.addClass(context.getClientName() + "ExceptionMapper", Modifier.PUBLIC);
         final ClassOrInterfaceDeclaration exceptionMapperClass =
-                exceptionMapper.getClassByName(Configuration.clientName + "ExceptionMapper").get();
+                exceptionMapper.getClassByName(context.getClientName() + "ExceptionMapper").get();
         exceptionMapperClass.addImplementedType("ResponseExceptionMapper");
         exceptionMapperClass.getImplementedTypes()
                 .get(0)
@@ -171,21 +276,39 @@ public class ClientGenerator {
         toThrowable.setBody(toThrowableBody);
 
         Utils.addGeneratedAnnotation(exceptionMapper, Utils.getClazz(exceptionMapper), null, ClientGenerator.class);
-        save(outputBasePackage, Configuration.clientName + "ExceptionMapper", exceptionMapper);
+        save(context, outputBasePackage, context.getClientName() + "ExceptionMapper", exceptionMapper);
+    }
+
+    private static final class Client {
+        private final String name;
+        private final String pkg;
+        private final List<ImportDeclaration> imports;
+
+        private Client(final String name, final String pkg, final List<ImportDeclaration> imports) {
+            this.name = name;
+            this.pkg = pkg;
+            this.imports = imports;
+        }
     }
 
-    private static void generateClient(String fileName, String resourceContent, ClassOrInterfaceDeclaration genericResourceClientClass) throws IOException {
-        final CompilationUnit resourceClientUnit = JavaParser.parse(resourceContent);
+    /**
+     * Builds the client interface of a resource and writes it, or only tells what the generic client
+     * needs to refer to it.
+     */
+    private static Client generateClient(final GenerationContext context, final Listener listener,
+                                         final String fileName, final String resourceContent,
+                                         final boolean write) throws IOException {
+        final long start = Timings.start();
+        final CompilationUnit resourceClientUnit = context.parse(resourceContent);
+        context.getTimings().stop("parse", start);
         final ClassOrInterfaceDeclaration resourceClientClass = Utils.getClazz(resourceClientUnit);
-        final String clientClassPackage = Configuration.resourcePackage + ".client.interfaces";
+        final String clientClassPackage = context.getResourcePackage() + ".client.interfaces";
         final CompilationUnit newClassCompilationUnit = new CompilationUnit(clientClassPackage);
         final String clientName = fileName.replace(".java", "Client");
         newClassCompilationUnit.addClass(clientName, Modifier.PUBLIC);
         final ClassOrInterfaceDeclaration newClass = newClassCompilationUnit.getClassByName(clientName).get();
         newClass.setInterface(true);
 
-        createResourceClientReference(clientName, clientClassPackage, genericResourceClientClass, newClass);
-
         List<AnnotationExpr> classAnnotations = resourceClientClass.getAnnotations()
                 .stream()
                 .filter(a -> Utils.isJaxRSAnnotation(a))
@@ -226,9 +349,18 @@ public class ClientGenerator {
 
         Utils.addGeneratedAnnotation(newClassCompilationUnit, newClass, null, ClientGenerator.class);
         Utils.addImports(resourceClientUnit, newClassCompilationUnit);
-        Utils.addImports(newClassCompilationUnit, genericResourceClientClass.findCompilationUnit().get());
+        // the generic client gets them all, before they are trimmed to the ones the interface uses
+        final Client client = new Client(clientName, clientClassPackage, new ArrayList<>(newClassCompilationUnit.getImports()));
+        if (!write) {
+            return client;
+        }
         Utils.addLicense(resourceClientUnit, newClassCompilationUnit);
-        save(clientClassPackage, clientName, newClassCompilationUnit);
+        final String content = save(context, clientClassPackage, clientName, newClassCompilationUnit);
+
+        if (listener != null) {
+            listener.generated(Utils.file(context, clientName + ".java", clientClassPackage), content);
+        }
+        return client;
     }
 
     private static void registerFilters(ClassOrInterfaceDeclaration genericClientClass){
@@ -251,43 +383,37 @@ public class ClientGenerator {
         constructor.getBody().asBlockStmt().addStatement(logClientRequestFilter);
     }
 
-    private static void createResourceClientReference(String clientName, String pkg, ClassOrInterfaceDeclaration genericClientClass,
-                                                      ClassOrInterfaceDeclaration resourceClientClass) {
+    private static void createResourceClientReference(GenerationContext context, String clientName, String pkg, ClassOrInterfaceDeclaration genericClientClass) {
 
-        VariableDeclarator var = new VariableDeclarator(new TypeParameter(resourceClientClass.getNameAsString()),
-                WordUtils.uncapitalize(resourceClientClass.getNameAsString()));
+        VariableDeclarator var = new VariableDeclarator(new TypeParameter(clientName),
+                WordUtils.uncapitalize(clientName));
         FieldDeclaration reference = new FieldDeclaration(EnumSet.of(Modifier.PRIVATE), var);
         genericClientClass.getMembers().add(0, reference);
         genericClientClass.findCompilationUnit().get().addImport(pkg + "." + clientName);
-        final String replaceValue = Configuration.resourceSuffix == null ?
-                "Client" : Configuration.resourceSuffix + "Client";
+        final String replaceValue = context.getResourceSuffix() == null ?
+                "Client" : context.getResourceSuffix() + "Client";
         String name = clientName.replace(replaceValue, "");
         MethodDeclaration referenceMethod = new MethodDeclaration();
         referenceMethod.setModifiers(EnumSet.of(Modifier.PUBLIC));
         referenceMethod.setName(name.toLowerCase());
-        referenceMethod.setType(resourceClientClass.getNameAsString());
-        referenceMethod.setBody(JavaParser.parseBlock("{ return this." + WordUtils.uncapitalize(resourceClientClass.getNameAsString()) + "; }"));
+        referenceMethod.setType(clientName);
+        referenceMethod.setBody(JavaParser.parseBlock("{ return this." + WordUtils.uncapitalize(clientName) + "; }"));
         genericClientClass.addMember(referenceMethod);
 
         ConstructorDeclaration constructor = genericClientClass.getConstructors().stream().findFirst().get();
 
         StringBuilder builder = new StringBuilder();
-        builder.append(WordUtils.uncapitalize(resourceClientClass.getNameAsString()) + " = builder.build(" + resourceClientClass.getNameAsString() + ".class);");
+        builder.append(WordUtils.uncapitalize(clientName) + " = builder.build(" + clientName + ".class);");
         constructor.getBody().asBlockStmt().addStatement(JavaParser.parseStatement(builder.toString()));
 
     }
 
-    public static void save(String packageLocation, String className, CompilationUnit classToBeSaved) throws IOException {
+    public static String save(GenerationContext context, String packageLocation, String className,
+                              CompilationUnit classToBeSaved) throws IOException {
         if (classToBeSaved == null) {
-            return;
+            return null;
         }
 
-        String modified = Stream.of(classToBeSaved.toString())
-                .map(RemoveDuplicateImports::apply)
-                .map(Reformat::apply)
-                .map(RemoveUnusedImports::removeUnusedImports)
-                .findFirst().get();
-
-        Utils.save(className + ".java", packageLocation, modified);
+        return Utils.save(context, className + ".java", packageLocation, classToBeSaved);
     }
 }
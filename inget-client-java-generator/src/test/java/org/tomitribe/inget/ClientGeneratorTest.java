@@ -20,41 +20,80 @@
 
 package org.tomitribe.inget;
 
-import org.junit.After;
 import org.junit.Test;
 import org.tomitribe.inget.client.ClientGenerator;
-import org.tomitribe.inget.common.Configuration;
-import org.tomitribe.inget.common.CustomTypeSolver;
+import org.tomitribe.inget.common.GenerationContext;
+import org.tomitribe.inget.common.Utils;
 import org.tomitribe.inget.test.Resources;
+import org.tomitribe.util.IO;
 
+import java.io.File;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.Assert.assertEquals;
 import static org.tomitribe.inget.test.Scenarios.assertFiles;
 
 public class ClientGeneratorTest {
 
-    @After
-    public void after(){
-        Configuration.clean();
+    @Test
+    public void testMovies() throws Exception {
+        final Resources movies = Resources.name("movies");
+
+        final GenerationContext context = GenerationContext.builder()
+                .modelSources(movies.input().getAbsolutePath())
+                .resourceSources(movies.input().getAbsolutePath())
+                .generatedSources(movies.actual().getAbsolutePath())
+                .clientSources(movies.input().getAbsolutePath())
+                .modelPackage("io.superbiz.video.model")
+                .resourcePackage("io.superbiz.video.rest")
+                .clientName("MovieClient")
+                .resourceSuffix("ResourceBean")
+                .modelSuffix("Model")
+                .tempSource(movies.tempSource().getAbsolutePath())
+                .build();
+
+        context.getTypeSolver().init(context);
+
+        ClientGenerator.execute(context);
+
+        assertFiles(movies.expected(".*\\.java$"), movies.actual(".*\\.java$"));
     }
 
     @Test
-    public void testMovies() throws Exception {
+    public void testSession() throws Exception {
         final Resources movies = Resources.name("movies");
 
-        Configuration.modelSources = movies.input().getAbsolutePath();
-        Configuration.resourceSources = movies.input().getAbsolutePath();
-        Configuration.generatedSources = movies.actual().getAbsolutePath();
-        Configuration.clientSources = movies.input().getAbsolutePath();
-        Configuration.modelPackage = "io.superbiz.video.model";
-        Configuration.resourcePackage = "io.superbiz.video.rest";
-        Configuration.clientName = "MovieClient";
-        Configuration.resourceSuffix = "ResourceBean";
-        Configuration.modelSuffix = "Model";
-        Configuration.tempSource = movies.tempSource().getAbsolutePath();
+        final GenerationContext context = GenerationContext.builder()
+                .modelSources(movies.input().getAbsolutePath())
+                .resourceSources(movies.input().getAbsolutePath())
+                .generatedSources(movies.actual().getAbsolutePath())
+                .clientSources(movies.input().getAbsolutePath())
+                .modelPackage("io.superbiz.video.model")
+                .resourcePackage("io.superbiz.video.rest")
+                .clientName("MovieClient")
+                .resourceSuffix("ResourceBean")
+                .modelSuffix("Model")
+                .tempSource(movies.tempSource().getAbsolutePath())
+                .build();
+
+        context.getTypeSolver().init(context);
 
-        CustomTypeSolver.init();
+        final List<File> clients = new ArrayList<>();
+        final ClientGenerator.Session session = ClientGenerator.start(context, (client, content) -> clients.add(client));
 
-        ClientGenerator.execute();
+        // the resources as a pipeline hands them over, in any order and possibly twice
+        final List<Map.Entry<String, File>> resources = new ArrayList<>(Utils.getResources(context).entrySet());
+        Collections.reverse(resources);
+        for (final Map.Entry<String, File> resource : resources) {
+            session.add(resource.getKey(), IO.slurp(resource.getValue()));
+            session.add(resource.getKey(), IO.slurp(resource.getValue()));
+        }
+        session.finish();
 
+        assertEquals(resources.size(), clients.size());
         assertFiles(movies.expected(".*\\.java$"), movies.actual(".*\\.java$"));
     }
-}
\ No newline at end of file
+}
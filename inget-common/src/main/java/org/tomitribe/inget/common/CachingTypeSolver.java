@@ -0,0 +1,134 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ *
+ */
+package org.tomitribe.inget.common;
+
+import com.github.javaparser.resolution.declarations.ResolvedReferenceTypeDeclaration;
+import com.github.javaparser.symbolsolver.model.resolution.SymbolReference;
+import com.github.javaparser.symbolsolver.model.resolution.TypeSolver;
+
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Remembers every type lookup, solved or not, so the same name is only
+ * resolved once per generation. The wrapped solver reports to this one as
+ * its parent, so the lookups it does internally are cached as well.
+ *
+ * A solved type holds on to the AST it was found in, in streaming mode
+ * only the most recently used ones are kept.
+ */
+public class CachingTypeSolver implements TypeSolver {
+
+    private final TypeSolver delegate;
+    private final Timings timings;
+    private final Map<String, SymbolReference<ResolvedReferenceTypeDeclaration>> solved;
+    private final Map<String, SymbolReference<ResolvedReferenceTypeDeclaration>> unsolved = new ConcurrentHashMap<>();
+    private final AtomicLong hits = new AtomicLong();
+    private final AtomicLong misses = new AtomicLong();
+    private TypeSolver parent;
+
+    /**
+     * @param astBudget how many solved types to keep, all of them when not positive
+     */
+    public CachingTypeSolver(final TypeSolver delegate, final int astBudget, final Timings timings) {
+        this.delegate = delegate;
+        this.timings = timings;
+        this.solved = Caches.lru(astBudget);
+        this.delegate.setParent(this);
+    }
+
+    @Override
+    public TypeSolver getParent() {
+        return parent;
+    }
+
+    @Override
+    public void setParent(final TypeSolver parent) {
+        this.parent = parent;
+    }
+
+    @Override
+    public SymbolReference<ResolvedReferenceTypeDeclaration> tryToSolveType(final String name) {
+        SymbolReference<ResolvedReferenceTypeDeclaration> reference = solved.get(name);
+        if (reference == null) {
+            reference = unsolved.get(name);
+        }
+        if (reference != null) {
+            hits.incrementAndGet();
+            return reference;
+        }
+
+        misses.incrementAndGet();
+        // not computeIfAbsent, the delegate calls back into this solver while resolving
+        final long start = Timings.start();
+        try {
+            reference = delegate.tryToSolveType(name);
+        } finally {
+            timings.stop("resolve", start);
+        }
+        final Map<String, SymbolReference<ResolvedReferenceTypeDeclaration>> cache = reference.isSolved() ? solved : unsolved;
+        final SymbolReference<ResolvedReferenceTypeDeclaration> existing = cache.putIfAbsent(name, reference);
+        return existing != null ? existing : reference;
+    }
+
+    public Optional<ResolvedReferenceTypeDeclaration> tryToSolve(final String name) {
+        try {
+            final SymbolReference<ResolvedReferenceTypeDeclaration> reference = tryToSolveType(name);
+            return reference.isSolved() ? Optional.of(reference.getCorrespondingDeclaration()) : Optional.empty();
+        } catch (RuntimeException e) {
+            unsolved.putIfAbsent(name, SymbolReference.unsolved(ResolvedReferenceTypeDeclaration.class));
+            return Optional.empty();
+        }
+    }
+
+    /**
+     * Drops a name that could not be solved before, so it is looked up again.
+     */
+    public void forget(final String name) {
+        unsolved.remove(name);
+    }
+
+    public boolean isSolvable(final String name) {
+        return tryToSolve(name).isPresent();
+    }
+
+    public long getHits() {
+        return hits.get();
+    }
+
+    public long getMisses() {
+        return misses.get();
+    }
+
+    public int getSolved() {
+        return solved.size();
+    }
+
+    public int getUnsolved() {
+        return unsolved.size();
+    }
+
+    @Override
+    public String toString() {
+        return "CachingTypeSolver{hits=" + hits + ", misses=" + misses
+                + ", solved=" + solved.size() + ", unsolved=" + unsolved.size() + "}";
+    }
+}
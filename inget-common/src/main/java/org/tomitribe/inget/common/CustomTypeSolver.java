@@ -18,29 +18,305 @@
  */
 package org.tomitribe.inget.common;
 
+import com.github.javaparser.JavaParser;
+import com.github.javaparser.ParseProblemException;
+import com.github.javaparser.ParseResult;
+import com.github.javaparser.ParseStart;
+import com.github.javaparser.ParserConfiguration;
+import com.github.javaparser.ast.CompilationUnit;
+import com.github.javaparser.resolution.declarations.ResolvedReferenceTypeDeclaration;
+import com.github.javaparser.symbolsolver.javaparsermodel.JavaParserFacade;
 import com.github.javaparser.symbolsolver.model.resolution.TypeSolver;
 import com.github.javaparser.symbolsolver.resolution.typesolvers.CombinedTypeSolver;
 import com.github.javaparser.symbolsolver.resolution.typesolvers.JavaParserTypeSolver;
-import com.github.javaparser.symbolsolver.resolution.typesolvers.ReflectionTypeSolver;
 
 import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Properties;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Supplier;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
 
+import static com.github.javaparser.Providers.provider;
+
+/**
+ * The type solver of one generation: the JDK, the model and resource
+ * sources, the types generated so far and the output directory. Each
+ * {@link GenerationContext} has its own, with the parser configuration
+ * resolving through it, so generations running at the same time never see
+ * each other's types.
+ */
 public class CustomTypeSolver {
 
-    private CustomTypeSolver() {
-        // utility class
+    private static final String JDK = "jdk.";
+    private static final String TYPE = "type.";
+
+    private final String generatedSources;
+    private final int astBudget;
+    private final boolean streaming;
+    private final Timings timings;
+
+    private volatile CachingTypeSolver typeSolver;
+    private volatile ParserConfiguration parserConfiguration;
+    private volatile MemoryTypeSolver generated;
+
+    /**
+     * The JDK types, kept from one init to the next until the solver is closed.
+     */
+    private volatile TypeSolver jdk;
+
+    /**
+     * Whether a name can be solved, as remembered from previous builds. JDK
+     * names only depend on the java version, the others on the sources.
+     */
+    private final Map<String, Boolean> summary = new ConcurrentHashMap<>();
+    private volatile String jdkKey;
+    private volatile String sourceKey;
+
+    /**
+     * Solvers of source directories that do not change, like extracted
+     * dependency sources, kept from one init to the next with what they parsed.
+     */
+    private volatile Map<String, TypeSolver> shared = Collections.emptyMap();
+
+    CustomTypeSolver(final String generatedSources, final int astBudget, final boolean streaming, final Timings timings) {
+        this.generatedSources = generatedSources;
+        this.astBudget = astBudget;
+        this.streaming = streaming;
+        this.timings = timings;
+        this.generated = new MemoryTypeSolver(generatedSources, astBudget);
+        solver(new CachingTypeSolver(new CombinedTypeSolver(), astBudget, timings));
+    }
+
+    /**
+     * Solves the types of the sources the context points to, once the model
+     * and resources are generated. Called again by a later generation of the
+     * same sources, what it knows about the JDK types and the shared solvers is
+     * kept. The solvers of the model, resource and output directories are built
+     * again, the symbol solver gives no way to drop only the files that changed.
+     */
+    public void init(final GenerationContext context) {
+        if (jdk == null) {
+            jdk = context.isReuseJdkTypes() ? JdkTypeSolver.shared() : new JdkTypeSolver();
+        }
+
+        final List<TypeSolver> added = new ArrayList<>();
+        added.add(jdk);
+        added.add(sources(context.getModelSources()));
+        added.add(sources(context.getResourceSources()));
+        // init runs after the model and resources are generated, the types they built are kept
+        // and win over what a previous generation left on disk
+        added.add(generated);
+        added.add(new JavaParserTypeSolver(new File(context.getGeneratedSources())));
+
+        final CombinedTypeSolver combinedTypeSolver = new CombinedTypeSolver();
+        added.forEach(combinedTypeSolver::add);
+
+        Facades.clear();
+        solver(new CachingTypeSolver(combinedTypeSolver, astBudget, context.getTimings()));
+        summary.keySet().removeIf(name -> !isJdk(name));
+        jdkKey = null;
+        sourceKey = null;
     }
 
-    private static final CombinedTypeSolver COMBINED_TYPE_SOLVER = new CombinedTypeSolver();
+    private void solver(final CachingTypeSolver solver) {
+        typeSolver = solver;
+        parserConfiguration = new ParserConfiguration().setSymbolResolver(Facades.resolver(solver));
+    }
+
+    /**
+     * Sets the solvers to reuse for the source directories they are mapped to.
+     */
+    public void share(final Map<String, TypeSolver> solvers) {
+        shared = solvers == null ? Collections.emptyMap() : solvers;
+    }
+
+    private TypeSolver sources(final String directory) {
+        final TypeSolver solver = shared.get(directory);
+        return solver != null ? solver : new JavaParserTypeSolver(new File(directory));
+    }
+
+    public CachingTypeSolver get() {
+        return typeSolver;
+    }
+
+    /**
+     * Parses a unit whose nodes resolve through this solver.
+     */
+    public CompilationUnit parse(final String source) {
+        final ParseResult<CompilationUnit> result = new JavaParser(parserConfiguration)
+                .parse(ParseStart.COMPILATION_UNIT, provider(source));
+        if (result.isSuccessful() && result.getResult().isPresent()) {
+            return result.getResult().get();
+        }
+        throw new ParseProblemException(result.getProblems());
+    }
+
+    /**
+     * The types generated into the output directory.
+     */
+    public MemoryTypeSolver generated() {
+        return generated;
+    }
+
+    /**
+     * Forgets the generated types, at the start of a generation.
+     */
+    public void reset() {
+        generated = new MemoryTypeSolver(generatedSources, astBudget);
+    }
 
-    public static void init() {
-        COMBINED_TYPE_SOLVER.add(new ReflectionTypeSolver());
-        COMBINED_TYPE_SOLVER.add(new JavaParserTypeSolver(new File(Configuration.modelSources)));
-        COMBINED_TYPE_SOLVER.add(new JavaParserTypeSolver(new File(Configuration.resourceSources)));
-        COMBINED_TYPE_SOLVER.add(new JavaParserTypeSolver(new File(Configuration.generatedSources)));
+    /**
+     * Makes the types of a generated unit solvable right away, without
+     * waiting for it to be written and parsed back.
+     */
+    public void register(final CompilationUnit unit) {
+        for (String name : generated.add(unit)) {
+            typeSolver.forget(name);
+            summary.remove(name, Boolean.FALSE);
+        }
     }
 
-    public static TypeSolver get() {
-        return COMBINED_TYPE_SOLVER;
+    /**
+     * Ends the generation: drops the solvers, the ASTs they parsed and the
+     * summary, so a long lived JVM does not keep them until its next build.
+     * Only the shared JDK types are kept.
+     */
+    public void close() {
+        Facades.clear();
+        jdk = null;
+        solver(new CachingTypeSolver(new CombinedTypeSolver(), astBudget, timings));
+        generated = new MemoryTypeSolver(generatedSources, astBudget);
+        shared = Collections.emptyMap();
+        summary.clear();
+        jdkKey = null;
+        sourceKey = null;
+    }
+
+    /**
+     * In streaming mode, drops what the resolution remembers about the nodes
+     * it went through, which keeps their ASTs alive. Called once the sources
+     * of an input are written, never while other threads resolve types.
+     */
+    public void release() {
+        if (streaming) {
+            Facades.clear();
+        }
+    }
+
+    /**
+     * The facade of this solver. Only to be used inside {@link #resolve(Supplier)}.
+     */
+    public JavaParserFacade facade() {
+        return Facades.get(typeSolver);
+    }
+
+    /**
+     * Runs a resolution that goes through the facades or the resolved
+     * declarations, which the symbol solver does not make safe to share
+     * between threads.
+     */
+    public <T> T resolve(final Supplier<T> resolution) {
+        return Facades.locked(resolution);
+    }
+
+    public Optional<ResolvedReferenceTypeDeclaration> tryToSolve(final String name) {
+        return resolve(() -> typeSolver.tryToSolve(name));
+    }
+
+    public boolean isSolvable(final String name) {
+        final Boolean known = summary.get(name);
+        if (known != null) {
+            return known;
+        }
+
+        final boolean solvable = resolve(() -> typeSolver.isSolvable(name));
+        summary.put(name, solvable);
+        return solvable;
+    }
+
+    /**
+     * Loads the summary saved by a previous build. Must be called after init,
+     * with the context the solver was initialized with.
+     */
+    public void load(final GenerationContext context, final File file) throws IOException {
+        jdkKey = System.getProperty("java.version");
+        sourceKey = hashSources(context);
+
+        if (!file.exists()) {
+            return;
+        }
+
+        final Properties properties = new Properties();
+        try (final InputStream in = Files.newInputStream(file.toPath())) {
+            properties.load(in);
+        }
+
+        final boolean sameJdk = jdkKey.equals(properties.getProperty(JDK + "key"));
+        final boolean sameSources = sameJdk && sourceKey.equals(properties.getProperty(TYPE + "key"));
+        for (String key : properties.stringPropertyNames()) {
+            if (key.endsWith(".key")) {
+                continue;
+            }
+            if (sameJdk && key.startsWith(JDK)) {
+                summary.put(key.substring(JDK.length()), Boolean.valueOf(properties.getProperty(key)));
+            } else if (sameSources && key.startsWith(TYPE)) {
+                summary.put(key.substring(TYPE.length()), Boolean.valueOf(properties.getProperty(key)));
+            }
+        }
+    }
+
+    public void save(final File file) throws IOException {
+        if (jdkKey == null || sourceKey == null) {
+            return;
+        }
+
+        final Properties properties = new Properties();
+        properties.setProperty(JDK + "key", jdkKey);
+        properties.setProperty(TYPE + "key", sourceKey);
+        for (Map.Entry<String, Boolean> entry : summary.entrySet()) {
+            final String prefix = isJdk(entry.getKey()) ? JDK : TYPE;
+            properties.setProperty(prefix + entry.getKey(), entry.getValue().toString());
+        }
+
+        Files.createDirectories(file.getAbsoluteFile().getParentFile().toPath());
+        try (final OutputStream out = Files.newOutputStream(file.toPath())) {
+            properties.store(out, null);
+        }
+    }
+
+    private static boolean isJdk(final String name) {
+        // javac refuses project classes in the java package, javax ones come from the plugin classpath
+        return name.startsWith("java.");
+    }
+
+    private static String hashSources(final GenerationContext context) throws IOException {
+        final StringBuilder sources = new StringBuilder();
+        sources.append(context.getModelPackage()).append('|').append(context.getModelSuffix()).append('|')
+                .append(context.getResourcePackage()).append('|').append(context.getResourceSuffix()).append('\n');
+        for (String root : new String[]{context.getModelSources(), context.getResourceSources()}) {
+            if (root == null || !new File(root).isDirectory()) {
+                continue;
+            }
+
+            final List<Path> files;
+            try (final Stream<Path> walk = Files.walk(new File(root).toPath())) {
+                files = walk.filter(p -> p.toString().endsWith(".java")).sorted().collect(Collectors.toList());
+            }
+            for (Path path : files) {
+                sources.append(path).append('=').append(Hashes.sha1(path.toFile())).append('\n');
+            }
+        }
+        return Hashes.sha1(sources.toString());
     }
 }
@@ -0,0 +1,85 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ *
+ */
+package org.tomitribe.inget.common;
+
+import com.github.javaparser.ast.Node;
+import com.github.javaparser.ast.expr.Expression;
+import com.github.javaparser.ast.type.Type;
+import com.github.javaparser.resolution.SymbolResolver;
+import com.github.javaparser.resolution.types.ResolvedType;
+import com.github.javaparser.symbolsolver.JavaSymbolSolver;
+import com.github.javaparser.symbolsolver.javaparsermodel.JavaParserFacade;
+import com.github.javaparser.symbolsolver.model.resolution.TypeSolver;
+
+import java.util.function.Supplier;
+
+/**
+ * The symbol solver keeps a facade per type solver in a static map that is
+ * not synchronized, and looks it up from anywhere in the resolution. The
+ * resolutions of all generations run behind one lock, and the facades, which
+ * hold on to the nodes they resolved, are dropped through
+ * {@link JavaParserFacade#clearInstances()} behind the same lock.
+ */
+final class Facades {
+
+    private static final Object LOCK = new Object();
+
+    private Facades() {
+        // no-op
+    }
+
+    static <T> T locked(final Supplier<T> resolution) {
+        synchronized (LOCK) {
+            return resolution.get();
+        }
+    }
+
+    static JavaParserFacade get(final TypeSolver solver) {
+        return locked(() -> JavaParserFacade.get(solver));
+    }
+
+    static void clear() {
+        synchronized (LOCK) {
+            JavaParserFacade.clearInstances();
+        }
+    }
+
+    /**
+     * A resolver for the nodes of a unit, resolving behind the lock.
+     */
+    static SymbolResolver resolver(final TypeSolver solver) {
+        final JavaSymbolSolver resolver = new JavaSymbolSolver(solver);
+        return new SymbolResolver() {
+            @Override
+            public <T> T resolveDeclaration(final Node node, final Class<T> resultClass) {
+                return locked(() -> resolver.resolveDeclaration(node, resultClass));
+            }
+
+            @Override
+            public <T> T toResolvedType(final Type javaparserType, final Class<T> resultClass) {
+                return locked(() -> resolver.toResolvedType(javaparserType, resultClass));
+            }
+
+            @Override
+            public ResolvedType calculateType(final Expression expression) {
+                return locked(() -> resolver.calculateType(expression));
+            }
+        };
+    }
+}
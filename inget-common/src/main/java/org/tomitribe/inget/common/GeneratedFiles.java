@@ -0,0 +1,51 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ *
+ */
+package org.tomitribe.inget.common;
+
+import java.io.File;
+import java.util.Collections;
+import java.util.Set;
+import java.util.TreeSet;
+import java.util.concurrent.ConcurrentSkipListSet;
+
+/**
+ * Keeps track of every file written by the generators during
+ * the current execution, so the caller can tell which outputs
+ * belong to this run and which ones are leftovers of a previous one.
+ */
+public class GeneratedFiles {
+
+    private final Set<String> files = new ConcurrentSkipListSet<>();
+
+    public void add(final File file) {
+        files.add(file.getAbsolutePath());
+    }
+
+    public void remove(final File file) {
+        files.remove(file.getAbsolutePath());
+    }
+
+    public Set<String> get() {
+        return Collections.unmodifiableSet(new TreeSet<>(files));
+    }
+
+    public void clear() {
+        files.clear();
+    }
+}
@@ -0,0 +1,394 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ *
+ */
+package org.tomitribe.inget.common;
+
+import com.github.javaparser.ast.CompilationUnit;
+
+import java.io.File;
+
+/**
+ * The settings of one generation, fixed before it starts, and the state the
+ * generation builds up: its type solver and parser configuration, the index
+ * of the sources, the files written and the timings.
+ *
+ * Nothing is kept in statics, so generations of the modules of a parallel
+ * reactor build run at the same time. A generation that moves on to other
+ * sources, e.g. the resources once they are generated, derives a new context
+ * with {@link #with()}, which keeps the state of this one.
+ *
+ * `ModelGenerator.execute(GenerationContext.builder().modelPackage("io.superbiz.video.model").generatedSources(out).build());`
+ */
+public class GenerationContext {
+
+    private final String modelSources;
+    private final String resourceSources;
+    private final String generatedSources;
+    private final String clientSources;
+    private final String tempSource;
+    private final String modelPackage;
+    private final String resourcePackage;
+    private final String resourceSuffix;
+    private final String modelSuffix;
+    private final String clientName;
+    private final String cmdLineName;
+    private final Authentication authentication;
+    private final int threads;
+    private final Format format;
+    private final boolean streaming;
+    private final int astCacheSize;
+    private final boolean reuseJdkTypes;
+    private final boolean preserveResources;
+
+    private final Timings timings;
+    private final GeneratedFiles generatedFiles;
+    private final SourceIndex sourceIndex;
+    private final OutputWriter outputWriter;
+    private final CustomTypeSolver typeSolver;
+
+    private GenerationContext(final Builder builder) {
+        this.modelSources = builder.modelSources;
+        this.resourceSources = builder.resourceSources;
+        this.generatedSources = builder.generatedSources;
+        this.clientSources = builder.clientSources;
+        this.tempSource = builder.tempSource;
+        this.modelPackage = builder.modelPackage;
+        this.resourcePackage = builder.resourcePackage;
+        this.resourceSuffix = builder.resourceSuffix;
+        this.modelSuffix = builder.modelSuffix;
+        this.clientName = builder.clientName;
+        this.cmdLineName = builder.cmdLineName;
+        this.authentication = builder.authentication;
+        this.threads = builder.threads;
+        this.format = builder.format;
+        this.streaming = builder.streaming;
+        this.astCacheSize = builder.astCacheSize;
+        this.reuseJdkTypes = builder.reuseJdkTypes;
+        this.preserveResources = builder.preserveResources;
+
+        if (builder.from != null) {
+            this.timings = builder.from.timings;
+            this.generatedFiles = builder.from.generatedFiles;
+            this.sourceIndex = builder.from.sourceIndex;
+            this.outputWriter = builder.from.outputWriter;
+            this.typeSolver = builder.from.typeSolver;
+        } else {
+            this.timings = new Timings();
+            this.generatedFiles = new GeneratedFiles();
+            this.sourceIndex = new SourceIndex();
+            this.outputWriter = new OutputWriter(generatedFiles, sourceIndex, timings, builder.target);
+            this.typeSolver = builder.typeSolver != null ? builder.typeSolver
+                    : new CustomTypeSolver(generatedSources, getAstBudget(), streaming, timings);
+        }
+    }
+
+    public static Builder builder() {
+        return new Builder(null);
+    }
+
+    /**
+     * A builder starting from these settings, for a context that shares the
+     * type solver, the written files and the timings of this one.
+     */
+    public Builder with() {
+        final Builder builder = new Builder(this);
+        builder.modelSources = modelSources;
+        builder.resourceSources = resourceSources;
+        builder.generatedSources = generatedSources;
+        builder.clientSources = clientSources;
+        builder.tempSource = tempSource;
+        builder.modelPackage = modelPackage;
+        builder.resourcePackage = resourcePackage;
+        builder.resourceSuffix = resourceSuffix;
+        builder.modelSuffix = modelSuffix;
+        builder.clientName = clientName;
+        builder.cmdLineName = cmdLineName;
+        builder.authentication = authentication;
+        builder.threads = threads;
+        builder.format = format;
+        builder.streaming = streaming;
+        builder.astCacheSize = astCacheSize;
+        builder.reuseJdkTypes = reuseJdkTypes;
+        builder.preserveResources = preserveResources;
+        return builder;
+    }
+
+    /**
+     * Parses a unit with the parser configuration of this generation, so
+     * its nodes resolve through the type solver of this generation.
+     */
+    public CompilationUnit parse(final String source) {
+        return typeSolver.parse(source);
+    }
+
+    public String getModelSources() {
+        return modelSources;
+    }
+
+    public String getResourceSources() {
+        return resourceSources;
+    }
+
+    public String getGeneratedSources() {
+        return generatedSources;
+    }
+
+    public String getClientSources() {
+        return clientSources;
+    }
+
+    public String getTempSource() {
+        return tempSource;
+    }
+
+    public String getModelPackage() {
+        return modelPackage;
+    }
+
+    public String getResourcePackage() {
+        return resourcePackage;
+    }
+
+    public String getResourceSuffix() {
+        return resourceSuffix;
+    }
+
+    public String getModelSuffix() {
+        return modelSuffix;
+    }
+
+    public String getClientName() {
+        return clientName;
+    }
+
+    public String getCmdLineName() {
+        return cmdLineName;
+    }
+
+    public Authentication getAuthentication() {
+        return authentication;
+    }
+
+    public int getThreads() {
+        return threads;
+    }
+
+    public Format getFormat() {
+        return format;
+    }
+
+    public boolean isStreaming() {
+        return streaming;
+    }
+
+    public int getAstCacheSize() {
+        return astCacheSize;
+    }
+
+    public boolean isReuseJdkTypes() {
+        return reuseJdkTypes;
+    }
+
+    public boolean isPreserveResources() {
+        return preserveResources;
+    }
+
+    /**
+     * The number of ASTs the type solvers may keep, unbounded unless
+     * generating in streaming mode.
+     */
+    public int getAstBudget() {
+        return streaming ? astCacheSize : 0;
+    }
+
+    public String getModelPath() {
+        return modelSources + File.separator + Utils.transformPackageToPath(modelPackage);
+    }
+
+    public String getResourcePath() {
+        return resourceSources + File.separator + Utils.transformPackageToPath(resourcePackage);
+    }
+
+    public String getClientPath() {
+        return clientSources + File.separator + Utils.transformPackageToPath(resourcePackage) + File.separator + "client";
+    }
+
+    public String getClientPackage() {
+        return resourcePackage + ".client";
+    }
+
+    public Timings getTimings() {
+        return timings;
+    }
+
+    public GeneratedFiles getGeneratedFiles() {
+        return generatedFiles;
+    }
+
+    public SourceIndex getSourceIndex() {
+        return sourceIndex;
+    }
+
+    public OutputWriter getOutputWriter() {
+        return outputWriter;
+    }
+
+    public CustomTypeSolver getTypeSolver() {
+        return typeSolver;
+    }
+
+    public static class Builder {
+
+        private final GenerationContext from;
+        private String modelSources;
+        private String resourceSources;
+        private String generatedSources;
+        private String clientSources;
+        private String tempSource;
+        private String modelPackage;
+        private String resourcePackage;
+        private String resourceSuffix;
+        private String modelSuffix;
+        private String clientName;
+        private String cmdLineName;
+        private Authentication authentication;
+        private int threads = 1;
+        private Format format = Format.ECLIPSE;
+        private boolean streaming = false;
+        private int astCacheSize = 1000;
+        private boolean reuseJdkTypes = true;
+        private boolean preserveResources = false;
+        private OutputWriter.Target target;
+        private CustomTypeSolver typeSolver;
+
+        private Builder(final GenerationContext from) {
+            this.from = from;
+        }
+
+        public Builder modelSources(final String modelSources) {
+            this.modelSources = modelSources;
+            return this;
+        }
+
+        public Builder resourceSources(final String resourceSources) {
+            this.resourceSources = resourceSources;
+            return this;
+        }
+
+        public Builder generatedSources(final String generatedSources) {
+            this.generatedSources = generatedSources;
+            return this;
+        }
+
+        public Builder clientSources(final String clientSources) {
+            this.clientSources = clientSources;
+            return this;
+        }
+
+        public Builder tempSource(final String tempSource) {
+            this.tempSource = tempSource;
+            return this;
+        }
+
+        public Builder modelPackage(final String modelPackage) {
+            this.modelPackage = modelPackage;
+            return this;
+        }
+
+        public Builder resourcePackage(final String resourcePackage) {
+            this.resourcePackage = resourcePackage;
+            return this;
+        }
+
+        public Builder resourceSuffix(final String resourceSuffix) {
+            this.resourceSuffix = resourceSuffix;
+            return this;
+        }
+
+        public Builder modelSuffix(final String modelSuffix) {
+            this.modelSuffix = modelSuffix;
+            return this;
+        }
+
+        public Builder clientName(final String clientName) {
+            this.clientName = clientName;
+            return this;
+        }
+
+        public Builder cmdLineName(final String cmdLineName) {
+            this.cmdLineName = cmdLineName;
+            return this;
+        }
+
+        public Builder authentication(final Authentication authentication) {
+            this.authentication = authentication;
+            return this;
+        }
+
+        public Builder threads(final int threads) {
+            this.threads = threads;
+            return this;
+        }
+
+        public Builder format(final Format format) {
+            this.format = format;
+            return this;
+        }
+
+        public Builder streaming(final boolean streaming) {
+            this.streaming = streaming;
+            return this;
+        }
+
+        public Builder astCacheSize(final int astCacheSize) {
+            this.astCacheSize = astCacheSize;
+            return this;
+        }
+
+        public Builder reuseJdkTypes(final boolean reuseJdkTypes) {
+            this.reuseJdkTypes = reuseJdkTypes;
+            return this;
+        }
+
+        public Builder preserveResources(final boolean preserveResources) {
+            this.preserveResources = preserveResources;
+            return this;
+        }
+
+        /**
+         * Where the files are written instead of the file system, only for a new generation.
+         */
+        public Builder target(final OutputWriter.Target target) {
+            this.target = target;
+            return this;
+        }
+
+        /**
+         * The type solver of a previous generation of the same sources, kept
+         * warm instead of starting a new one, only for a new generation.
+         */
+        public Builder typeSolver(final CustomTypeSolver typeSolver) {
+            this.typeSolver = typeSolver;
+            return this;
+        }
+
+        public GenerationContext build() {
+            return new GenerationContext(this);
+        }
+    }
+}
@@ -0,0 +1,198 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ *
+ */
+package org.tomitribe.inget.common;
+
+import com.github.javaparser.ast.CompilationUnit;
+import com.github.javaparser.ast.ImportDeclaration;
+import com.github.javaparser.ast.NodeList;
+import com.github.javaparser.ast.comments.JavadocComment;
+import com.github.javaparser.ast.expr.MarkerAnnotationExpr;
+import com.github.javaparser.ast.expr.MemberValuePair;
+import com.github.javaparser.ast.expr.MethodCallExpr;
+import com.github.javaparser.ast.expr.Name;
+import com.github.javaparser.ast.expr.NameExpr;
+import com.github.javaparser.ast.expr.NormalAnnotationExpr;
+import com.github.javaparser.ast.expr.SingleMemberAnnotationExpr;
+import com.github.javaparser.ast.type.ClassOrInterfaceType;
+import com.github.javaparser.ast.type.TypeParameter;
+import com.github.javaparser.ast.visitor.VoidVisitorAdapter;
+
+import java.util.Comparator;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+import java.util.stream.Collectors;
+
+/**
+ * The rules and generators add imports as they go, usually through
+ * {@link ImportManager}, without checking if they are already there or
+ * still needed once the unit is complete. Here we keep only the imports
+ * the unit uses, once each and sorted, right before it is printed.
+ *
+ * A name counts as used when it appears as a simple name in the code, the
+ * same way google-java-format's RemoveUnusedImports decides it on the
+ * printed source, so the output does not depend on which one ran.
+ *
+ * This should run AFTER all rules that potentially add imports.
+ */
+public class ImportTracker {
+
+    private static final Pattern JAVADOC_REFERENCE =
+            Pattern.compile("(?:\\{@link(?:plain)?|@see|@throws|@exception)\\s+([A-Za-z_$][\\w$]*)");
+
+    private static final Pattern SIMPLE_NAME = Pattern.compile("[A-Za-z_$][\\w$]*");
+    private static final Pattern QUALIFIED_NAME = Pattern.compile("(?<![\\w$.])([A-Za-z_$][\\w$]*)");
+    private static final Pattern STRING_LITERAL = Pattern.compile("\"(?:\\\\.|[^\"\\\\])*\"");
+
+    private ImportTracker() {
+        // no-op
+    }
+
+    public static void apply(final CompilationUnit unit) {
+        final Set<String> used = usedNames(unit);
+        final String pkg = unit.getPackageDeclaration().map(p -> p.getNameAsString()).orElse(null);
+
+        final List<ImportDeclaration> imports = unit.getImports().stream()
+                .distinct()
+                .filter(i -> isUsed(i, pkg, used))
+                .sorted(Comparator.comparing(ImportDeclaration::getNameAsString))
+                .collect(Collectors.toList());
+
+        unit.setImports(new NodeList<>(imports));
+    }
+
+    /**
+     * The simple names the code of the unit refers to, outside of its imports.
+     */
+    public static Set<String> usedNames(final CompilationUnit unit) {
+        final Set<String> used = new HashSet<>();
+
+        unit.getPackageDeclaration().ifPresent(p -> used.add(first(p.getName())));
+
+        // a visitor walks the fields of each node, so it also reaches nodes
+        // the rules attached without setting their parent
+        unit.getTypes().forEach(type -> type.accept(new UsedNames(), used));
+
+        return used;
+    }
+
+    private static class UsedNames extends VoidVisitorAdapter<Set<String>> {
+
+        @Override
+        public void visit(final ClassOrInterfaceType type, final Set<String> used) {
+            if (!type.getScope().isPresent()) {
+                addNames(type.getNameAsString(), used);
+            }
+            super.visit(type, used);
+        }
+
+        @Override
+        public void visit(final TypeParameter type, final Set<String> used) {
+            addNames(type.getNameAsString(), used);
+            super.visit(type, used);
+        }
+
+        @Override
+        public void visit(final NameExpr expr, final Set<String> used) {
+            addNames(expr.getNameAsString(), used);
+            super.visit(expr, used);
+        }
+
+        @Override
+        public void visit(final MethodCallExpr expr, final Set<String> used) {
+            if (!expr.getScope().isPresent()) {
+                addNames(expr.getNameAsString(), used);
+            }
+            super.visit(expr, used);
+        }
+
+        @Override
+        public void visit(final MarkerAnnotationExpr expr, final Set<String> used) {
+            used.add(first(expr.getName()));
+            super.visit(expr, used);
+        }
+
+        @Override
+        public void visit(final SingleMemberAnnotationExpr expr, final Set<String> used) {
+            used.add(first(expr.getName()));
+            super.visit(expr, used);
+        }
+
+        @Override
+        public void visit(final NormalAnnotationExpr expr, final Set<String> used) {
+            used.add(first(expr.getName()));
+            super.visit(expr, used);
+        }
+
+        @Override
+        public void visit(final MemberValuePair pair, final Set<String> used) {
+            used.add(pair.getNameAsString());
+            super.visit(pair, used);
+        }
+
+        @Override
+        public void visit(final JavadocComment comment, final Set<String> used) {
+            final Matcher matcher = JAVADOC_REFERENCE.matcher(comment.getContent());
+            while (matcher.find()) {
+                used.add(matcher.group(1));
+            }
+            super.visit(comment, used);
+        }
+    }
+
+    /**
+     * Names and types are sometimes built from a piece of code, like "List<Failure>" or
+     * "MediaType.APPLICATION_JSON", so each qualified name in them counts.
+     */
+    private static void addNames(final String name, final Set<String> used) {
+        if (SIMPLE_NAME.matcher(name).matches()) {
+            used.add(name);
+            return;
+        }
+
+        final Matcher matcher = QUALIFIED_NAME.matcher(STRING_LITERAL.matcher(name).replaceAll("\"\""));
+        while (matcher.find()) {
+            used.add(matcher.group(1));
+        }
+    }
+
+    private static boolean isUsed(final ImportDeclaration declaration, final String pkg, final Set<String> used) {
+        final Name name = declaration.getName();
+        final String qualifier = name.getQualifier().map(Name::asString).orElse("");
+
+        if (declaration.isAsterisk()) {
+            // for these, the name is the qualifier
+            return !name.asString().equals("java.lang") && !name.asString().equals(pkg);
+        }
+        if (qualifier.equals("java.lang") || qualifier.equals(pkg)) {
+            return false;
+        }
+        return used.contains(name.getIdentifier());
+    }
+
+    private static String first(final Name name) {
+        Name first = name;
+        while (first.getQualifier().isPresent()) {
+            first = first.getQualifier().get();
+        }
+        return first.getIdentifier();
+    }
+}
@@ -0,0 +1,80 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ *
+ */
+package org.tomitribe.inget.common;
+
+import com.github.javaparser.resolution.declarations.ResolvedReferenceTypeDeclaration;
+import com.github.javaparser.symbolsolver.model.resolution.SymbolReference;
+import com.github.javaparser.symbolsolver.model.resolution.TypeSolver;
+import com.github.javaparser.symbolsolver.resolution.typesolvers.ReflectionTypeSolver;
+
+import java.util.Map;
+
+/**
+ * Solves the JDK types by reflection. They never refer to the project
+ * types, so this solver is the root of what it solves instead of reporting
+ * to the solver of a generation. Nothing it keeps points to the sources of
+ * a build and the shared instance can be reused by the next builds of a
+ * long lived JVM, like mvnd or the watch goal.
+ */
+public class JdkTypeSolver implements TypeSolver {
+
+    private static final int MAX_TYPES = 4096;
+    private static final JdkTypeSolver SHARED = new JdkTypeSolver();
+
+    private final ReflectionTypeSolver delegate = new ReflectionTypeSolver();
+    private final Map<String, SymbolReference<ResolvedReferenceTypeDeclaration>> types = Caches.lru(MAX_TYPES);
+
+    public JdkTypeSolver() {
+        delegate.setParent(this);
+    }
+
+    /**
+     * The instance kept for the lifetime of the JVM.
+     */
+    public static JdkTypeSolver shared() {
+        return SHARED;
+    }
+
+    @Override
+    public TypeSolver getParent() {
+        return null;
+    }
+
+    @Override
+    public void setParent(final TypeSolver parent) {
+        // it stays the root of the types it solved
+    }
+
+    @Override
+    public SymbolReference<ResolvedReferenceTypeDeclaration> tryToSolveType(final String name) {
+        final SymbolReference<ResolvedReferenceTypeDeclaration> known = types.get(name);
+        if (known != null) {
+            return known;
+        }
+
+        // not computeIfAbsent, the declarations call back into this solver while resolving
+        final SymbolReference<ResolvedReferenceTypeDeclaration> reference = delegate.tryToSolveType(name);
+        final SymbolReference<ResolvedReferenceTypeDeclaration> existing = types.putIfAbsent(name, reference);
+        return existing != null ? existing : reference;
+    }
+
+    public int size() {
+        return types.size();
+    }
+}
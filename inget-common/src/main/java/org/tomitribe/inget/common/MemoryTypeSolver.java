@@ -0,0 +1,131 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ *
+ */
+package org.tomitribe.inget.common;
+
+import com.github.javaparser.ast.CompilationUnit;
+import com.github.javaparser.ast.Node;
+import com.github.javaparser.ast.body.BodyDeclaration;
+import com.github.javaparser.ast.body.TypeDeclaration;
+import com.github.javaparser.resolution.declarations.ResolvedReferenceTypeDeclaration;
+import com.github.javaparser.symbolsolver.javaparsermodel.JavaParserFactory;
+import com.github.javaparser.symbolsolver.model.resolution.SymbolReference;
+import com.github.javaparser.symbolsolver.model.resolution.TypeSolver;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Solves the types the generators built during this generation straight
+ * from their units, so a later generator does not depend on them being
+ * written to disk and parsed again.
+ *
+ * Units must be complete when they are added, usually right after they
+ * are saved. In streaming mode only the most recently added ones are
+ * kept, the others are solved from disk again.
+ */
+public class MemoryTypeSolver implements TypeSolver {
+
+    private final String directory;
+    private final Map<String, TypeDeclaration<?>> types;
+    private final Map<String, ResolvedReferenceTypeDeclaration> resolved;
+    private TypeSolver parent;
+
+    /**
+     * @param directory where the types are generated
+     * @param astBudget how many types to keep, all of them when not positive
+     */
+    public MemoryTypeSolver(final String directory, final int astBudget) {
+        this.directory = directory;
+        this.types = Caches.lru(astBudget);
+        this.resolved = Caches.lru(astBudget);
+    }
+
+    public String getDirectory() {
+        return directory;
+    }
+
+    @Override
+    public TypeSolver getParent() {
+        return parent;
+    }
+
+    @Override
+    public void setParent(final TypeSolver parent) {
+        this.parent = parent;
+        resolved.clear();
+    }
+
+    /**
+     * Adds the types of the unit, nested ones included.
+     *
+     * @return the qualified names of the types added
+     */
+    public List<String> add(final CompilationUnit unit) {
+        final String pkg = unit.getPackageDeclaration().map(p -> p.getNameAsString() + ".").orElse("");
+        final List<String> names = new ArrayList<>();
+        unit.getTypes().forEach(type -> add(pkg + type.getNameAsString(), type, names));
+        return names;
+    }
+
+    private void add(final String name, final TypeDeclaration<?> type, final List<String> names) {
+        types.put(name, type);
+        resolved.remove(name);
+        names.add(name);
+
+        for (BodyDeclaration<?> member : type.getMembers()) {
+            if (member instanceof TypeDeclaration) {
+                final TypeDeclaration<?> nested = (TypeDeclaration<?>) member;
+                add(name + "." + nested.getNameAsString(), nested, names);
+            }
+        }
+    }
+
+    public int size() {
+        return types.size();
+    }
+
+    @Override
+    public SymbolReference<ResolvedReferenceTypeDeclaration> tryToSolveType(final String name) {
+        final TypeDeclaration<?> type = types.get(name);
+        if (type == null) {
+            return SymbolReference.unsolved(ResolvedReferenceTypeDeclaration.class);
+        }
+
+        return SymbolReference.solved(resolved.computeIfAbsent(name, n -> resolve(type)));
+    }
+
+    private ResolvedReferenceTypeDeclaration resolve(final TypeDeclaration<?> type) {
+        final TypeSolver root = getRoot();
+
+        // the nodes of a parsed unit resolve through the solver the parser was configured with,
+        // a generated unit gets the same one when its types are first solved
+        type.findCompilationUnit().ifPresent(unit -> {
+            synchronized (unit) {
+                unit.setData(Node.SYMBOL_RESOLVER_KEY, Facades.resolver(root));
+            }
+        });
+        return JavaParserFactory.toTypeDeclaration(type, root);
+    }
+
+    @Override
+    public String toString() {
+        return "MemoryTypeSolver{directory=" + directory + ", types=" + types.size() + "}";
+    }
+}
@@ -0,0 +1,247 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ *
+ */
+package org.tomitribe.inget.common;
+
+import com.github.javaparser.JavaParser;
+import com.github.javaparser.ParseProblemException;
+import com.github.javaparser.ast.CompilationUnit;
+import com.github.javaparser.ast.ImportDeclaration;
+import com.github.javaparser.ast.body.ClassOrInterfaceDeclaration;
+import com.github.javaparser.ast.body.FieldDeclaration;
+import com.github.javaparser.ast.type.ClassOrInterfaceType;
+import org.tomitribe.util.IO;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * How the model sources depend on each other. A model depends on the classes
+ * it extends, whose fields are copied into its generated classes, and on the
+ * models its fields reference, which only contribute their name.
+ *
+ * Only the extended classes change what is generated for a model, so they are
+ * the only edges followed by {@link #affectedBy(Collection)}. The commands
+ * expand the fields of both, so {@link #referencedBy(Collection)} follows
+ * both kinds, as does {@link #order(Collection)}.
+ */
+public class ModelGraph {
+
+    private final Map<File, Node> nodes = new LinkedHashMap<>();
+    private final Map<String, File> names = new HashMap<>();
+
+    public static ModelGraph of(final Collection<File> files) throws IOException {
+        final ModelGraph graph = new ModelGraph();
+        for (File file : files) {
+            graph.update(file);
+        }
+        return graph;
+    }
+
+    /**
+     * Reads the file again, or removes it when it does not exist anymore.
+     */
+    public void update(final File file) throws IOException {
+        final File key = key(file);
+        final Node previous = nodes.remove(key);
+        if (previous != null && previous.name != null) {
+            names.remove(previous.name);
+        }
+
+        if (!key.isFile()) {
+            return;
+        }
+
+        final Node node = parse(key);
+        nodes.put(key, node);
+        if (node.name != null) {
+            names.put(node.name, key);
+        }
+    }
+
+    public Set<File> files() {
+        return Collections.unmodifiableSet(nodes.keySet());
+    }
+
+    /**
+     * The files of the graph the given file extends or references.
+     */
+    public Set<File> dependencies(final File file) {
+        final Node node = nodes.get(key(file));
+        if (node == null) {
+            return Collections.emptySet();
+        }
+
+        final Set<File> dependencies = new LinkedHashSet<>();
+        dependencies.addAll(resolve(node.extended));
+        dependencies.addAll(resolve(node.references));
+        return dependencies;
+    }
+
+    /**
+     * The files whose generated classes must be generated again when the given
+     * files change: the files themselves and everything extending them, directly
+     * or through other classes.
+     */
+    public Set<File> affectedBy(final Collection<File> changed) {
+        return dependents(changed, false);
+    }
+
+    /**
+     * The files whose commands must be generated again when the given files
+     * change: the commands expand the fields of the classes a model extends and
+     * references, so the files themselves and everything extending or
+     * referencing them, directly or through other classes.
+     */
+    public Set<File> referencedBy(final Collection<File> changed) {
+        return dependents(changed, true);
+    }
+
+    private Set<File> dependents(final Collection<File> changed, final boolean references) {
+        final Map<File, Set<File>> dependents = new HashMap<>();
+        for (Map.Entry<File, Node> node : nodes.entrySet()) {
+            final Set<File> dependencies = references ? dependencies(node.getKey()) : resolve(node.getValue().extended);
+            for (File dependency : dependencies) {
+                dependents.computeIfAbsent(dependency, k -> new LinkedHashSet<>()).add(node.getKey());
+            }
+        }
+
+        final Set<File> affected = new LinkedHashSet<>();
+        final Deque<File> queue = new ArrayDeque<>();
+        for (File file : changed) {
+            queue.add(key(file));
+        }
+        while (!queue.isEmpty()) {
+            final File file = queue.poll();
+            if (affected.add(file)) {
+                queue.addAll(dependents.getOrDefault(file, Collections.emptySet()));
+            }
+        }
+        return affected;
+    }
+
+    /**
+     * The given files with the ones they depend on first. The references between
+     * models can be cyclic, the files of a cycle are listed once each, in no
+     * particular order between them.
+     */
+    public List<File> order(final Collection<File> files) {
+        final Set<File> selected = new LinkedHashSet<>();
+        for (File file : files) {
+            selected.add(key(file));
+        }
+
+        final List<File> ordered = new ArrayList<>(selected.size());
+        final Set<File> visited = new HashSet<>();
+        for (File file : selected) {
+            visit(file, selected, visited, ordered);
+        }
+        return ordered;
+    }
+
+    private void visit(final File file, final Set<File> selected, final Set<File> visited, final List<File> ordered) {
+        if (!visited.add(file)) {
+            return;
+        }
+
+        for (File dependency : dependencies(file)) {
+            if (selected.contains(dependency)) {
+                visit(dependency, selected, visited, ordered);
+            }
+        }
+        ordered.add(file);
+    }
+
+    private Set<File> resolve(final Collection<String> qualifiedNames) {
+        final Set<File> files = new LinkedHashSet<>();
+        for (String name : qualifiedNames) {
+            final File file = names.get(name);
+            if (file != null) {
+                files.add(file);
+            }
+        }
+        return files;
+    }
+
+    private static Node parse(final File file) throws IOException {
+        final CompilationUnit unit;
+        try {
+            unit = JavaParser.parse(IO.slurp(file));
+        } catch (ParseProblemException e) {
+            // the generation reports it, the file just has no edges
+            return new Node(null);
+        }
+
+        final ClassOrInterfaceDeclaration clazz = Utils.getClazz(unit);
+        if (clazz == null) {
+            return new Node(null);
+        }
+
+        final String pkg = unit.getPackageDeclaration().map(p -> p.getNameAsString() + ".").orElse("");
+        final Node node = new Node(pkg + clazz.getNameAsString());
+        for (ClassOrInterfaceType extended : clazz.getExtendedTypes()) {
+            node.extended.add(qualify(unit, pkg, extended.getNameAsString()));
+        }
+        for (FieldDeclaration field : clazz.getFields()) {
+            for (ClassOrInterfaceType type : field.findAll(ClassOrInterfaceType.class)) {
+                node.references.add(qualify(unit, pkg, type.getNameAsString()));
+            }
+        }
+        return node;
+    }
+
+    /**
+     * Same lookup as {@link Utils#getExtendedClass}: the import of that name or
+     * else the package of the unit.
+     */
+    private static String qualify(final CompilationUnit unit, final String pkg, final String name) {
+        for (ImportDeclaration imported : unit.getImports()) {
+            if (!imported.isAsterisk() && !imported.isStatic() && imported.getNameAsString().endsWith("." + name)) {
+                return imported.getNameAsString();
+            }
+        }
+        return pkg + name;
+    }
+
+    private static File key(final File file) {
+        return file.getAbsoluteFile().toPath().normalize().toFile();
+    }
+
+    private static final class Node {
+
+        private final String name;
+        private final Set<String> extended = new LinkedHashSet<>();
+        private final Set<String> references = new LinkedHashSet<>();
+
+        private Node(final String name) {
+            this.name = name;
+        }
+    }
+}
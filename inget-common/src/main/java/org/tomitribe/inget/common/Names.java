@@ -0,0 +1,103 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ *
+ */
+package org.tomitribe.inget.common;
+
+import java.io.File;
+import java.util.Map;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Names derived from model and package names. The same handful of names are
+ * asked for again and again for every model, resource and client method, so
+ * each derivation is computed once.
+ */
+public class Names {
+
+    private static final Pattern CAMEL_CASE = Pattern.compile("(?<=[a-z])[A-Z]");
+
+    private static final int MAX_NAMES = 4096;
+    private static final int MAX_VARIANTS = 16;
+
+    private static final Map<String, String> PLURALS = Caches.lru(MAX_NAMES);
+    private static final Map<String, Map<String, String>> SEPARATED = Caches.lru(MAX_VARIANTS);
+    private static final Map<String, String> PATHS = Caches.lru(MAX_NAMES);
+    private static final Map<String, Map<String, String>> ROOT_NAMES = Caches.lru(MAX_VARIANTS);
+
+    private Names() {
+        // no-op
+    }
+
+    public static String plural(final String singular) {
+        if (singular == null) {
+            return null;
+        }
+        return PLURALS.computeIfAbsent(singular, Names::toPlural);
+    }
+
+    /**
+     * "MovieRating" with " " gives "movie rating".
+     */
+    public static String separated(final String value, final String separator) {
+        return SEPARATED.computeIfAbsent(separator, s -> Caches.lru(MAX_NAMES))
+                .computeIfAbsent(value, v -> toSeparated(v, separator));
+    }
+
+    /**
+     * "io.superbiz.model" gives "io/superbiz/model", with the platform separator.
+     */
+    public static String packagePath(final String pkg) {
+        return PATHS.computeIfAbsent(pkg, p -> p.replace('.', File.separatorChar));
+    }
+
+    /**
+     * The class name without the model suffix, e.g. "MovieModel" gives "Movie".
+     */
+    public static String rootName(final String className, final String suffix) {
+        return ROOT_NAMES.computeIfAbsent(String.valueOf(suffix), s -> Caches.lru(MAX_NAMES))
+                .computeIfAbsent(className, c -> c.replace(suffix, ""));
+    }
+
+    private static String toPlural(final String singular) {
+        if (!singular.endsWith("y")) {
+            return singular + "s";
+        }
+
+        String beforeTwoChars = singular.substring(0, singular.length() - 2);
+        String twoLastChars = singular.substring(singular.length() - 2, singular.length());
+        String beforeY = twoLastChars.substring(0, 1);
+        String plural = "";
+        if (beforeY.equals("a") || beforeY.equals("e") || beforeY.equals("i") || beforeY.equals("o") || beforeY.equals("u")) {
+            plural += beforeTwoChars + twoLastChars + "s";
+        } else {
+            plural += beforeTwoChars + beforeY + "ies";
+        }
+        return plural;
+    }
+
+    private static String toSeparated(final String value, final String separator) {
+        final Matcher matcher = CAMEL_CASE.matcher(value);
+        final StringBuffer modified = new StringBuffer();
+        while (matcher.find()) {
+            matcher.appendReplacement(modified, separator + matcher.group());
+        }
+        matcher.appendTail(modified);
+        return modified.toString().toLowerCase();
+    }
+}
@@ -0,0 +1,150 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ *
+ */
+package org.tomitribe.inget.common;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.Arrays;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Writes generated files only when their content changed, so untouched
+ * outputs keep their timestamp and are not recompiled downstream.
+ *
+ * Changed files are written to a temporary file next to the target and
+ * moved in place, so a reader never sees a half written source.
+ */
+public class OutputWriter {
+
+    private final AtomicInteger written = new AtomicInteger();
+    private final AtomicInteger unchanged = new AtomicInteger();
+    private final AtomicInteger deleted = new AtomicInteger();
+    private final GeneratedFiles generatedFiles;
+    private final SourceIndex sourceIndex;
+    private final Timings timings;
+    private final Target target;
+
+    /**
+     * Where changed files are written when the build runs inside an IDE,
+     * which needs to know about every file the generation touched.
+     */
+    public interface Target {
+        OutputStream newOutputStream(File file) throws IOException;
+
+        void deleted(File file);
+    }
+
+    /**
+     * @param target where to write instead of the file system, may be null
+     */
+    public OutputWriter(final GeneratedFiles generatedFiles, final SourceIndex sourceIndex, final Timings timings, final Target target) {
+        this.generatedFiles = generatedFiles;
+        this.sourceIndex = sourceIndex;
+        this.timings = timings;
+        this.target = target;
+    }
+
+    public boolean write(final File file, final String content) throws IOException {
+        return write(file, content.getBytes());
+    }
+
+    public boolean write(final File file, final byte[] content) throws IOException {
+        generatedFiles.add(file);
+        sourceIndex.add(file);
+
+        final long start = Timings.start();
+        try {
+            if (isUnchanged(file, content)) {
+                unchanged.incrementAndGet();
+                return false;
+            }
+
+            replace(file, content);
+            written.incrementAndGet();
+            timings.count("bytes.written", content.length);
+            return true;
+        } finally {
+            timings.stop("write", start);
+        }
+    }
+
+    private void replace(final File file, final byte[] content) throws IOException {
+        final Path path = file.toPath();
+        final Path dir = path.toAbsolutePath().getParent();
+        Files.createDirectories(dir);
+
+        if (target != null) {
+            try (final OutputStream out = target.newOutputStream(file)) {
+                out.write(content);
+            }
+            return;
+        }
+
+        final Path tmp = Files.createTempFile(dir, "." + file.getName(), ".tmp");
+        try {
+            Files.write(tmp, content);
+            try {
+                Files.move(tmp, path, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+            } catch (AtomicMoveNotSupportedException e) {
+                Files.move(tmp, path, StandardCopyOption.REPLACE_EXISTING);
+            }
+        } finally {
+            Files.deleteIfExists(tmp);
+        }
+    }
+
+    public boolean delete(final File file) {
+        generatedFiles.remove(file);
+        sourceIndex.remove(file);
+
+        if (file.delete()) {
+            if (target != null) {
+                target.deleted(file);
+            }
+            deleted.incrementAndGet();
+            return true;
+        }
+        return false;
+    }
+
+    private static boolean isUnchanged(final File file, final byte[] content) throws IOException {
+        // the size check avoids reading files that obviously changed
+        if (!file.isFile() || file.length() != content.length) {
+            return false;
+        }
+        return Arrays.equals(Files.readAllBytes(file.toPath()), content);
+    }
+
+    public int getWritten() {
+        return written.get();
+    }
+
+    public int getUnchanged() {
+        return unchanged.get();
+    }
+
+    public int getDeleted() {
+        return deleted.get();
+    }
+}
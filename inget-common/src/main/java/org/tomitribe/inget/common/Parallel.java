@@ -0,0 +1,86 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ *
+ */
+package org.tomitribe.inget.common;
+
+import java.io.IOException;
+import java.io.InterruptedIOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.Future;
+
+/**
+ * Runs a generation task for each input, on a fork-join pool sized by
+ * {@link GenerationContext#getThreads()}. Every task must only write its own
+ * output files, so the result is the same whatever the execution order.
+ */
+public class Parallel {
+
+    private Parallel() {
+        // no-op
+    }
+
+    @FunctionalInterface
+    public interface Task<T> {
+        void run(T item) throws IOException;
+    }
+
+    public static <T> void forEach(final int threads, final List<T> items, final Task<T> task) throws IOException {
+        if (threads <= 1 || items.size() < 2) {
+            for (final T item : items) {
+                task.run(item);
+            }
+            return;
+        }
+
+        final ForkJoinPool pool = new ForkJoinPool(Math.min(threads, items.size()));
+        try {
+            final List<Future<Void>> futures = new ArrayList<>(items.size());
+            for (final T item : items) {
+                futures.add(pool.submit(() -> {
+                    task.run(item);
+                    return null;
+                }));
+            }
+
+            // join in submission order so the reported failure is the same as in a sequential run
+            for (final Future<Void> future : futures) {
+                future.get();
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new InterruptedIOException("Generation was interrupted");
+        } catch (ExecutionException e) {
+            final Throwable cause = e.getCause();
+            if (cause instanceof IOException) {
+                throw (IOException) cause;
+            }
+            if (cause instanceof RuntimeException) {
+                throw (RuntimeException) cause;
+            }
+            if (cause instanceof Error) {
+                throw (Error) cause;
+            }
+            throw new IOException(cause);
+        } finally {
+            pool.shutdownNow();
+        }
+    }
+}
@@ -0,0 +1,119 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ *
+ */
+package org.tomitribe.inget.common;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.InterruptedIOException;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+
+/**
+ * Hands what a generation stage produces to the next one as soon as it is
+ * produced, so consecutive stages overlap instead of the next one scanning
+ * the output of the previous one when it is complete.
+ *
+ * The items are consumed in order by a single thread. The queue is bounded,
+ * so a slow consumer holds the producers back instead of letting the
+ * pending items pile up in memory.
+ */
+public class Pipeline<T> implements Closeable {
+
+    private static final Object END = new Object();
+
+    private final BlockingQueue<Object> queue;
+    private final Thread thread;
+    private volatile Throwable failure;
+    private boolean closed;
+
+    public Pipeline(final String name, final int capacity, final Parallel.Task<T> consumer) {
+        this.queue = new ArrayBlockingQueue<>(capacity);
+        this.thread = new Thread(() -> consume(consumer), name);
+        this.thread.setDaemon(true);
+        this.thread.start();
+    }
+
+    @SuppressWarnings("unchecked")
+    private void consume(final Parallel.Task<T> consumer) {
+        try {
+            for (Object item = queue.take(); item != END; item = queue.take()) {
+                // after a failure the queue is still drained, so the producers never block
+                if (failure != null) {
+                    continue;
+                }
+                try {
+                    consumer.run((T) item);
+                } catch (IOException | RuntimeException | Error e) {
+                    failure = e;
+                }
+            }
+        } catch (InterruptedException e) {
+            failure = e;
+        }
+    }
+
+    public void submit(final T item) throws IOException {
+        rethrow();
+        try {
+            queue.put(item);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new InterruptedIOException("Generation was interrupted");
+        }
+    }
+
+    /**
+     * Waits for the submitted items to be consumed.
+     */
+    @Override
+    public void close() throws IOException {
+        if (closed) {
+            rethrow();
+            return;
+        }
+        closed = true;
+
+        try {
+            queue.put(END);
+            thread.join();
+        } catch (InterruptedException e) {
+            thread.interrupt();
+            Thread.currentThread().interrupt();
+            throw new InterruptedIOException("Generation was interrupted");
+        }
+        rethrow();
+    }
+
+    private void rethrow() throws IOException {
+        final Throwable cause = failure;
+        if (cause == null) {
+            return;
+        }
+        if (cause instanceof IOException) {
+            throw (IOException) cause;
+        }
+        if (cause instanceof RuntimeException) {
+            throw (RuntimeException) cause;
+        }
+        if (cause instanceof Error) {
+            throw (Error) cause;
+        }
+        throw new IOException(cause);
+    }
+}
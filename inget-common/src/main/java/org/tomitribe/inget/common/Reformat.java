@@ -18,6 +18,7 @@
  */
 package org.tomitribe.inget.common;
 
+import com.github.javaparser.ast.CompilationUnit;
 import org.eclipse.jdt.core.JavaCore;
 import org.eclipse.jdt.core.ToolFactory;
 import org.eclipse.jdt.core.formatter.CodeFormatter;
@@ -28,15 +29,76 @@ import org.eclipse.jface.text.IDocument;
 import org.eclipse.text.edits.MalformedTreeException;
 import org.eclipse.text.edits.TextEdit;
 
+import java.util.HashMap;
 import java.util.Map;
+import java.util.regex.Pattern;
 
 public class Reformat {
 
+    private static final Map<String, String> OPTIONS = options();
+
+    // formatters keep state while formatting, so each thread gets its own
+    private static final ThreadLocal<CodeFormatter> FORMATTER =
+            ThreadLocal.withInitial(() -> ToolFactory.createCodeFormatter(new HashMap<>(OPTIONS)));
+
+    private static final Pattern TAB = Pattern.compile("\t");
+    private static final Pattern NESTED_COMMENT = Pattern.compile("// //");
+    private static final Pattern LINE_ENDING_WITH_COMMA = Pattern.compile("([^)]),( *//.*)?\n");
+    private static final Pattern SEPARATOR = Pattern.compile("(// ----------------------------------------------------------------------------------------\n)");
+
     private Reformat() {
         // no-op
     }
 
+    /**
+     * Keeps only the imports the unit uses, prints it and formats it once.
+     * With {@link Format#FAST} only the JavaParser printer is used.
+     */
+    public static String format(final GenerationContext context, final CompilationUnit unit) {
+        final long start = Timings.start();
+        ImportTracker.apply(unit);
+        context.getTimings().stop("imports", start);
+        return format(context, unit.toString());
+    }
+
+    /**
+     * Formats a printed unit, its imports must already be the ones it uses.
+     */
+    public static String format(final GenerationContext context, final String source) {
+        if (context.getFormat() == Format.FAST) {
+            return source;
+        }
+
+        final long start = Timings.start();
+        final String formatted = apply(source);
+        context.getTimings().stop("format", start);
+        return formatted;
+    }
+
     public static String apply(final String source) {
+        final TextEdit edit = FORMATTER.get().format(CodeFormatter.K_COMPILATION_UNIT, source, 0, // starting position
+                source.length(), // length
+                0, // initial indentation
+                "\n" // line separator
+        );
+
+        IDocument document = new Document(source);
+        try {
+            edit.apply(document);
+        } catch (MalformedTreeException | BadLocationException e) {
+            throw new IllegalStateException(e);
+        }
+
+        String formatted = document.get();
+        formatted = TAB.matcher(formatted).replaceAll("    ");
+        formatted = NESTED_COMMENT.matcher(formatted).replaceAll("//");
+        formatted = LINE_ENDING_WITH_COMMA.matcher(formatted).replaceAll("$1,$2\n\n");
+        formatted = SEPARATOR.matcher(formatted).replaceAll("$1\n");
+        return formatted;
+    }
+
+    @SuppressWarnings("unchecked")
+    private static Map<String, String> options() {
         final Map options = DefaultCodeFormatterConstants.getEclipseDefaultSettings();
 
         options.put(JavaCore.COMPILER_COMPLIANCE, JavaCore.VERSION_1_8);
@@ -67,27 +129,6 @@ public class Reformat {
         options.put(DefaultCodeFormatterConstants.FORMATTER_INSERT_NEW_LINE_AFTER_ANNOTATION_ON_PARAMETER, JavaCore.INSERT);
         options.put(DefaultCodeFormatterConstants.FORMATTER_INSERT_NEW_LINE_AFTER_ANNOTATION_ON_METHOD, JavaCore.INSERT);
         options.put(DefaultCodeFormatterConstants.FORMATTER_INSERT_NEW_LINE_AFTER_OPENING_BRACE_IN_ARRAY_INITIALIZER, JavaCore.INSERT);
-        // instantiate the default code formatter with the given options
-        final CodeFormatter codeFormatter = ToolFactory.createCodeFormatter(options);
-
-        final TextEdit edit = codeFormatter.format(CodeFormatter.K_COMPILATION_UNIT, source, 0, // starting position
-                source.length(), // length
-                0, // initial indentation
-                "\n" // line separator
-        );
-
-        IDocument document = new Document(source);
-        try {
-            edit.apply(document);
-        } catch (MalformedTreeException | BadLocationException e) {
-            throw new IllegalStateException(e);
-        }
-
-        // display the formatted string on the System out
-        return document.get()
-                .replaceAll("\t", "    ")
-                .replaceAll("// //", "//")
-                .replaceAll("([^)]),( *//.*)?\n", "$1,$2\n\n")
-                .replaceAll("(// ----------------------------------------------------------------------------------------\n)", "$1\n");
+        return options;
     }
 }
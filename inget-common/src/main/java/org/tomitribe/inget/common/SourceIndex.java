@@ -0,0 +1,187 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ *
+ */
+package org.tomitribe.inget.common;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+/**
+ * The java files of each source root, walked once and then kept up to date
+ * with what the generators write through {@link OutputWriter}.
+ *
+ * Files changed by anything else are only seen after {@link #reset()}, which
+ * every generator calls when it starts.
+ */
+public class SourceIndex {
+
+    private static final byte[] JAX_RS = "javax.ws.rs".getBytes(StandardCharsets.UTF_8);
+    private static final byte[] PATH = "@Path".getBytes(StandardCharsets.UTF_8);
+
+    private final Map<String, Root> roots = new ConcurrentHashMap<>();
+    private final Map<File, Boolean> resources = new ConcurrentHashMap<>();
+
+    public void reset() {
+        roots.clear();
+        resources.clear();
+    }
+
+    /**
+     * All java files under the root, in the order the directories list them.
+     */
+    public List<File> files(final String root) {
+        return root(root).files();
+    }
+
+    public List<File> files(final String root, final String fileName) {
+        return root(root).named(fileName);
+    }
+
+    public List<File> endingWith(final String root, final String suffix) {
+        return root(root).files().stream()
+                .filter(f -> f.getName().endsWith(suffix))
+                .collect(Collectors.toList());
+    }
+
+    /**
+     * A resource is any source mentioning both javax.ws.rs and @Path. The
+     * annotation may be only on the methods, so the whole file is scanned,
+     * but as bytes and without keeping the text around.
+     */
+    public boolean isResource(final File file) throws IOException {
+        final File key = file.getAbsoluteFile();
+        final Boolean known = resources.get(key);
+        if (known != null) {
+            return known;
+        }
+
+        final byte[] content = Files.readAllBytes(file.toPath());
+        final boolean resource = contains(content, JAX_RS) && contains(content, PATH);
+        resources.put(key, resource);
+        return resource;
+    }
+
+    void add(final File file) {
+        resources.remove(file.getAbsoluteFile());
+        for (Root root : roots.values()) {
+            root.add(file);
+        }
+    }
+
+    void remove(final File file) {
+        resources.remove(file.getAbsoluteFile());
+        for (Root root : roots.values()) {
+            root.remove(file);
+        }
+    }
+
+    private Root root(final String root) {
+        return roots.computeIfAbsent(String.valueOf(root), Root::new);
+    }
+
+    private static boolean contains(final byte[] content, final byte[] value) {
+        final int last = content.length - value.length;
+        outer:
+        for (int i = 0; i <= last; i++) {
+            for (int j = 0; j < value.length; j++) {
+                if (content[i + j] != value[j]) {
+                    continue outer;
+                }
+            }
+            return true;
+        }
+        return false;
+    }
+
+    private static final class Root {
+
+        private final Path path;
+        private final Path absolute;
+        private final List<File> files = new ArrayList<>();
+        private final Map<String, List<File>> names = new HashMap<>();
+
+        private Root(final String root) {
+            this.path = new File(root).toPath();
+            this.absolute = path.toAbsolutePath().normalize();
+
+            if (!Files.isDirectory(path)) {
+                return;
+            }
+
+            try (final Stream<Path> walk = Files.walk(path)) {
+                walk.filter(p -> p.getFileName().toString().endsWith(".java"))
+                        .filter(Files::isRegularFile)
+                        .forEach(p -> index(p.toFile()));
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        }
+
+        private synchronized List<File> files() {
+            return new ArrayList<>(files);
+        }
+
+        private synchronized List<File> named(final String fileName) {
+            final List<File> found = names.get(fileName);
+            return found == null ? Collections.emptyList() : new ArrayList<>(found);
+        }
+
+        private synchronized void add(final File file) {
+            final File relative = relative(file);
+            if (relative != null && relative.getName().endsWith(".java")
+                    && !names.getOrDefault(relative.getName(), Collections.emptyList()).contains(relative)) {
+                index(relative);
+            }
+        }
+
+        private synchronized void remove(final File file) {
+            final File relative = relative(file);
+            if (relative != null && files.remove(relative)) {
+                names.get(relative.getName()).remove(relative);
+            }
+        }
+
+        private void index(final File file) {
+            files.add(file);
+            names.computeIfAbsent(file.getName(), k -> new ArrayList<>()).add(file);
+        }
+
+        /**
+         * The file as the walk would have listed it, or null if it is not under this root.
+         */
+        private File relative(final File file) {
+            final Path absoluteFile = file.toPath().toAbsolutePath().normalize();
+            if (!absoluteFile.startsWith(absolute) || absoluteFile.equals(absolute)) {
+                return null;
+            }
+            return path.resolve(absolute.relativize(absoluteFile)).toFile();
+        }
+    }
+}
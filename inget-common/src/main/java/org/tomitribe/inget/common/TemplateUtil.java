@@ -19,15 +19,30 @@
 package org.tomitribe.inget.common;
 
 import java.io.InputStream;
+import java.util.Map;
 import java.util.Scanner;
+import java.util.concurrent.ConcurrentHashMap;
 
 public class TemplateUtil {
 
+    private static final Map<String, String> TEMPLATES = new ConcurrentHashMap<>();
+
     private TemplateUtil() {
         // no-op
     }
 
+    /**
+     * The content of templates/fileName, read from the classpath only the first time.
+     */
     public static String readTemplate(String fileName) {
+        return TEMPLATES.computeIfAbsent(fileName, TemplateUtil::read);
+    }
+
+    public static Template template(String fileName, String... slotNames) {
+        return Template.of(readTemplate(fileName), slotNames);
+    }
+
+    private static String read(String fileName) {
 
         StringBuilder result = new StringBuilder("");
 
@@ -0,0 +1,135 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ *
+ */
+package org.tomitribe.inget.common;
+
+import java.io.File;
+import java.util.Collections;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Collects how long each generation step takes, overall and for each source
+ * file, plus a few counters. The source file is set per thread by the
+ * generators, so steps deep in the pipeline do not need to know it.
+ */
+public class Timings {
+
+    private final Map<String, Step> steps = new ConcurrentHashMap<>();
+    private final Map<String, Map<String, LongAdder>> files = new ConcurrentHashMap<>();
+    private final Map<String, LongAdder> counters = new ConcurrentHashMap<>();
+    private final ThreadLocal<String> source = new ThreadLocal<>();
+
+    /**
+     * The source file the current thread works on, null when done with it.
+     */
+    public void source(final File file) {
+        if (file == null) {
+            source.remove();
+        } else {
+            source.set(file.getPath());
+        }
+    }
+
+    /**
+     * Runs the task with its file as the current source, timing it as a whole under the given step.
+     */
+    public Parallel.Task<File> bySource(final String step, final Parallel.Task<File> task) {
+        return file -> {
+            source(file);
+            final long start = start();
+            try {
+                task.run(file);
+            } finally {
+                stop(step, start);
+                source(null);
+            }
+        };
+    }
+
+    public static long start() {
+        return System.nanoTime();
+    }
+
+    public void stop(final String step, final long start) {
+        final long nanos = System.nanoTime() - start;
+        steps.computeIfAbsent(step, k -> new Step()).add(nanos);
+
+        final String file = source.get();
+        if (file != null) {
+            files.computeIfAbsent(file, k -> new ConcurrentHashMap<>())
+                    .computeIfAbsent(step, k -> new LongAdder())
+                    .add(nanos);
+        }
+    }
+
+    public void count(final String counter, final long amount) {
+        counters.computeIfAbsent(counter, k -> new LongAdder()).add(amount);
+    }
+
+    public Map<String, Step> steps() {
+        return Collections.unmodifiableMap(new TreeMap<>(steps));
+    }
+
+    /**
+     * Nanoseconds spent in each step, by source file.
+     */
+    public Map<String, Map<String, Long>> files() {
+        final Map<String, Map<String, Long>> result = new TreeMap<>();
+        files.forEach((file, byStep) -> {
+            final Map<String, Long> nanos = new TreeMap<>();
+            byStep.forEach((step, total) -> nanos.put(step, total.sum()));
+            result.put(file, nanos);
+        });
+        return result;
+    }
+
+    public Map<String, Long> counters() {
+        final Map<String, Long> result = new TreeMap<>();
+        counters.forEach((name, value) -> result.put(name, value.sum()));
+        return result;
+    }
+
+    public static class Step {
+
+        private final LongAdder count = new LongAdder();
+        private final LongAdder total = new LongAdder();
+        private final AtomicLong max = new AtomicLong();
+
+        private void add(final long nanos) {
+            count.increment();
+            total.add(nanos);
+            max.accumulateAndGet(nanos, Math::max);
+        }
+
+        public long getCount() {
+            return count.sum();
+        }
+
+        public long getTotal() {
+            return total.sum();
+        }
+
+        public long getMax() {
+            return max.get();
+        }
+    }
+}
@@ -40,7 +40,6 @@ import com.github.javaparser.ast.expr.SingleMemberAnnotationExpr;
 import com.github.javaparser.ast.expr.StringLiteralExpr;
 import com.github.javaparser.resolution.declarations.ResolvedReferenceTypeDeclaration;
 import com.github.javaparser.resolution.types.ResolvedType;
-import org.tomitribe.util.Files;
 import org.tomitribe.util.IO;
 
 import java.io.File;
@@ -59,13 +58,16 @@ import java.util.Map;
 import java.util.Optional;
 import java.util.function.Function;
 import java.util.function.Predicate;
-import java.util.regex.Matcher;
 import java.util.regex.Pattern;
 import java.util.stream.Collectors;
 import java.util.stream.Stream;
 
 public class Utils {
 
+    private static final int MAX_PATTERNS = 256;
+    private static final Pattern PATH_PARAMETER = Pattern.compile(".*\\{[^}]+\\}.*");
+    private static final Map<String, Pattern> PATTERNS = Caches.lru(MAX_PATTERNS);
+
     private Utils() {
     }
 
@@ -141,8 +143,8 @@ public class Utils {
         if (annotationByName.isPresent() && annotationByName.get().isSingleMemberAnnotationExpr()) {
             SingleMemberAnnotationExpr singleAnnotation = annotationByName.get().asSingleMemberAnnotationExpr();
             NodeList nodeList = new NodeList<MemberValuePair>();
-            nodeList.add(new MemberValuePair("value", singleAnnotation.getMemberValue()));
-            return new NormalAnnotationExpr(annotationByName.get().getName(), nodeList);
+            nodeList.add(new MemberValuePair("value", singleAnnotation.getMemberValue().clone()));
+            return new NormalAnnotationExpr(annotationByName.get().getName().clone(), nodeList);
         }
 
         return (NormalAnnotationExpr) annotationByName.orElse(null);
@@ -156,7 +158,7 @@ public class Utils {
 
     private static int sort(final String name, final String... patterns) {
         for (int i = 0; i < patterns.length; i++) {
-            if (name.matches(patterns[i])) return i;
+            if (PATTERNS.computeIfAbsent(patterns[i], Pattern::compile).matcher(name).matches()) return i;
         }
         return patterns.length + 1;
     }
@@ -184,7 +186,8 @@ public class Utils {
 
         final MemberValuePair value = pairs(apiResponses).get("value");
         if (value == null) {
-            apiResponses.addPair("value", "{" + response + "}");
+            apiResponses.getPairs().add(new MemberValuePair("value",
+                    asArray(new NodeList<>(JavaParser.parseAnnotation(response)))));
             return;
         }
 
@@ -269,7 +272,7 @@ public class Utils {
         if (path == null) return false;
 
         final MemberValuePair value = pairs(path).get("value");
-        return value != null && value.toString().matches(".*\\{[^}]+\\}.*");
+        return value != null && PATH_PARAMETER.matcher(value.toString()).matches();
     }
 
     public static boolean isMethodReadAll(final MethodDeclaration method) {
@@ -355,24 +358,18 @@ public class Utils {
         return clazz.getMethods().stream().anyMatch(methodPredicate);
     }
 
-    public static ClassOrInterfaceDeclaration getExtendedClass(CompilationUnit classUnit, String extendedClassName) throws IOException {
+    public static ClassOrInterfaceDeclaration getExtendedClass(GenerationContext context, CompilationUnit classUnit, String extendedClassName) throws IOException {
         Optional<ImportDeclaration> classImport = classUnit.getImports().stream().filter(i -> i.getNameAsString().endsWith("." + extendedClassName)).findFirst();
         String extendedClassPath;
         if (classImport.isPresent()) {
-            extendedClassPath = Configuration.modelSources + "/" + classImport.get().getNameAsString().replaceAll("\\.", "/");
+            extendedClassPath = context.getModelSources() + "/" + classImport.get().getNameAsString().replace('.', '/');
             extendedClassPath += ".java";
 
         } else {
-            extendedClassPath = Configuration.modelSources + "/" + classUnit.getPackageDeclaration().get().getNameAsString().replaceAll("\\.", "/");
+            extendedClassPath = context.getModelSources() + "/" + classUnit.getPackageDeclaration().get().getNameAsString().replace('.', '/');
             extendedClassPath += "/" + extendedClassName + ".java";
         }
-        return getClazz(extendedClassPath);
-    }
-
-    public static ClassOrInterfaceDeclaration getClazz(String filePath) throws IOException {
-        final String source = IO.slurp(new File(filePath));
-        final CompilationUnit classUnit = JavaParser.parse(source);
-        return getClazz(classUnit);
+        return getClazz(context.parse(IO.slurp(new File(extendedClassPath))));
     }
 
     public static String getExample(FieldDeclaration field) {
@@ -400,12 +397,12 @@ public class Utils {
         return id != null && id.getValue().asBooleanLiteralExpr().getValue();
     }
 
-    public static String getRootName(ClassOrInterfaceDeclaration rootClass) {
-        return rootClass.getName().toString().replace(Configuration.modelSuffix, "");
+    public static String getRootName(GenerationContext context, ClassOrInterfaceDeclaration rootClass) {
+        return Names.rootName(rootClass.getNameAsString(), context.getModelSuffix());
     }
 
-    public static boolean isRootResource(final String rootClassName, final String resourceName) {
-        final String expectedSingularResource = rootClassName + Configuration.resourceSuffix;
+    public static boolean isRootResource(final GenerationContext context, final String rootClassName, final String resourceName) {
+        final String expectedSingularResource = rootClassName + context.getResourceSuffix();
         return expectedSingularResource.equals(resourceName);
     }
 
@@ -435,67 +432,60 @@ public class Utils {
         return classOperations;
     }
 
-    public static List<File> getResources(final String modelClassName) {
-        final File apiSourcesDir = new File(Configuration.resourceSources);
-        final File sourceRootDir = new File(Configuration.generatedSources);
-        List<File> src = Files.collect(apiSourcesDir, "(.*)" + Configuration.resourceSuffix + "\\.java")
-                .stream()
-                .filter(f -> f.getName().equals(modelClassName + Configuration.resourceSuffix + ".java") ||
-                        f.getName().equals(Utils.toPlural(modelClassName) + Configuration.resourceSuffix + ".java"))
-                .collect(Collectors.toList());
-        List<File> generatedSources = Files.collect(sourceRootDir, "(.*)" + Configuration.resourceSuffix + "\\.java")
-                .stream()
-                .filter(f -> f.getName().equals(modelClassName + Configuration.resourceSuffix + ".java") ||
-                        f.getName().equals(Utils.toPlural(modelClassName) + Configuration.resourceSuffix + ".java"))
-                .collect(Collectors.toList());
+    public static List<File> getResources(final GenerationContext context, final String modelClassName) {
+        final List<String> names = Arrays.asList(
+                modelClassName + context.getResourceSuffix() + ".java",
+                Utils.toPlural(modelClassName) + context.getResourceSuffix() + ".java");
 
-        return Stream.concat(src.stream(), generatedSources.stream())
+        final SourceIndex index = context.getSourceIndex();
+        return Stream.of(context.getResourceSources(), context.getGeneratedSources())
+                .flatMap(root -> names.stream().flatMap(name -> index.files(root, name).stream()))
                 .distinct()
                 .collect(Collectors.toList());
     }
 
-    public static Map<String, String> getResources() {
-        final File srcFolder = new File(Configuration.resourceSources);
-        final File generatedFolder = new File(Configuration.generatedSources);
-        List<File> src = Files.collect(srcFolder, "(.*)\\.java");
-        List<File> generatedSources = Files.collect(generatedFolder, "(.*)\\.java");
+    /**
+     * The resource files by name, read by the caller one at a time.
+     */
+    public static Map<String, File> getResources(final GenerationContext context) {
+        return getResources(context, f -> true);
+    }
 
-        Map<String, File> collect = Stream.concat(src.stream(), generatedSources.stream())
+    public static Map<String, File> getResources(final GenerationContext context, final Predicate<File> filter) {
+        final SourceIndex index = context.getSourceIndex();
+        Map<String, File> collect = Stream.concat(
+                index.files(context.getResourceSources()).stream(),
+                index.files(context.getGeneratedSources()).stream())
                 .distinct()
+                .filter(filter)
                 .collect(Collectors.toMap(File::getName, f -> f));
 
-        Map<String, String> resourcesMap = new HashMap<>();
+        Map<String, File> resourcesMap = new HashMap<>();
 
         Iterator<Map.Entry<String, File>> it = collect.entrySet().iterator();
         while (it.hasNext()) {
             Map.Entry<String, File> next = it.next();
-            String content = null;
             try {
-                content = IO.slurp(next.getValue());
+                if (index.isResource(next.getValue())) {
+                    resourcesMap.put(next.getKey(), next.getValue());
+                }
             } catch (IOException e) {
                 e.printStackTrace();
             }
-
-            if (content != null && content.contains("javax.ws.rs") && content.contains("@Path")) {
-                resourcesMap.put(next.getKey(), content);
-            }
         }
         return resourcesMap;
     }
 
-    public static List<File> getModel() {
-        if (Configuration.modelPackage != null) {
-            final File apiSourcesDir =
-                    new File(Configuration.getModelPath());
-            return Files.collect(apiSourcesDir, "(.*)" + Configuration.modelSuffix + "\\.java");
+    public static List<File> getModel(final GenerationContext context) {
+        if (context.getModelPackage() != null) {
+            return context.getSourceIndex().endingWith(context.getModelPath(), context.getModelSuffix() + ".java");
         } else {
             return Collections.emptyList();
         }
     }
 
-    public static List<File> getClient() {
-        final File srcFolder = new File(Configuration.clientSources);
-        return Files.collect(srcFolder, "(.*)Client" + "\\.java");
+    public static List<File> getClient(final GenerationContext context) {
+        return context.getSourceIndex().endingWith(context.getClientSources(), "Client.java");
     }
 
     public static String getIdName(ClassOrInterfaceDeclaration rootClass) {
@@ -555,25 +545,7 @@ public class Utils {
     }
 
     public static String toPlural(String singular) {
-        if (singular == null) {
-            return null;
-        }
-
-        if (!singular.endsWith("y")) {
-            singular += "s";
-            return singular;
-        }
-
-        String beforeTwoChars = singular.substring(0, singular.length() - 2);
-        String twoLastChars = singular.substring(singular.length() - 2, singular.length());
-        String beforeY = twoLastChars.substring(0, 1);
-        String plural = "";
-        if (beforeY.equals("a") || beforeY.equals("e") || beforeY.equals("i") || beforeY.equals("o") || beforeY.equals("u")) {
-            plural += beforeTwoChars + twoLastChars + "s";
-        } else {
-            plural += beforeTwoChars + beforeY + "ies";
-        }
-        return plural;
+        return Names.plural(singular);
     }
 
     public static void addGeneratedAnnotation(CompilationUnit unit, ClassOrInterfaceDeclaration clazz, MethodDeclaration method, final Class<?> generator) {
@@ -590,37 +562,43 @@ public class Utils {
     }
 
     public static String formatCamelCaseTo(String value, String separator) {
-        final Matcher matcher = Pattern.compile("(?<=[a-z])[A-Z]").matcher(value);
-        final StringBuffer modified = new StringBuffer();
-        while (matcher.find()) {
-            matcher.appendReplacement(modified, separator + matcher.group());
-        }
-        matcher.appendTail(modified);
-        return modified.toString().toLowerCase();
+        return Names.separated(value, separator);
     }
 
     public static void addImports(CompilationUnit oldClassUnit, CompilationUnit newClassUnit) {
         oldClassUnit.getImports().forEach(newClassUnit::addImport);
     }
 
-    public static void save(String fileName, String pkg, String content) throws IOException {
-        Path path = Paths.get(Configuration.generatedSources + File.separator + transformPackageToPath(pkg));
+    /**
+     * @return the content written
+     */
+    public static String save(GenerationContext context, String fileName, String pkg, CompilationUnit unit) throws IOException {
+        final String content = Reformat.format(context, unit);
+        write(context, fileName, pkg, content);
+        context.getTypeSolver().register(unit);
+        return content;
+    }
 
-        content = Stream.of(content)
-                .map(RemoveDuplicateImports::apply)
-                .map(Reformat::apply)
-                .findFirst().get();
+    private static void write(GenerationContext context, String fileName, String pkg, String content) throws IOException {
+        File newFile = file(context, fileName, pkg);
 
-        if (!java.nio.file.Files.exists(path)) {
-            java.nio.file.Files.createDirectories(path);
+        if (!newFile.getParentFile().exists()) {
+            java.nio.file.Files.createDirectories(newFile.getParentFile().toPath());
         }
-        File newFile = new File(path.toAbsolutePath().toString(), fileName);
 
-        IO.copy(IO.read(content), newFile);
+        context.getOutputWriter().write(newFile, content);
+    }
+
+    /**
+     * Where a generated source of the package is saved.
+     */
+    public static File file(GenerationContext context, String fileName, String pkg) {
+        Path path = Paths.get(context.getGeneratedSources() + File.separator + transformPackageToPath(pkg));
+        return new File(path.toAbsolutePath().toString(), fileName);
     }
 
     public static String transformPackageToPath(String pkg) {
-        return pkg.replaceAll("\\.", File.separator);
+        return Names.packagePath(pkg);
     }
 
     public static void addLicense(CompilationUnit rootUnit, CompilationUnit newClassUnit) {
@@ -666,44 +644,31 @@ public class Utils {
 
     }
 
-    public static boolean isWrapperOrPrimitiveOrDate(FieldDeclaration f) {
+    public static boolean isWrapperOrPrimitiveOrDate(GenerationContext context, FieldDeclaration f) {
         VariableDeclarator var = f.getVariables().stream().findFirst().get();
 
-        boolean isWrapper = false;
-
         String type = var.getTypeAsString();
         if (type.contains("<")) {
             type = type.substring(type.indexOf("<") + 1, type.indexOf(">"));
         }
 
-        try {
-            type = (type.startsWith("java.lang")) ? type : "java.lang." + type;
-            CustomTypeSolver.get().solveType(type);
-            isWrapper = true;
-        } catch (RuntimeException e) {
-        }
-
-        boolean isDate = false;
-        try {
-            CustomTypeSolver.get().solveType(type);
-            if (type.startsWith("java.util")) {
-                isDate = true;
-            }
-        } catch (RuntimeException e) {
-        }
+        type = (type.startsWith("java.lang")) ? type : "java.lang." + type;
+        final boolean isWrapper = context.getTypeSolver().isSolvable(type);
+        final boolean isDate = isWrapper && type.startsWith("java.util");
 
         return f.getCommonType().isPrimitiveType() || isWrapper || isDate;
     }
 
-    public static boolean isCollection(final ResolvedType type) {
-        if (type.isReferenceType()) {
-            final ResolvedReferenceTypeDeclaration typeDeclaration = type.asReferenceType().getTypeDeclaration();
-
-            if (typeDeclaration.isAssignableBy(CustomTypeSolver.get().solveType("java.util.Collection"))) {
-                return true;
-            }
+    public static boolean isCollection(final GenerationContext context, final ResolvedType type) {
+        if (!type.isReferenceType()) {
+            return false;
         }
 
-        return false;
+        return context.getTypeSolver().resolve(() -> {
+            final ResolvedReferenceTypeDeclaration typeDeclaration = type.asReferenceType().getTypeDeclaration();
+
+            final Optional<ResolvedReferenceTypeDeclaration> collection = context.getTypeSolver().tryToSolve("java.util.Collection");
+            return collection.isPresent() && typeDeclaration.isAssignableBy(collection.get());
+        });
     }
 }
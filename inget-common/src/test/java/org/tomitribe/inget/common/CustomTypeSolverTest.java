@@ -0,0 +1,123 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ *
+ */
+package org.tomitribe.inget.common;
+
+import com.github.javaparser.ast.CompilationUnit;
+import com.github.javaparser.ast.body.FieldDeclaration;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.tomitribe.util.Files;
+
+import java.io.ByteArrayOutputStream;
+import java.io.File;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.HashMap;
+import java.util.Map;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+public class CustomTypeSolverTest {
+
+    private static final String PACKAGE = "io.superbiz.video.model";
+
+    private File sources;
+    private File generated;
+    private final Map<File, ByteArrayOutputStream> written = new HashMap<>();
+    private GenerationContext context;
+
+    @Before
+    public void setUp() {
+        sources = Files.tmpdir();
+        generated = Files.mkdirs(new File(sources, "generated"));
+        context = GenerationContext.builder()
+                .modelSources(Files.mkdirs(new File(sources, "model")).getAbsolutePath())
+                .resourceSources(Files.mkdirs(new File(sources, "resources")).getAbsolutePath())
+                .generatedSources(generated.getAbsolutePath())
+                .modelPackage(PACKAGE)
+                .target(new OutputWriter.Target() {
+                    @Override
+                    public OutputStream newOutputStream(final File file) {
+                        final ByteArrayOutputStream out = new ByteArrayOutputStream();
+                        written.put(file, out);
+                        return out;
+                    }
+
+                    @Override
+                    public void deleted(final File file) {
+                        written.remove(file);
+                    }
+                })
+                .build();
+        context.getTypeSolver().init(context);
+    }
+
+    @After
+    public void tearDown() {
+        context.getTypeSolver().close();
+        Files.remove(sources);
+    }
+
+    @Test
+    public void testGeneratedTypesResolveBeforeTheyAreOnDisk() throws IOException {
+        save("CreateMovie", "public class CreateMovie {\n    private String title;\n}");
+        save("MovieResult", "public class MovieResult {\n    private java.util.List<Movie> items;\n}");
+        save("Movie", "public class Movie {\n    private String title;\n}");
+
+        final File createMovie = Utils.file(context, "CreateMovie.java", PACKAGE);
+        assertTrue(written.containsKey(createMovie));
+        assertFalse(createMovie.exists());
+
+        final CompilationUnit resource = context.parse("package io.superbiz.video.rest;\n\n"
+                + "import io.superbiz.video.model.CreateMovie;\n"
+                + "import io.superbiz.video.model.MovieResult;\n\n"
+                + "public class MovieResource {\n"
+                + "    private CreateMovie create;\n"
+                + "    private MovieResult result;\n"
+                + "}\n");
+        for (FieldDeclaration field : resource.findAll(FieldDeclaration.class)) {
+            assertTrue(field.getElementType().resolve().isReferenceType());
+        }
+        assertEquals(PACKAGE + ".CreateMovie", context.getTypeSolver().tryToSolve(PACKAGE + ".CreateMovie").get().getQualifiedName());
+        assertEquals(3, context.getTypeSolver().generated().size());
+    }
+
+    @Test
+    public void testRegisterForgetsUnsolvedNames() throws IOException {
+        final CustomTypeSolver solver = context.getTypeSolver();
+        final String name = PACKAGE + ".UpdateMovie";
+
+        // asked before it is generated, the answer is remembered by the solver and by the summary
+        assertFalse(solver.isSolvable(name));
+        assertFalse(solver.get().isSolvable(name));
+        assertEquals(1, solver.get().getUnsolved());
+
+        save("UpdateMovie", "public class UpdateMovie {\n    private String title;\n}");
+        assertEquals(0, solver.get().getUnsolved());
+        assertTrue(solver.get().isSolvable(name));
+        assertTrue(solver.isSolvable(name));
+    }
+
+    private void save(final String name, final String body) throws IOException {
+        Utils.save(context, name + ".java", PACKAGE, context.parse("package " + PACKAGE + ";\n\n" + body + "\n"));
+    }
+}
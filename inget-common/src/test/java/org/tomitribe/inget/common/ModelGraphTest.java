@@ -0,0 +1,146 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ *
+ */
+package org.tomitribe.inget.common;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.tomitribe.util.Files;
+import org.tomitribe.util.IO;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.List;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+public class ModelGraphTest {
+
+    private File sources;
+
+    @Before
+    public void setUp() {
+        sources = Files.tmpdir();
+    }
+
+    @After
+    public void tearDown() {
+        Files.remove(sources);
+    }
+
+    @Test
+    public void testAffectedByMultiLevelExtends() throws IOException {
+        final File audited = write("io.superbiz.video.model", "Audited", "public class Audited {\n}");
+        final File entity = write("io.superbiz.video.model", "Entity", "public class Entity extends Audited {\n}");
+        final File movie = write("io.superbiz.video.model", "MovieModel", "public class MovieModel extends Entity {\n}");
+        final File book = write("io.superbiz.video.model", "BookModel", "public class BookModel {\n}");
+        final ModelGraph graph = ModelGraph.of(Arrays.asList(audited, entity, movie, book));
+
+        assertEquals(set(audited, entity, movie), graph.affectedBy(Collections.singletonList(audited)));
+        assertEquals(set(entity, movie), graph.affectedBy(Collections.singletonList(entity)));
+        assertEquals(set(book), graph.affectedBy(Collections.singletonList(book)));
+    }
+
+    @Test
+    public void testNonSuffixedBaseClasses() throws IOException {
+        final File address = write("io.superbiz.video.model", "Address", "public class Address {\n}");
+        final File base = write("io.superbiz.video.model", "Base", "public class Base {\n}");
+        final File movie = write("io.superbiz.video.model", "MovieModel",
+                "public class MovieModel extends Base {\n    private Address address;\n}");
+        final File book = write("io.superbiz.video.model", "BookModel",
+                "public class BookModel {\n    private java.util.List<MovieModel> movies;\n}");
+        final ModelGraph graph = ModelGraph.of(Arrays.asList(address, base, movie, book));
+
+        assertEquals(set(base, movie), graph.affectedBy(Collections.singletonList(base)));
+
+        // a referenced class is only expanded by the commands
+        assertEquals(set(address), graph.affectedBy(Collections.singletonList(address)));
+        assertEquals(set(address, movie, book), graph.referencedBy(Collections.singletonList(address)));
+        assertEquals(set(base, movie, book), graph.referencedBy(Collections.singletonList(base)));
+    }
+
+    @Test
+    public void testImportedAndSamePackageClasses() throws IOException {
+        final File base = write("io.superbiz.video.model", "Base", "public class Base {\n}");
+        final File otherBase = write("io.superbiz.video.model.other", "Base", "public class Base {\n}");
+        final File movie = write("io.superbiz.video.model", "MovieModel",
+                "import io.superbiz.video.model.other.Base;\n\npublic class MovieModel extends Base {\n}");
+        final File book = write("io.superbiz.video.model", "BookModel", "public class BookModel extends Base {\n}");
+        final ModelGraph graph = ModelGraph.of(Arrays.asList(base, otherBase, movie, book));
+
+        assertEquals(set(otherBase), graph.dependencies(movie));
+        assertEquals(set(base), graph.dependencies(book));
+        assertEquals(set(otherBase, movie), graph.affectedBy(Collections.singletonList(otherBase)));
+        assertEquals(set(base, book), graph.affectedBy(Collections.singletonList(base)));
+    }
+
+    @Test
+    public void testOrderWithCycles() throws IOException {
+        final File movie = write("io.superbiz.video.model", "MovieModel",
+                "public class MovieModel {\n    private ActorModel actor;\n}");
+        final File actor = write("io.superbiz.video.model", "ActorModel",
+                "public class ActorModel {\n    private MovieModel movie;\n}");
+        final File director = write("io.superbiz.video.model", "DirectorModel", "public class DirectorModel extends ActorModel {\n}");
+        final File base = write("io.superbiz.video.model", "Base", "public class Base {\n}");
+        final File book = write("io.superbiz.video.model", "BookModel", "public class BookModel extends Base {\n}");
+        final ModelGraph graph = ModelGraph.of(Arrays.asList(movie, actor, director, base, book));
+
+        final List<File> ordered = graph.order(Arrays.asList(book, director, movie, actor, base));
+        assertEquals(5, ordered.size());
+        assertEquals(set(movie, actor, director, base, book), new HashSet<>(ordered));
+        assertTrue(ordered.indexOf(base) < ordered.indexOf(book));
+        assertTrue(ordered.indexOf(actor) < ordered.indexOf(director));
+        assertTrue(ordered.indexOf(movie) < ordered.indexOf(director));
+
+        // only the given files are ordered
+        assertEquals(Arrays.asList(base, book), graph.order(Arrays.asList(book, base)));
+        assertEquals(Collections.singletonList(director), graph.order(Collections.singletonList(director)));
+    }
+
+    @Test
+    public void testUpdate() throws IOException {
+        final File base = write("io.superbiz.video.model", "Base", "public class Base {\n}");
+        final File movie = write("io.superbiz.video.model", "MovieModel", "public class MovieModel {\n}");
+        final ModelGraph graph = ModelGraph.of(Arrays.asList(base, movie));
+        assertEquals(set(base), graph.affectedBy(Collections.singletonList(base)));
+
+        write("io.superbiz.video.model", "MovieModel", "public class MovieModel extends Base {\n}");
+        graph.update(movie);
+        assertEquals(set(base, movie), graph.affectedBy(Collections.singletonList(base)));
+
+        assertTrue(movie.delete());
+        graph.update(movie);
+        assertEquals(set(base), graph.files());
+    }
+
+    private File write(final String pkg, final String name, final String content) throws IOException {
+        final File folder = Files.mkdirs(new File(sources, pkg.replace('.', File.separatorChar)));
+        final File file = new File(folder, name + ".java");
+        IO.writeString(file, "package " + pkg + ";\n\n" + content + "\n");
+        return file.getAbsoluteFile().toPath().normalize().toFile();
+    }
+
+    private static HashSet<File> set(final File... files) {
+        return new HashSet<>(Arrays.asList(files));
+    }
+}
@@ -0,0 +1,49 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ *
+ */
+package org.tomitribe.inget;
+
+import org.sonatype.plexus.build.incremental.BuildContext;
+import org.tomitribe.inget.common.OutputWriter;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.OutputStream;
+
+/**
+ * Writes the generated files through the IDE build context, so it only
+ * refreshes the files that actually changed.
+ */
+public class BuildContextTarget implements OutputWriter.Target {
+
+    private final BuildContext buildContext;
+
+    public BuildContextTarget(final BuildContext buildContext) {
+        this.buildContext = buildContext;
+    }
+
+    @Override
+    public OutputStream newOutputStream(final File file) throws IOException {
+        return buildContext.newFileOutputStream(file);
+    }
+
+    @Override
+    public void deleted(final File file) {
+        buildContext.refresh(file);
+    }
+}
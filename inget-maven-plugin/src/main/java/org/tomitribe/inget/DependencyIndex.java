@@ -0,0 +1,131 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ *
+ */
+package org.tomitribe.inget;
+
+import org.tomitribe.inget.common.Caches;
+import org.tomitribe.inget.common.Parallel;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipFile;
+
+/**
+ * The packages of each dependency jar and whether it ships java sources,
+ * read with a single pass over each jar. Jars are remembered by path, size
+ * and modification time for as long as the plugin stays loaded.
+ */
+public class DependencyIndex {
+
+    private static final int MAX_JARS = 4096;
+
+    // rebuilt snapshots add new keys, only the most recent jars are kept in a long lived JVM
+    private static final Map<String, Contents> CACHE = Caches.lru(MAX_JARS);
+    private static final Contents EMPTY = new Contents(Collections.emptySet(), false);
+
+    private final Map<File, Contents> jars = new ConcurrentHashMap<>();
+
+    private DependencyIndex() {
+    }
+
+    public static DependencyIndex of(final Collection<File> files, final int threads) throws IOException {
+        final DependencyIndex index = new DependencyIndex();
+
+        final List<File> jars = new ArrayList<>();
+        for (File file : files) {
+            if (file != null) {
+                jars.add(file);
+            }
+        }
+
+        Parallel.forEach(threads, jars, jar -> index.jars.put(jar, contents(jar)));
+        return index;
+    }
+
+    /**
+     * Whether the jar ships java sources and has the package, given with dots.
+     */
+    public boolean hasSources(final File jar, final String pkg) {
+        final Contents contents = jar == null ? EMPTY : jars.getOrDefault(jar, EMPTY);
+        return contents.sources && contents.packages.contains(pkg.replace('.', '/'));
+    }
+
+    private static Contents contents(final File jar) throws IOException {
+        // reactor modules resolve to their classes directory, pom dependencies to their pom
+        if (!jar.isFile() || !jar.getName().endsWith(".jar")) {
+            return EMPTY;
+        }
+
+        final String key = jar.getAbsolutePath() + "|" + jar.length() + "|" + jar.lastModified();
+        final Contents cached = CACHE.get(key);
+        if (cached != null) {
+            return cached;
+        }
+
+        final Contents contents;
+        try {
+            contents = read(jar);
+        } catch (IOException e) {
+            throw new IOException("Cannot read dependency " + jar, e);
+        }
+
+        CACHE.put(key, contents);
+        return contents;
+    }
+
+    private static Contents read(final File jar) throws IOException {
+        final Set<String> packages = new HashSet<>();
+        boolean sources = false;
+
+        try (final ZipFile zip = new ZipFile(jar)) {
+            for (ZipEntry entry : Collections.list(zip.entries())) {
+                final String name = entry.getName();
+                sources |= name.endsWith(".java");
+
+                // directory entries are optional, so packages are also taken from the file names
+                int slash = entry.isDirectory() ? name.length() - 1 : name.lastIndexOf('/');
+                while (slash > 0 && packages.add(name.substring(0, slash))) {
+                    slash = name.lastIndexOf('/', slash - 1);
+                }
+            }
+        }
+
+        return new Contents(packages, sources);
+    }
+
+    private static final class Contents {
+
+        private final Set<String> packages;
+        private final boolean sources;
+
+        private Contents(final Set<String> packages, final boolean sources) {
+            this.packages = Objects.requireNonNull(packages);
+            this.sources = sources;
+        }
+    }
+}
@@ -0,0 +1,149 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ *
+ */
+package org.tomitribe.inget;
+
+import org.tomitribe.inget.common.Hashes;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.file.Files;
+import java.util.Collections;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Properties;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.stream.Collectors;
+
+/**
+ * Records the fingerprint of everything a generation run depended on
+ * (configuration, sources and dependencies) and the files it produced,
+ * so the next run can be skipped when nothing changed.
+ */
+public class GenerationManifest {
+
+    private static final String CONFIGURATION = "configuration";
+    private static final String INPUT = "input.";
+    private static final String OUTPUT = "output.";
+
+    private String configuration;
+    private final Map<String, String> inputs = new TreeMap<>();
+    private final Map<String, String> outputs = new TreeMap<>();
+
+    public static GenerationManifest load(final File file) {
+        if (!file.exists()) {
+            return null;
+        }
+
+        final Properties properties = new Properties();
+        try (final InputStream in = Files.newInputStream(file.toPath())) {
+            properties.load(in);
+        } catch (IOException e) {
+            return null;
+        }
+
+        final GenerationManifest manifest = new GenerationManifest();
+        manifest.configuration = properties.getProperty(CONFIGURATION);
+        for (final String key : properties.stringPropertyNames()) {
+            if (key.startsWith(INPUT)) {
+                manifest.inputs.put(key.substring(INPUT.length()), properties.getProperty(key));
+            } else if (key.startsWith(OUTPUT)) {
+                manifest.outputs.put(key.substring(OUTPUT.length()), properties.getProperty(key));
+            }
+        }
+        return manifest;
+    }
+
+    public void save(final File file) throws IOException {
+        final Properties properties = new Properties();
+        if (configuration != null) {
+            properties.setProperty(CONFIGURATION, configuration);
+        }
+        inputs.forEach((k, v) -> properties.setProperty(INPUT + k, v));
+        outputs.forEach((k, v) -> properties.setProperty(OUTPUT + k, v));
+
+        file.getParentFile().mkdirs();
+        try (final OutputStream out = Files.newOutputStream(file.toPath())) {
+            properties.store(out, "inget generation manifest");
+        }
+    }
+
+    public void setConfiguration(final String configuration) {
+        this.configuration = configuration;
+    }
+
+    public void addSource(final File file) throws IOException {
+        inputs.put(file.getAbsolutePath(), Hashes.sha1(file));
+    }
+
+    public void addArtifact(final File file) {
+        if (file.isFile()) {
+            inputs.put(file.getAbsolutePath(), file.length() + ":" + file.lastModified());
+        } else {
+            inputs.put(file.getAbsolutePath(), "directory");
+        }
+    }
+
+    public void addOutputs(final Set<String> files) throws IOException {
+        for (final String path : files) {
+            final File file = new File(path);
+            if (file.exists()) {
+                outputs.put(file.getAbsolutePath(), Hashes.sha1(file));
+            }
+        }
+    }
+
+    public Set<String> getOutputs() {
+        return Collections.unmodifiableSet(outputs.keySet());
+    }
+
+    /**
+     * The previous run is still valid when the configuration and every input
+     * is the same and none of its outputs was touched or removed since.
+     */
+    public boolean isUpToDate(final GenerationManifest current) {
+        if (!Objects.equals(configuration, current.configuration) || !inputs.equals(current.inputs)) {
+            return false;
+        }
+
+        for (final Map.Entry<String, String> output : outputs.entrySet()) {
+            final File file = new File(output.getKey());
+            try {
+                if (!file.exists() || !Hashes.sha1(file).equals(output.getValue())) {
+                    return false;
+                }
+            } catch (IOException e) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Outputs of this manifest which were not produced again by the current run.
+     */
+    public Set<File> staleOutputs(final GenerationManifest current) {
+        return outputs.keySet().stream()
+                .filter(path -> !current.outputs.containsKey(path))
+                .map(File::new)
+                .collect(Collectors.toSet());
+    }
+}
@@ -0,0 +1,137 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ *
+ */
+package org.tomitribe.inget;
+
+import org.tomitribe.inget.common.Timings;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.stream.Collectors;
+
+/**
+ * Writes what the {@link Timings} of a generation collected as json and
+ * summarizes the slowest steps and files.
+ */
+public class GenerationReport {
+
+    private static final String GENERATE = "generate.";
+
+    private final Map<String, Timings.Step> steps;
+    private final Map<String, Map<String, Long>> files;
+    private final Map<String, Long> counters;
+
+    public GenerationReport(final Timings timings) {
+        this.steps = timings.steps();
+        this.files = timings.files();
+        this.counters = timings.counters();
+    }
+
+    public void write(final File file) throws IOException {
+        Files.createDirectories(file.getAbsoluteFile().getParentFile().toPath());
+
+        try (final Writer out = Files.newBufferedWriter(file.toPath(), StandardCharsets.UTF_8)) {
+            out.write("{\n  \"steps\": {");
+            for (Iterator<Map.Entry<String, Timings.Step>> it = steps.entrySet().iterator(); it.hasNext(); ) {
+                final Map.Entry<String, Timings.Step> step = it.next();
+                out.write("\n    " + string(step.getKey()) + ": {\"count\": " + step.getValue().getCount()
+                        + ", \"totalMs\": " + millis(step.getValue().getTotal())
+                        + ", \"maxMs\": " + millis(step.getValue().getMax()) + "}" + (it.hasNext() ? "," : ""));
+            }
+
+            out.write("\n  },\n  \"counters\": {");
+            for (Iterator<Map.Entry<String, Long>> it = counters.entrySet().iterator(); it.hasNext(); ) {
+                final Map.Entry<String, Long> counter = it.next();
+                out.write("\n    " + string(counter.getKey()) + ": " + counter.getValue() + (it.hasNext() ? "," : ""));
+            }
+
+            out.write("\n  },\n  \"files\": [");
+            for (Iterator<String> it = slowestFiles(files.size()).iterator(); it.hasNext(); ) {
+                final String name = it.next();
+                out.write("\n    {\"file\": " + string(name) + ", \"totalMs\": " + millis(total(files.get(name))) + ", \"steps\": {");
+                out.write(files.get(name).entrySet().stream()
+                        .map(e -> string(e.getKey()) + ": " + millis(e.getValue()))
+                        .collect(Collectors.joining(", ")));
+                out.write("}}" + (it.hasNext() ? "," : ""));
+            }
+            out.write("\n  ]\n}\n");
+        }
+    }
+
+    public List<String> summary(final int top) {
+        final List<String> lines = new ArrayList<>();
+
+        lines.add("Slowest steps:");
+        steps.entrySet().stream()
+                .sorted(Comparator.comparing((Map.Entry<String, Timings.Step> e) -> e.getValue().getTotal()).reversed())
+                .limit(top)
+                .forEach(e -> lines.add("  " + e.getKey() + " " + millis(e.getValue().getTotal()) + " ms in "
+                        + e.getValue().getCount() + " calls, max " + millis(e.getValue().getMax()) + " ms"));
+
+        lines.add("Slowest files:");
+        for (String name : slowestFiles(top)) {
+            lines.add("  " + name + " " + millis(total(files.get(name))) + " ms");
+        }
+        return lines;
+    }
+
+    private List<String> slowestFiles(final int top) {
+        return files.keySet().stream()
+                .sorted(Comparator.comparing((String name) -> total(files.get(name))).reversed())
+                .limit(top)
+                .collect(Collectors.toList());
+    }
+
+    /**
+     * The whole per-file tasks when they were timed, as the other steps run inside them.
+     */
+    private static long total(final Map<String, Long> steps) {
+        final boolean hasTasks = steps.keySet().stream().anyMatch(step -> step.startsWith(GENERATE));
+        return steps.entrySet().stream()
+                .filter(e -> !hasTasks || e.getKey().startsWith(GENERATE))
+                .mapToLong(Map.Entry::getValue)
+                .sum();
+    }
+
+    private static String millis(final long nanos) {
+        return String.format(Locale.ROOT, "%.3f", nanos / 1_000_000.0);
+    }
+
+    private static String string(final String value) {
+        final StringBuilder json = new StringBuilder("\"");
+        for (char c : value.toCharArray()) {
+            if (c == '"' || c == '\\') {
+                json.append('\\').append(c);
+            } else if (c < 0x20) {
+                json.append(String.format(Locale.ROOT, "\\u%04x", (int) c));
+            } else {
+                json.append(c);
+            }
+        }
+        return json.append('"').toString();
+    }
+}
@@ -18,42 +18,61 @@
  */
 package org.tomitribe.inget;
 
+import com.github.javaparser.symbolsolver.model.resolution.TypeSolver;
 import org.apache.maven.artifact.Artifact;
 import org.apache.maven.artifact.resolver.filter.AndArtifactFilter;
+import org.apache.maven.execution.MavenSession;
 import org.apache.maven.plugin.AbstractMojo;
 import org.apache.maven.plugin.MojoExecutionException;
 import org.apache.maven.plugin.MojoFailureException;
+import org.apache.maven.plugin.descriptor.PluginDescriptor;
+import org.apache.maven.plugins.annotations.Component;
 import org.apache.maven.plugins.annotations.LifecyclePhase;
 import org.apache.maven.plugins.annotations.Mojo;
 import org.apache.maven.plugins.annotations.Parameter;
 import org.apache.maven.project.MavenProject;
 import org.codehaus.plexus.util.FileUtils;
+import org.codehaus.plexus.util.Scanner;
+import org.sonatype.plexus.build.incremental.BuildContext;
+import org.sonatype.plexus.build.incremental.DefaultBuildContext;
 import org.tomitribe.inget.client.ClientGenerator;
 import org.tomitribe.inget.cmd.CmdGenerator;
 import org.tomitribe.inget.common.Authentication;
-import org.tomitribe.inget.common.Configuration;
-import org.tomitribe.inget.common.CustomTypeSolver;
+import org.tomitribe.inget.common.Format;
+import org.tomitribe.inget.common.GenerationContext;
+import org.tomitribe.inget.common.Hashes;
+import org.tomitribe.inget.common.ModelGraph;
+import org.tomitribe.inget.common.Names;
+import org.tomitribe.inget.common.OutputWriter;
+import org.tomitribe.inget.common.Pipeline;
+import org.tomitribe.inget.common.Timings;
 import org.tomitribe.inget.common.Utils;
 import org.tomitribe.inget.model.ModelGenerator;
 import org.tomitribe.inget.resource.ResourcesGenerator;
+import org.tomitribe.util.Files;
 
 import java.io.File;
 import java.io.IOException;
-import java.io.InputStream;
-import java.util.Enumeration;
+import java.nio.file.Path;
+import java.util.AbstractMap;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashSet;
 import java.util.List;
+import java.util.Map;
 import java.util.Set;
-import java.util.jar.JarEntry;
-import java.util.jar.JarFile;
+import java.util.function.Predicate;
 import java.util.stream.Collectors;
-import java.util.zip.ZipEntry;
+import java.util.stream.Stream;
 
 /**
  * goal generate-sources
  */
-@Mojo(name = "generate", defaultPhase = LifecyclePhase.GENERATE_SOURCES)
+@Mojo(name = "generate", defaultPhase = LifecyclePhase.GENERATE_SOURCES, threadSafe = true)
 public class MainGenerator extends AbstractMojo {
 
+    private static final int PIPELINE_CAPACITY = 16;
+
     @Parameter(property = "generate.model_package", required = true)
     private String modelPackage;
 
@@ -87,159 +106,641 @@ public class MainGenerator extends AbstractMojo {
     @Parameter(property = "generate.authentication")
     private String authentication;
 
+    @Parameter(property = "generate.format", defaultValue = "eclipse")
+    private String format;
+
+    @Parameter(property = "generate.threads", defaultValue = "1")
+    private Integer threads;
+
+    @Parameter(property = "generate.incremental", defaultValue = "true")
+    private Boolean incremental;
+
+    @Parameter(property = "generate.streaming", defaultValue = "false")
+    private Boolean streaming;
+
+    @Parameter(property = "generate.ast_cache_size", defaultValue = "1000")
+    private Integer astCacheSize;
+
+    @Parameter(property = "generate.pipeline", defaultValue = "false")
+    private Boolean pipeline;
+
+    @Parameter(property = "generate.reuse_jdk_types", defaultValue = "true")
+    private Boolean reuseJdkTypes;
+
+    @Parameter(property = "generate.preserve_resources", defaultValue = "false")
+    private Boolean preserveResources;
+
     @Parameter(defaultValue = "${project}", required = true, readonly = true)
     private MavenProject project;
 
+    @Parameter(defaultValue = "${plugin}", readonly = true)
+    private PluginDescriptor plugin;
+
+    @Parameter(defaultValue = "${session}", readonly = true)
+    private MavenSession session;
+
+    @Component
+    private BuildContext buildContext;
+
+    private DependencyIndex dependencies;
+    private SessionCache sessionCache;
+    private ModelGraph modelGraph;
+
+    /**
+     * The context of the current generation, replaced by a derived one as
+     * the sources of each step are found or generated.
+     */
+    private GenerationContext context;
+
+    /**
+     * The solvers of the extracted dependency sources, taken from the
+     * session cache for this generation only.
+     */
+    private Map<String, TypeSolver> borrowed;
+
+    /**
+     * The model files to regenerate when the IDE reported which sources
+     * changed, or null to generate everything.
+     */
+    private List<File> changedModels;
+
+    /**
+     * The model files whose commands are regenerated with the changed models,
+     * as the commands expand the fields of the classes they reference.
+     */
+    private List<File> commandModels;
+
     @Override
     public void execute() throws MojoExecutionException, MojoFailureException {
         project.setArtifactFilter(new AndArtifactFilter());
         Set<Artifact> artifacts = project.getArtifacts();
+        sessionCache = SessionCache.of(session);
         final String generatedSources = project.getBuild().getDirectory() + File.separator + "generated-sources";
         project.addCompileSourceRoot(generatedSources);
-        Configuration.modelSources = project.getBuild().getSourceDirectory();
-        Configuration.resourceSources = project.getBuild().getSourceDirectory();
-        Configuration.generatedSources = generatedSources;
-        Configuration.modelPackage = modelPackage;
-        Configuration.resourcePackage = resourcePackage;
-        Configuration.clientName = clientName;
-        Configuration.resourceSuffix = resourceSuffix;
-        Configuration.modelSuffix = modelSuffix;
-        Configuration.tempSource = project.getBuild().getDirectory() + File.separator + "temp-source";
+
+        final GenerationContext.Builder builder = GenerationContext.builder()
+                .modelSources(project.getBuild().getSourceDirectory())
+                .resourceSources(project.getBuild().getSourceDirectory())
+                .generatedSources(generatedSources)
+                .modelPackage(modelPackage)
+                .resourcePackage(resourcePackage)
+                .clientName(clientName)
+                .resourceSuffix(resourceSuffix)
+                .modelSuffix(modelSuffix)
+                .tempSource(project.getBuild().getDirectory() + File.separator + "temp-source")
+                .threads(threads)
+                .streaming(streaming)
+                .astCacheSize(astCacheSize)
+                .reuseJdkTypes(reuseJdkTypes)
+                .preserveResources(preserveResources);
 
         if (cmdLineName != null) {
-            Configuration.cmdLineName = cmdLineName;
+            builder.cmdLineName(cmdLineName);
         } else {
-            Configuration.cmdLineName = project.getArtifactId();
+            builder.cmdLineName(project.getArtifactId());
+        }
+
+        if (format != null && format.equalsIgnoreCase(Format.FAST.name())) {
+            builder.format(Format.FAST);
+        } else {
+            builder.format(Format.ECLIPSE);
         }
 
         if (authentication != null) {
             if (authentication.equalsIgnoreCase(Authentication.BASIC.name())) {
-                Configuration.authentication = Authentication.BASIC;
+                builder.authentication(Authentication.BASIC);
             }
 
             if (authentication.equalsIgnoreCase(Authentication.SIGNATURE.name())) {
-                Configuration.authentication = Authentication.SIGNATURE;
+                builder.authentication(Authentication.SIGNATURE);
+            }
+        }
+
+        if (!(buildContext instanceof DefaultBuildContext)) {
+            builder.target(new BuildContextTarget(buildContext));
+        }
+
+        if (context != null && keepsTypeSolver()) {
+            builder.typeSolver(context.getTypeSolver());
+        }
+
+        context = builder.build();
+        generate(artifacts, generatedSources);
+    }
+
+    /**
+     * The context of the last generation.
+     */
+    protected GenerationContext getContext() {
+        return context;
+    }
+
+    /**
+     * Whether the type solver and the dependency solvers it borrowed are kept
+     * for the next execution, until {@link #closeTypeSolver()}. Only their JDK
+     * and dependency types stay solved, the sources of the project are solved
+     * again by every execution.
+     */
+    protected boolean keepsTypeSolver() {
+        return false;
+    }
+
+    protected void closeTypeSolver() {
+        if (context != null) {
+            context.getTypeSolver().close();
+        }
+        if (borrowed != null) {
+            sessionCache.returnSolvers(borrowed);
+            borrowed = null;
+        }
+    }
+
+    private void generate(final Set<Artifact> artifacts, final String generatedSources) throws MojoExecutionException {
+        changedModels = changedModels();
+        if (changedModels != null && changedModels.isEmpty()) {
+            getLog().info("No model changes, skipping generation.");
+            return;
+        }
+
+        final File manifestFile = new File(project.getBuild().getDirectory(), "inget-manifest.properties");
+        final GenerationManifest previous = incremental && changedModels == null ? GenerationManifest.load(manifestFile) : null;
+
+        try {
+            if (previous != null && previous.isUpToDate(fingerprint(artifacts, generatedSources))) {
+                getLog().info("Generated sources are up to date.");
+                return;
             }
+        } catch (IOException e) {
+            getLog().warn("Could not verify the generation manifest, generating everything.", e);
         }
 
+        manifestFile.delete();
+
         try {
             generateModel(artifacts);
-            generateResources(artifacts);
 
-            FileUtils.mkdir(generatedSources);
-            // Only after resolving the model and resource paths
-            CustomTypeSolver.init();
-
-            if (generateClient) {
-                requireResourcePackage();
-                getLog().info("Started Client Code Generation.");
-                ClientGenerator.execute();
-                getLog().info("Finished Client Code Generation.");
-                Configuration.clientSources = Configuration.generatedSources;
+            final File typesFile = new File(project.getBuild().getDirectory(), "inget-types.properties");
+            if (pipeline && generateResources && generateClient) {
+                generatePipelined(artifacts, typesFile);
+            } else {
+                generateResources(artifacts, null);
+                initTypeSolver(typesFile);
+                generateClient();
+                generateCli(artifacts);
             }
 
-            if (generateCli) {
-                boolean clientExistsInCurrentProject = new File(Configuration.getClientPath()).exists();
-                if (clientExistsInCurrentProject) {
-                    Configuration.clientSources = Configuration.getClientPath();
-                } else {
-                    List<Artifact> clientDependencies = artifacts.stream()
-                            .filter(a -> hasClient(a.getFile()))
-                            .collect(Collectors.toList());
+            getLog().debug("Type resolution: " + context.getTypeSolver().get());
 
-                    if (clientDependencies.size() == 0) {
-                        throw new MojoExecutionException(
-                                "Clients were not found. Generate the client adding the 'resourcePackage' and 'generateClient' as true.");
-                    }
+            // a partial generation does not know all the outputs, the next full build writes the manifest
+            if (incremental && changedModels == null) {
+                context.getTypeSolver().save(typesFile);
 
-                    clientDependencies.forEach(m -> extractJavaFiles(m.getFile()));
-                    Configuration.resourceSources = Configuration.tempSource;
-                    Configuration.clientSources = Configuration.tempSource;
+                // resources may be rewritten in place, so the inputs are taken after the generation
+                final GenerationManifest current = fingerprint(artifacts, generatedSources);
+                current.addOutputs(context.getGeneratedFiles().get());
+                if (previous != null) {
+                    deleteStaleOutputs(previous.staleOutputs(current), generatedSources);
                 }
-                Configuration.cmdPackage = Configuration.resourcePackage + ".cmd";
-                getLog().info("Started Command Code Generation.");
-                CmdGenerator.execute();
-                getLog().info("Finished Command Code Generation.");
+                current.save(manifestFile);
             }
+
+            final OutputWriter writer = context.getOutputWriter();
+            getLog().info("Generated sources: " + writer.getWritten() + " written, "
+                    + writer.getUnchanged() + " unchanged, " + writer.getDeleted() + " deleted.");
+            report();
         } catch (Exception e) {
             e.printStackTrace();
+        } finally {
+            if (!keepsTypeSolver()) {
+                closeTypeSolver();
+            }
         }
     }
 
-    private void generateResources(Set<Artifact> artifacts) throws IOException, MojoExecutionException {
+    private void report() throws IOException {
+        final Timings timings = context.getTimings();
+        timings.count("files.written", context.getOutputWriter().getWritten());
+        timings.count("files.unchanged", context.getOutputWriter().getUnchanged());
+        timings.count("files.deleted", context.getOutputWriter().getDeleted());
+        timings.count("types.hits", context.getTypeSolver().get().getHits());
+        timings.count("types.misses", context.getTypeSolver().get().getMisses());
+        timings.count("types.generated", context.getTypeSolver().generated().size());
+
+        final GenerationReport report = new GenerationReport(timings);
+        final File reportFile = new File(project.getBuild().getDirectory(), "inget-report.json");
+        report.write(reportFile);
+
+        report.summary(5).forEach(getLog()::info);
+        getLog().info("Full report in " + reportFile);
+    }
+
+    /**
+     * The model files to regenerate, null for everything.
+     */
+    protected List<File> changedModels() {
+        if (buildContext == null || !buildContext.isIncremental() || !isPartialSupported()) {
+            return null;
+        }
+
+        final List<File> changed = new ArrayList<>();
+        boolean deleted = false;
+        for (File folder : watchedFolders()) {
+            for (String file : changed(folder)) {
+                changed.add(new File(folder, file));
+            }
+            deleted |= deleted(folder).length > 0;
+        }
+        return changedModels(changed, deleted);
+    }
+
+    protected boolean isPartialSupported() {
+        return generateModel && modelPackage != null;
+    }
+
+    /**
+     * The folders whose changes can be mapped to the models to regenerate.
+     */
+    protected List<File> watchedFolders() {
+        final List<File> folders = new ArrayList<>();
+        final String sources = project.getBuild().getSourceDirectory();
+        folders.add(new File(sources, Utils.transformPackageToPath(modelPackage)));
+        if (generateResources && resourcePackage != null) {
+            folders.add(new File(sources, Utils.transformPackageToPath(resourcePackage)));
+        }
+        return folders;
+    }
+
+    protected List<File> changedModels(final Collection<File> changed, final boolean deleted) {
+        commandModels = null;
+        if (deleted) {
+            // the graph does not know which files went away
+            modelGraph = null;
+            return null;
+        }
+
+        final File modelFolder = watchedFolders().get(0);
+        final Path modelPath = modelFolder.toPath().toAbsolutePath();
+        for (File file : changed) {
+            // resources are matched to their models by name, with or without plural, so any change reruns all of them
+            if (!file.toPath().toAbsolutePath().startsWith(modelPath)) {
+                return null;
+            }
+        }
+
+        final List<File> models;
+        try {
+            final ModelGraph graph = modelGraph(modelFolder, changed);
+            models = models(graph.order(graph.affectedBy(changed)));
+            commandModels = models(graph.referencedBy(changed));
+        } catch (IOException e) {
+            getLog().warn("Could not read the model dependencies, generating everything.", e);
+            return null;
+        }
+
+        // the commands expand the fields of any class the models use, not only of the models
+        if (models.isEmpty() && !changed.isEmpty() && generateCli) {
+            return null;
+        }
+        return models;
+    }
+
+    private List<File> models(final Collection<File> files) {
+        return files.stream()
+                .filter(f -> f.getName().endsWith(modelSuffix + ".java"))
+                .collect(Collectors.toList());
+    }
+
+    /**
+     * The names of the resources generated for the given models.
+     */
+    private Set<String> resourcesOf(final Collection<File> models) {
+        final Set<String> resources = new HashSet<>();
+        for (File model : models) {
+            final String rootName = Names.rootName(model.getName().replace(".java", ""), modelSuffix);
+            resources.add(rootName + context.getResourceSuffix() + ".java");
+            resources.add(Utils.toPlural(rootName) + context.getResourceSuffix() + ".java");
+        }
+        return resources;
+    }
+
+    /**
+     * The resources whose client interfaces are generated again, the others
+     * are left as the previous generation wrote them.
+     */
+    private Predicate<String> regenerateClients() {
+        if (changedModels == null) {
+            return resource -> true;
+        }
+        return resourcesOf(changedModels)::contains;
+    }
+
+    /**
+     * The client interfaces whose commands are generated again.
+     */
+    private Predicate<File> regenerateCommands() {
+        if (changedModels == null || commandModels == null) {
+            return client -> true;
+        }
+        final Set<String> resources = resourcesOf(commandModels);
+        return client -> resources.contains(client.getName().replace("Client.java", ".java"));
+    }
+
+    /**
+     * All the models, after the classes they extend and reference, as the
+     * partial generations order them. The graph is kept for the ones that follow.
+     */
+    private List<File> orderedModels(final File modelFolder) throws IOException {
+        modelGraph = ModelGraph.of(Files.collect(modelFolder, ".*\\.java"));
+        return modelGraph.order(Utils.getModel(context));
+    }
+
+    /**
+     * The graph of the model folder, read once and then updated with the files
+     * that changed since.
+     */
+    private ModelGraph modelGraph(final File modelFolder, final Collection<File> changed) throws IOException {
+        if (modelGraph == null) {
+            modelGraph = ModelGraph.of(Files.collect(modelFolder, ".*\\.java"));
+            return modelGraph;
+        }
+
+        for (File file : changed) {
+            modelGraph.update(file);
+        }
+        return modelGraph;
+    }
+
+    private String[] changed(final File folder) {
+        return scan(folder, buildContext.newScanner(folder));
+    }
+
+    private String[] deleted(final File folder) {
+        return scan(folder, buildContext.newDeleteScanner(folder));
+    }
+
+    private String[] scan(final File folder, final Scanner scanner) {
+        if (!folder.exists()) {
+            return new String[0];
+        }
+        scanner.setIncludes(new String[]{"**/*.java"});
+        scanner.scan();
+        return scanner.getIncludedFiles();
+    }
+
+    private GenerationManifest fingerprint(Set<Artifact> artifacts, String generatedSources) throws IOException {
+        final GenerationManifest manifest = new GenerationManifest();
+        manifest.setConfiguration(Hashes.sha1(Stream.of(
+                modelPackage, resourcePackage, generateModel, generateResources, generateClient, generateCli,
+                clientName, resourceSuffix, modelSuffix, cmdLineName, authentication, format, preserveResources,
+                pluginVersion())
+                .map(String::valueOf)
+                .collect(Collectors.joining("|"))));
+
+        final File generated = new File(generatedSources);
+        final List<String> compileSourceRoots = project.getCompileSourceRoots();
+        if (compileSourceRoots != null) {
+            for (String source : compileSourceRoots) {
+                final File root = new File(source);
+                if (!root.exists() || root.equals(generated)) {
+                    continue;
+                }
+                for (File file : Files.collect(root, ".*\\.java")) {
+                    manifest.addSource(file);
+                }
+            }
+        }
+
+        for (Artifact artifact : artifacts) {
+            if (artifact.getFile() != null) {
+                manifest.addArtifact(artifact.getFile());
+            }
+        }
+        return manifest;
+    }
+
+    private String pluginVersion() {
+        if (plugin == null) {
+            return null;
+        }
+
+        final File jar = plugin.getPluginArtifact() != null ? plugin.getPluginArtifact().getFile() : null;
+        return plugin.getVersion() + (jar != null ? ":" + jar.lastModified() : "");
+    }
+
+    private void deleteStaleOutputs(Set<File> staleOutputs, String generatedSources) {
+        final String root = new File(generatedSources).getAbsolutePath() + File.separator;
+        for (File stale : staleOutputs) {
+            if (stale.getAbsolutePath().startsWith(root) && context.getOutputWriter().delete(stale)) {
+                getLog().debug("Deleted stale generated file " + stale);
+            }
+        }
+    }
+
+    private void initTypeSolver(final File typesFile) throws IOException {
+        FileUtils.mkdir(context.getGeneratedSources());
+        // Only after resolving the model and resource paths
+        if (borrowed == null) {
+            borrowed = sessionCache.borrowSolvers();
+        }
+        context.getTypeSolver().share(borrowed);
+        context.getTypeSolver().init(context);
+        if (incremental) {
+            try {
+                context.getTypeSolver().load(context, typesFile);
+            } catch (IOException e) {
+                getLog().warn("Could not read the type resolution summary " + typesFile, e);
+            }
+        }
+    }
+
+    private void generateClient() throws IOException, MojoExecutionException {
+        if (generateClient) {
+            requireResourcePackage();
+            getLog().info("Started Client Code Generation.");
+            final long start = Timings.start();
+            ClientGenerator.start(context, null).finish(regenerateClients());
+            context.getTimings().stop("phase.client", start);
+            getLog().info("Finished Client Code Generation.");
+            context = context.with().clientSources(context.getGeneratedSources()).build();
+        }
+    }
+
+    private void generateCli(Set<Artifact> artifacts) throws IOException, MojoExecutionException {
+        if (generateCli) {
+            boolean clientExistsInCurrentProject = new File(context.getClientPath()).exists();
+            if (clientExistsInCurrentProject) {
+                context = context.with().clientSources(context.getClientPath()).build();
+            } else {
+                final DependencyIndex index = dependencies(artifacts);
+                List<Artifact> clientDependencies = artifacts.stream()
+                        .filter(a -> index.hasSources(a.getFile(), context.getClientPackage()))
+                        .collect(Collectors.toList());
+
+                if (clientDependencies.size() == 0) {
+                    throw new MojoExecutionException(
+                            "Clients were not found. Generate the client adding the 'resourcePackage' and 'generateClient' as true.");
+                }
+
+                final String sources = extractJavaFiles(clientDependencies);
+                context = context.with().resourceSources(sources).clientSources(sources).build();
+            }
+            getLog().info("Started Command Code Generation.");
+            final long start = Timings.start();
+            CmdGenerator.start(context).finish(regenerateCommands());
+            context.getTimings().stop("phase.cli", start);
+            getLog().info("Finished Command Code Generation.");
+        }
+    }
+
+    /**
+     * Generates the resources, the client and the command line together. Each resource is handed to the
+     * client generation and each client interface to the command generation as soon as it is written, so
+     * the stages overlap and none of them scans and reads the output of the previous one again.
+     */
+    private void generatePipelined(Set<Artifact> artifacts, File typesFile) throws IOException, MojoExecutionException {
+        requireResourcePackage();
+        // the solver covers the generated sources in memory and on disk, before and after the resources exist
+        initTypeSolver(typesFile);
+
+        // the sessions finish once the resources are generated, with the sources they are found in then
+        final String generatedSources = context.getGeneratedSources();
+        final GenerationContext clientContext = context.with()
+                .resourceSources(generatedSources)
+                .clientSources(generatedSources)
+                .build();
+        final GenerationContext cliContext = clientContext.with().clientSources(clientContext.getClientPath()).build();
+
+        final String root = new File(generatedSources).getAbsolutePath() + File.separator;
+        final CmdGenerator.Session commands = generateCli ? CmdGenerator.start(cliContext) : null;
+
+        // closing a pipeline waits for what was submitted to it, each session finishes after its pipeline is closed
+        final long cliStart;
+        try (Pipeline<Map.Entry<File, String>> toCli = commands == null ? null : new Pipeline<>("inget-cli", PIPELINE_CAPACITY,
+                client -> commands.add(client.getKey(), client.getValue()))) {
+
+            final ClientGenerator.Session clients = ClientGenerator.start(clientContext, commands == null ? null
+                    : (client, content) -> toCli.submit(new AbstractMap.SimpleImmutableEntry<>(client, content)));
+
+            final long clientStart;
+            try (Pipeline<Map.Entry<File, String>> toClient = new Pipeline<>("inget-client", PIPELINE_CAPACITY,
+                    resource -> clients.add(resource.getKey().getName(), resource.getValue()))) {
+
+                // the client only wraps the resources of the output directory, as Utils.getResources finds them
+                generateResources(artifacts, (resource, content) -> {
+                    if (resource.getAbsolutePath().startsWith(root) && content.contains("javax.ws.rs") && content.contains("@Path")) {
+                        toClient.submit(new AbstractMap.SimpleImmutableEntry<>(resource, content));
+                    }
+                });
+
+                getLog().info("Started Client Code Generation.");
+                clientStart = Timings.start();
+            }
+            clients.finish(regenerateClients());
+            context.getTimings().stop("phase.client", clientStart);
+            getLog().info("Finished Client Code Generation.");
+
+            context = cliContext;
+            if (commands != null) {
+                getLog().info("Started Command Code Generation.");
+            }
+            cliStart = Timings.start();
+        }
+
+        if (commands != null) {
+            commands.finish(regenerateCommands());
+            context.getTimings().stop("phase.cli", cliStart);
+            getLog().info("Finished Command Code Generation.");
+        }
+    }
+
+    private void generateResources(Set<Artifact> artifacts, ResourcesGenerator.Listener listener)
+            throws IOException, MojoExecutionException {
         if (generateResources) {
             requireModelPackage();
 
             if (resourcePackage == null) {
-                Configuration.resourcePackage = "org.tomitribe.resources";
+                context = context.with().resourcePackage("org.tomitribe.resources").build();
             }
 
-            File resourceFolder = new File(Configuration.getResourcePath());
+            File resourceFolder = new File(context.getResourcePath());
             boolean resourcesExistsInCurrentProject = resourceFolder.exists();
             if (!resourcesExistsInCurrentProject) {
                 resourceFolder.mkdirs();
             }
 
             getLog().info("Started Resource Code Generation.");
-            ResourcesGenerator.execute();
+            final long start = Timings.start();
+            if (changedModels != null) {
+                ResourcesGenerator.execute(context, changedModels, listener);
+            } else {
+                ResourcesGenerator.execute(context, listener);
+            }
+            context.getTimings().stop("phase.resources", start);
             getLog().info("Finished Resource Code Generation.");
-            Configuration.resourceSources = Configuration.generatedSources;
+            context = context.with().resourceSources(context.getGeneratedSources()).build();
         } else {
             if (resourcePackage != null) {
                 List<String> compileSourceRoots = project.getCompileSourceRoots();
                 if (compileSourceRoots != null) {
                     for (String source : compileSourceRoots) {
-                        File folder = new File(source, Utils.transformPackageToPath(Configuration.resourcePackage));
+                        File folder = new File(source, Utils.transformPackageToPath(context.getResourcePackage()));
                         if (folder.exists()) {
-                            Configuration.resourceSources = source;
+                            context = context.with().resourceSources(source).build();
                             return;
                         }
                     }
                 }
 
+                final DependencyIndex index = dependencies(artifacts);
                 List<Artifact> resourceDependencies = artifacts.stream()
-                        .filter(a -> hasResources(a.getFile())).collect(Collectors.toList());
+                        .filter(a -> index.hasSources(a.getFile(), context.getResourcePackage())).collect(Collectors.toList());
 
                 if (resourceDependencies.size() == 0) {
                     throw new MojoExecutionException(
                             "Resources were not found. Add the correct 'resourcePackage' for " +
                                     "this project or add a jar with the .java files for the resources.");
                 } else {
-                    resourceDependencies.stream().forEach(m -> extractJavaFiles(m.getFile()));
-                    Configuration.resourceSources = Configuration.tempSource;
+                    context = context.with().resourceSources(extractJavaFiles(resourceDependencies)).build();
                 }
             }
         }
-        Configuration.clientSources = Configuration.resourceSources;
+        context = context.with().clientSources(context.getResourceSources()).build();
     }
 
     private void generateModel(Set<Artifact> artifacts) throws IOException, MojoExecutionException {
         if (generateModel) {
             requireModelPackage();
 
-            File modelFolder = new File(Configuration.getModelPath());
+            File modelFolder = new File(context.getModelPath());
             boolean existsInCurrentProject = modelFolder.exists();
             if (!existsInCurrentProject) {
                 modelFolder.mkdirs();
             }
             getLog().info("Started Model Code Generation.");
-            ModelGenerator.execute();
+            final long start = Timings.start();
+            if (changedModels != null) {
+                ModelGenerator.execute(context, changedModels);
+            } else {
+                ModelGenerator.execute(context, orderedModels(modelFolder));
+            }
+            context.getTimings().stop("phase.model", start);
             getLog().info("Finished Model Code Generation.");
         } else {
             if (modelPackage != null) {
                 List<String> compileSourceRoots = project.getCompileSourceRoots();
                 if (compileSourceRoots != null) {
                     for (String source : compileSourceRoots) {
-                        File folder = new File(source, Utils.transformPackageToPath(Configuration.modelPackage));
+                        File folder = new File(source, Utils.transformPackageToPath(context.getModelPackage()));
                         if (folder.exists()) {
-                            Configuration.modelSources = source;
+                            context = context.with().modelSources(source).build();
                             return;
                         }
                     }
                 }
 
+                final DependencyIndex index = dependencies(artifacts);
                 List<Artifact> modelDependencies = artifacts.stream()
-                        .filter(a -> hasModel(a.getFile())).collect(Collectors.toList());
+                        .filter(a -> index.hasSources(a.getFile(), context.getModelPackage())).collect(Collectors.toList());
 
                 if (modelDependencies.size() == 0) {
                     throw new MojoExecutionException(
@@ -247,90 +748,22 @@ public class MainGenerator extends AbstractMojo {
                                     "this project or add a jar with the .java files for the model.");
                 }
 
-                modelDependencies.stream().forEach(m -> extractJavaFiles(m.getFile()));
-                Configuration.modelSources = Configuration.tempSource;
+                context = context.with().modelSources(extractJavaFiles(modelDependencies)).build();
             }
         }
     }
 
-    private boolean hasModel(File jarFile) {
-        try {
-            JarFile jar = new JarFile(jarFile);
-            Enumeration<? extends JarEntry> enumeration = jar.entries();
-            while (enumeration.hasMoreElements()) {
-                ZipEntry zipEntry = enumeration.nextElement();
-                if (zipEntry.getName().equals(Utils.transformPackageToPath(Configuration.modelPackage) + File.separator)) {
-                    return true;
-                }
-            }
-        } catch (Exception e) {
-            e.printStackTrace();
+    private DependencyIndex dependencies(final Set<Artifact> artifacts) throws IOException {
+        if (dependencies == null) {
+            dependencies = DependencyIndex.of(artifacts.stream().map(Artifact::getFile).collect(Collectors.toList()),
+                    context.getThreads());
         }
-
-        return false;
+        return dependencies;
     }
 
-    private boolean hasResources(File jarFile) {
-        try {
-            JarFile jar = new JarFile(jarFile);
-            Enumeration<? extends JarEntry> enumeration = jar.entries();
-            while (enumeration.hasMoreElements()) {
-                ZipEntry zipEntry = enumeration.nextElement();
-                if (zipEntry.getName().equals(Utils.transformPackageToPath(Configuration.resourcePackage) + File.separator)) {
-                    return true;
-                }
-            }
-        } catch (Exception e) {
-            e.printStackTrace();
-        }
-
-        return false;
-    }
-
-    private boolean hasClient(File jarFile) {
-        try {
-            JarFile jar = new JarFile(jarFile);
-            Enumeration<? extends JarEntry> enumeration = jar.entries();
-            while (enumeration.hasMoreElements()) {
-                ZipEntry zipEntry = enumeration.nextElement();
-                String pkg = Utils.transformPackageToPath(Configuration.resourcePackage) + File.separator + "client";
-                if (zipEntry.getName().equals(pkg) || zipEntry.getName().equals(pkg + File.separator)) {
-                    return true;
-                }
-            }
-        } catch (Exception e) {
-            e.printStackTrace();
-        }
-
-        return false;
-    }
-
-    private void extractJavaFiles(File jarFile) {
-        try {
-            JarFile jar = new JarFile(jarFile);
-            Enumeration<? extends JarEntry> enumeration = jar.entries();
-            while (enumeration.hasMoreElements()) {
-                ZipEntry zipEntry = enumeration.nextElement();
-                if (zipEntry.getName().endsWith(".java")) {
-                    InputStream is = jar.getInputStream(zipEntry);
-                    File generatedSources = new File(Configuration.tempSource);
-                    java.io.File output = new java.io.File(generatedSources, java.io.File.separator + zipEntry.getName());
-                    if (!output.getParentFile().exists()) {
-                        output.getParentFile().mkdirs();
-                    }
-                    output.createNewFile();
-                    java.io.FileOutputStream fos = new java.io.FileOutputStream(output);
-                    while (is.available() > 0) {  // write contents of 'is' to 'fos'
-                        fos.write(is.read());
-                    }
-                    fos.close();
-                    is.close();
-                }
-            }
-            jar.close();
-        } catch (Exception e) {
-            e.printStackTrace();
-        }
+    private String extractJavaFiles(List<Artifact> artifacts) throws IOException {
+        final List<File> jars = artifacts.stream().map(Artifact::getFile).collect(Collectors.toList());
+        return sessionCache.extract(jars, new File(context.getTempSource())).getPath();
     }
 
     private void requireResourcePackage() throws MojoExecutionException {
@@ -0,0 +1,132 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ *
+ */
+package org.tomitribe.inget;
+
+import com.github.javaparser.symbolsolver.model.resolution.TypeSolver;
+import com.github.javaparser.symbolsolver.resolution.typesolvers.JavaParserTypeSolver;
+import org.apache.maven.execution.MavenExecutionRequest;
+import org.apache.maven.execution.MavenSession;
+import org.tomitribe.inget.common.Hashes;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.WeakHashMap;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * What the modules of a reactor build share while they generate: the
+ * checksums of the dependency jars, where their sources were extracted and
+ * the type solvers parsing those sources.
+ *
+ * The plugin stays loaded for the whole build, so the cache lives as long
+ * as the build request and is dropped with it. It is keyed on the request,
+ * not the session: a parallel build hands each module its own clone of the
+ * session, but they all share the request. A session scoped component would
+ * live as long, but the plugin is not indexed for JSR-330 injection (sisu is
+ * excluded from its dependencies) and its mojos are also created by hand in
+ * the tests, a weak map on the request needs neither.
+ *
+ * The extracted sources never change once extracted, the next modules
+ * resolve them through the ASTs the previous ones already parsed.
+ */
+public class SessionCache {
+
+    private static final Map<MavenExecutionRequest, SessionCache> SESSIONS = new WeakHashMap<>();
+
+    private final Map<String, String> checksums = new ConcurrentHashMap<>();
+    private final Map<String, File> extracted = new ConcurrentHashMap<>();
+    private final Map<String, TypeSolver> idle = new ConcurrentHashMap<>();
+
+    private SessionCache() {
+    }
+
+    public static SessionCache of(final MavenSession session) {
+        if (session == null || session.getRequest() == null) {
+            return new SessionCache();
+        }
+
+        synchronized (SESSIONS) {
+            return SESSIONS.computeIfAbsent(session.getRequest(), r -> new SessionCache());
+        }
+    }
+
+    /**
+     * The directory the sources of the jars were extracted to, by this
+     * module or a previous one.
+     */
+    public File extract(final List<File> jars, final File cache) throws IOException {
+        final List<String> sums = new ArrayList<>();
+        for (File jar : jars) {
+            sums.add(checksum(jar));
+        }
+
+        final String key = String.join(",", sums);
+        final File known = extracted.get(key);
+        if (known != null && known.isDirectory()) {
+            return known;
+        }
+
+        final File target = SourceJars.extract(jars, sums, cache);
+        extracted.put(key, target);
+        return target;
+    }
+
+    /**
+     * Takes the type solvers of the extracted directories, by path. A solver
+     * knows the combined solver it was added to, so the modules of a parallel
+     * build never use the same one at the same time: a module takes the idle
+     * ones and gets new ones for the directories whose solver is in use.
+     */
+    public Map<String, TypeSolver> borrowSolvers() {
+        final Map<String, TypeSolver> borrowed = new HashMap<>();
+        for (File directory : extracted.values()) {
+            final TypeSolver solver = idle.remove(directory.getPath());
+            borrowed.put(directory.getPath(), solver != null ? solver : new JavaParserTypeSolver(directory));
+        }
+        return borrowed;
+    }
+
+    /**
+     * Gives the solvers back once the generation is over, for the next
+     * modules to reuse what they parsed. They no longer point to the combined
+     * solver of the generation, which would keep its ASTs alive while idle.
+     */
+    public void returnSolvers(final Map<String, TypeSolver> solvers) {
+        solvers.forEach((directory, solver) -> {
+            solver.setParent(null);
+            idle.putIfAbsent(directory, solver);
+        });
+    }
+
+    private String checksum(final File jar) throws IOException {
+        final String key = jar.getAbsolutePath() + "|" + jar.length() + "|" + jar.lastModified();
+        final String cached = checksums.get(key);
+        if (cached != null) {
+            return cached;
+        }
+
+        final String checksum = Hashes.sha1(jar);
+        checksums.put(key, checksum);
+        return checksum;
+    }
+}
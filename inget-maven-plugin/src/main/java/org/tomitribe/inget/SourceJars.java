@@ -0,0 +1,122 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ *
+ */
+package org.tomitribe.inget;
+
+import org.codehaus.plexus.util.FileUtils;
+import org.tomitribe.inget.common.Hashes;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.ArrayList;
+import java.util.Enumeration;
+import java.util.List;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipFile;
+
+/**
+ * Extracts the java sources of dependency jars into a directory named after
+ * the hash of the jars, so the same jars are only ever extracted once.
+ */
+public class SourceJars {
+
+    private SourceJars() {
+        // no-op
+    }
+
+    public static File extract(final List<File> jars, final File cache) throws IOException {
+        final List<String> checksums = new ArrayList<>();
+        for (File jar : jars) {
+            checksums.add(Hashes.sha1(jar));
+        }
+        return extract(jars, checksums, cache);
+    }
+
+    /**
+     * Same, when the checksums of the jars are already known.
+     */
+    public static File extract(final List<File> jars, final List<String> checksums, final File cache) throws IOException {
+        final StringBuilder key = new StringBuilder();
+        for (String checksum : checksums) {
+            key.append(checksum).append('\n');
+        }
+
+        final File target = new File(cache, jars.size() == 1 ? key.toString().trim() : Hashes.sha1(key.toString()));
+        if (target.isDirectory()) {
+            return target;
+        }
+
+        Files.createDirectories(cache.toPath());
+        final Path tmp = Files.createTempDirectory(cache.toPath(), target.getName() + ".");
+        try {
+            for (File jar : jars) {
+                extract(jar, tmp);
+            }
+
+            move(tmp, target.toPath());
+        } finally {
+            if (Files.exists(tmp)) {
+                FileUtils.deleteDirectory(tmp.toFile());
+            }
+        }
+
+        return target;
+    }
+
+    static void move(final Path from, final Path to) throws IOException {
+        try {
+            try {
+                Files.move(from, to, StandardCopyOption.ATOMIC_MOVE);
+            } catch (AtomicMoveNotSupportedException e) {
+                Files.move(from, to);
+            }
+        } catch (IOException e) {
+            // another build extracted the same jars in the meantime
+            if (!Files.isDirectory(to)) {
+                throw e;
+            }
+        }
+    }
+
+    private static void extract(final File jar, final Path directory) throws IOException {
+        try (final ZipFile zip = new ZipFile(jar)) {
+            final Enumeration<? extends ZipEntry> entries = zip.entries();
+            while (entries.hasMoreElements()) {
+                final ZipEntry entry = entries.nextElement();
+                if (entry.isDirectory() || !entry.getName().endsWith(".java")) {
+                    continue;
+                }
+
+                final Path output = directory.resolve(entry.getName()).normalize();
+                if (!output.startsWith(directory)) {
+                    throw new IOException("Entry " + entry.getName() + " of " + jar + " is outside of the target directory");
+                }
+
+                Files.createDirectories(output.getParent());
+                try (final InputStream in = zip.getInputStream(entry)) {
+                    Files.copy(in, output, StandardCopyOption.REPLACE_EXISTING);
+                }
+            }
+        }
+    }
+}
@@ -0,0 +1,187 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ *
+ */
+package org.tomitribe.inget;
+
+import org.apache.maven.plugin.MojoExecutionException;
+import org.apache.maven.plugin.MojoFailureException;
+import org.apache.maven.plugins.annotations.LifecyclePhase;
+import org.apache.maven.plugins.annotations.Mojo;
+import org.apache.maven.plugins.annotations.Parameter;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.FileSystems;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardWatchEventKinds;
+import java.nio.file.WatchEvent;
+import java.nio.file.WatchKey;
+import java.nio.file.WatchService;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Stream;
+
+/**
+ * Generates once and then keeps regenerating whenever the model or resource
+ * sources change, in the same JVM, until the build is interrupted. The JDK
+ * types and the extracted dependency sources stay solved from one generation
+ * to the next, the model and resource sources are parsed again, and a change
+ * of the models only regenerates what is generated from them.
+ */
+@Mojo(name = "watch", defaultPhase = LifecyclePhase.GENERATE_SOURCES)
+public class WatchMojo extends MainGenerator {
+
+    /**
+     * How long to wait for more changes before regenerating, in milliseconds.
+     */
+    @Parameter(property = "generate.debounce", defaultValue = "200")
+    private Long debounce;
+
+    private List<File> pending;
+
+    /**
+     * The modification time of each file written by the last generation, so
+     * the events caused by our own writes are not taken as changes.
+     */
+    private final Map<Path, Long> written = new HashMap<>();
+
+    @Override
+    public void execute() throws MojoExecutionException, MojoFailureException {
+        if (!isPartialSupported()) {
+            throw new MojoExecutionException("The 'watch' goal requires 'generateModel' and the 'modelPackage'.");
+        }
+
+        pending = null;
+        try {
+            generate();
+            watch();
+        } finally {
+            closeTypeSolver();
+        }
+    }
+
+    private void watch() throws MojoExecutionException, MojoFailureException {
+        try (final WatchService watcher = FileSystems.getDefault().newWatchService()) {
+            final Map<WatchKey, Path> keys = new HashMap<>();
+            for (File folder : watchedFolders()) {
+                register(watcher, keys, folder.toPath().toAbsolutePath());
+            }
+            getLog().info("Watching " + watchedFolders() + " for changes.");
+
+            while (!Thread.currentThread().isInterrupted()) {
+                final Set<File> changed = new LinkedHashSet<>();
+                boolean deleted = false;
+
+                WatchKey key = watcher.take();
+                while (key != null) {
+                    final Path dir = keys.get(key);
+                    for (WatchEvent<?> event : key.pollEvents()) {
+                        if (event.kind() == StandardWatchEventKinds.OVERFLOW) {
+                            deleted = true;
+                            continue;
+                        }
+
+                        final Path path = dir.resolve((Path) event.context());
+                        if (event.kind() == StandardWatchEventKinds.ENTRY_DELETE) {
+                            deleted = true;
+                        } else if (Files.isDirectory(path)) {
+                            register(watcher, keys, path);
+                            changed.addAll(javaFiles(path));
+                        } else if (path.toString().endsWith(".java") && !isOwnWrite(path)) {
+                            changed.add(path.toFile());
+                        }
+                    }
+
+                    if (!key.reset()) {
+                        keys.remove(key);
+                    }
+                    key = watcher.poll(debounce, TimeUnit.MILLISECONDS);
+                }
+
+                if (changed.isEmpty() && !deleted) {
+                    continue;
+                }
+
+                pending = changedModels(changed, deleted);
+                final long start = System.nanoTime();
+                generate();
+                getLog().info("Regenerated in " + TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start) + " ms.");
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } catch (IOException e) {
+            throw new MojoExecutionException("Could not watch the sources", e);
+        }
+    }
+
+    @Override
+    protected List<File> changedModels() {
+        return pending;
+    }
+
+    @Override
+    protected boolean keepsTypeSolver() {
+        return true;
+    }
+
+    private void generate() throws MojoExecutionException, MojoFailureException {
+        super.execute();
+        written(getContext().getGeneratedFiles().get());
+    }
+
+    void written(final Collection<String> files) {
+        written.clear();
+        for (String file : files) {
+            written.put(new File(file).toPath(), new File(file).lastModified());
+        }
+    }
+
+    boolean isOwnWrite(final Path path) {
+        final Long lastModified = written.get(path.toAbsolutePath());
+        return lastModified != null && lastModified == path.toFile().lastModified();
+    }
+
+    private static void register(final WatchService watcher, final Map<WatchKey, Path> keys, final Path root) throws IOException {
+        if (!Files.isDirectory(root)) {
+            return;
+        }
+
+        try (final Stream<Path> dirs = Files.walk(root)) {
+            for (Path dir : (Iterable<Path>) dirs.filter(Files::isDirectory)::iterator) {
+                keys.put(dir.register(watcher,
+                        StandardWatchEventKinds.ENTRY_CREATE,
+                        StandardWatchEventKinds.ENTRY_MODIFY,
+                        StandardWatchEventKinds.ENTRY_DELETE), dir);
+            }
+        }
+    }
+
+    private static Set<File> javaFiles(final Path dir) throws IOException {
+        final Set<File> files = new LinkedHashSet<>();
+        try (final Stream<Path> walk = Files.walk(dir)) {
+            walk.filter(p -> p.toString().endsWith(".java")).forEach(p -> files.add(p.toFile()));
+        }
+        return files;
+    }
+}
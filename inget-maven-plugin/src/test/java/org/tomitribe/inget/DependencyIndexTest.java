@@ -0,0 +1,127 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ *
+ */
+package org.tomitribe.inget;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.tomitribe.util.Files;
+import org.tomitribe.util.IO;
+
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.util.Collections;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipOutputStream;
+
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+public class DependencyIndexTest {
+
+    private File root;
+
+    @Before
+    public void setUp() {
+        root = Files.tmpdir();
+    }
+
+    @After
+    public void tearDown() {
+        Files.remove(root);
+    }
+
+    @Test
+    public void testSourcesRequireJavaFiles() throws Exception {
+        final File classes = jar("movies.jar", "io/superbiz/video/Movie.class");
+        final File sources = jar("movies-sources.jar", "io/superbiz/video/Movie.java");
+
+        assertFalse(index(classes).hasSources(classes, "io.superbiz.video"));
+        assertTrue(index(sources).hasSources(sources, "io.superbiz.video"));
+        assertFalse(index(sources).hasSources(sources, "io.superbiz.music"));
+        assertFalse(index(sources).hasSources(null, "io.superbiz.video"));
+    }
+
+    @Test
+    public void testPackagesWithoutDirectoryEntries() throws Exception {
+        final File jar = jar("movies-sources.jar", "io/superbiz/video/model/Movie.java", "README.txt");
+
+        final DependencyIndex index = index(jar);
+        assertTrue(index.hasSources(jar, "io.superbiz.video.model"));
+        assertTrue(index.hasSources(jar, "io.superbiz.video"));
+        assertTrue(index.hasSources(jar, "io"));
+        assertFalse(index.hasSources(jar, "io.superbiz.video.model.Movie"));
+    }
+
+    @Test
+    public void testPackagesOfDirectoryEntries() throws Exception {
+        final File jar = jar("movies-sources.jar", "io/superbiz/video/", "io/superbiz/Book.java");
+
+        assertTrue(index(jar).hasSources(jar, "io.superbiz.video"));
+    }
+
+    @Test
+    public void testJarsAreRememberedByPathSizeAndTime() throws Exception {
+        final File jar = jar("movies-sources.jar", "io/superbiz/video/Movie.java");
+        final long modified = jar.lastModified();
+        assertTrue(index(jar).hasSources(jar, "io.superbiz.video"));
+
+        // same size and time, the jar is not read again
+        try (final RandomAccessFile file = new RandomAccessFile(jar, "rw")) {
+            file.write(new byte[(int) file.length()]);
+        }
+        assertTrue(jar.setLastModified(modified));
+        assertTrue(index(jar).hasSources(jar, "io.superbiz.video"));
+
+        assertTrue(jar.setLastModified(modified - 10_000));
+        try {
+            index(jar);
+            fail("the changed jar was not read again");
+        } catch (IOException e) {
+            assertTrue(e.getMessage(), e.getMessage().contains(jar.getPath()));
+        }
+    }
+
+    @Test
+    public void testOnlyJarsAreRead() throws Exception {
+        final File pom = new File(root, "movies.pom");
+        IO.writeString(pom, "<project/>");
+
+        assertFalse(index(pom).hasSources(pom, "io.superbiz"));
+        assertFalse(index(root).hasSources(root, "io.superbiz"));
+    }
+
+    private static DependencyIndex index(final File jar) throws IOException {
+        return DependencyIndex.of(Collections.singletonList(jar), 1);
+    }
+
+    private File jar(final String name, final String... entries) throws IOException {
+        final File jar = new File(Files.mkdirs(new File(root, String.valueOf(root.list().length))), name);
+        try (final ZipOutputStream out = new ZipOutputStream(new FileOutputStream(jar))) {
+            for (String entry : entries) {
+                out.putNextEntry(new ZipEntry(entry));
+                out.closeEntry();
+            }
+        }
+        return jar;
+    }
+}
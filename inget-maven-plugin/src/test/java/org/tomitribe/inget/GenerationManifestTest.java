@@ -0,0 +1,182 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ *
+ */
+package org.tomitribe.inget;
+
+import org.apache.maven.model.Build;
+import org.apache.maven.project.MavenProject;
+import org.codehaus.plexus.util.ReflectionUtils;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.sonatype.plexus.build.incremental.DefaultBuildContext;
+import org.tomitribe.util.Files;
+import org.tomitribe.util.IO;
+
+import java.io.File;
+import java.util.Collections;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertTrue;
+
+public class GenerationManifestTest {
+
+    private File root;
+    private File sources;
+    private File model;
+    private File generated;
+    private File manifest;
+    private File report;
+
+    @Before
+    public void setUp() {
+        root = Files.tmpdir();
+        sources = Files.mkdirs(new File(root, "src/main/java"));
+        model = Files.mkdirs(new File(sources, "io/superbiz/video/model"));
+        generated = new File(root, "target/generated-sources/io/superbiz/video/model");
+        manifest = new File(root, "target/inget-manifest.properties");
+        report = new File(root, "target/inget-report.json");
+    }
+
+    @After
+    public void tearDown() {
+        Files.remove(root);
+    }
+
+    @Test
+    public void testUnchangedInputSkips() throws Exception {
+        writeModel("Movie", "");
+        generate();
+        assertTrue(new File(generated, "Movie.java").exists());
+        assertNotNull(GenerationManifest.load(manifest));
+
+        assertTrue(report.delete());
+        generate();
+        assertFalse("the generation ran again", report.exists());
+    }
+
+    @Test
+    public void testModifiedInputRegenerates() throws Exception {
+        writeModel("Movie", "");
+        generate();
+        assertFalse(IO.slurp(new File(generated, "Movie.java")).contains("plot"));
+
+        assertTrue(report.delete());
+        writeModel("Movie", "    private String plot;\n");
+        generate();
+        assertTrue(report.exists());
+        assertTrue(IO.slurp(new File(generated, "Movie.java")).contains("plot"));
+    }
+
+    @Test
+    public void testChangedConfigurationRegenerates() throws Exception {
+        writeModel("Movie", "");
+        generate();
+
+        assertTrue(report.delete());
+        generate(true);
+        assertTrue("the generation did not run again", report.exists());
+    }
+
+    @Test
+    public void testTamperedOutputRegenerates() throws Exception {
+        writeModel("Movie", "");
+        generate();
+
+        final File movie = new File(generated, "Movie.java");
+        final String expected = IO.slurp(movie);
+        IO.writeString(movie, expected + "// edited by hand\n");
+
+        generate();
+        assertEquals(expected, IO.slurp(movie));
+    }
+
+    @Test
+    public void testRemovedModelDeletesItsOutputs() throws Exception {
+        writeModel("Movie", "");
+        final File book = writeModel("Book", "");
+        generate();
+        assertTrue(new File(generated, "Book.java").exists());
+
+        // a file outside the generated sources, e.g. a resource rewritten in place, is never deleted
+        final File notes = new File(model, "Notes.java");
+        IO.writeString(notes, "package io.superbiz.video.model;\n\nclass Notes {\n}\n");
+        final GenerationManifest previous = GenerationManifest.load(manifest);
+        previous.addOutputs(Collections.singleton(notes.getAbsolutePath()));
+        previous.save(manifest);
+
+        assertTrue(book.delete());
+        generate();
+        assertFalse(new File(generated, "Book.java").exists());
+        assertTrue(new File(generated, "Movie.java").exists());
+        assertTrue(notes.exists());
+    }
+
+    private File writeModel(final String name, final String fields) throws Exception {
+        final File file = new File(model, name + "Model.java");
+        IO.writeString(file, "package io.superbiz.video.model;\n\n"
+                + "import org.tomitribe.api.Model;\n\n"
+                + "@Model\n"
+                + "public class " + name + "Model {\n"
+                + "    @Model(id = true)\n"
+                + "    private String id;\n"
+                + "    private String title;\n"
+                + fields
+                + "}\n");
+        return file;
+    }
+
+    private void generate() throws Exception {
+        generate(false);
+    }
+
+    private void generate(final boolean preserveResources) throws Exception {
+        final MavenProject project = new MavenProject();
+        final Build build = new Build();
+        build.setSourceDirectory(sources.getAbsolutePath());
+        build.setDirectory(new File(root, "target").getAbsolutePath());
+        project.setBuild(build);
+        project.addCompileSourceRoot(sources.getAbsolutePath());
+
+        final MainGenerator mojo = new MainGenerator();
+        set(mojo, "project", project);
+        set(mojo, "buildContext", new DefaultBuildContext());
+        set(mojo, "modelPackage", "io.superbiz.video.model");
+        set(mojo, "modelSuffix", "Model");
+        set(mojo, "clientName", "ResourceClient");
+        set(mojo, "format", "eclipse");
+        set(mojo, "generateModel", true);
+        set(mojo, "generateResources", false);
+        set(mojo, "generateClient", false);
+        set(mojo, "generateCli", false);
+        set(mojo, "threads", 1);
+        set(mojo, "incremental", true);
+        set(mojo, "streaming", false);
+        set(mojo, "astCacheSize", 1000);
+        set(mojo, "pipeline", false);
+        set(mojo, "reuseJdkTypes", true);
+        set(mojo, "preserveResources", preserveResources);
+        mojo.execute();
+    }
+
+    private static void set(final Object mojo, final String field, final Object value) throws Exception {
+        ReflectionUtils.setVariableValueInObject(mojo, field, value);
+    }
+}
@@ -0,0 +1,250 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ *
+ */
+package org.tomitribe.inget;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.tomitribe.inget.common.Timings;
+import org.tomitribe.util.Files;
+import org.tomitribe.util.IO;
+
+import java.io.File;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+public class GenerationReportTest {
+
+    private static final long MS = 1_000_000;
+
+    private File root;
+
+    @Before
+    public void setUp() {
+        root = Files.tmpdir();
+    }
+
+    @After
+    public void tearDown() {
+        Files.remove(root);
+    }
+
+    @Test
+    public void testWrittenReportParsesBack() throws Exception {
+        final Timings timings = new Timings();
+        final String name = "src/\"quoted\"\\Movie\t.java";
+        timings.source(new File(name));
+        timings.stop("parse", Timings.start() - 3 * MS);
+        timings.stop("parse", Timings.start() - 4 * MS);
+        timings.source(null);
+        timings.count("types.hits", 5);
+
+        final Map<String, Object> report = write(timings);
+
+        final Map<String, Object> parse = map(map(report.get("steps")).get("parse"));
+        assertEquals(2.0, parse.get("count"));
+        assertTrue(parse.toString(), (Double) parse.get("totalMs") >= 7);
+        assertTrue(parse.toString(), (Double) parse.get("maxMs") >= 4);
+        assertTrue(parse.toString(), (Double) parse.get("maxMs") < (Double) parse.get("totalMs"));
+
+        assertEquals(Collections.singletonMap("types.hits", 5.0), report.get("counters"));
+
+        final List<Object> files = list(report.get("files"));
+        assertEquals(1, files.size());
+        final Map<String, Object> file = map(files.get(0));
+        assertEquals(new File(name).getPath(), file.get("file"));
+        assertEquals(map(file.get("steps")).get("parse"), file.get("totalMs"));
+    }
+
+    @Test
+    public void testEmptySections() throws Exception {
+        final Map<String, Object> report = write(new Timings());
+
+        assertEquals(Collections.emptyMap(), report.get("steps"));
+        assertEquals(Collections.emptyMap(), report.get("counters"));
+        assertEquals(Collections.emptyList(), report.get("files"));
+        assertEquals(Arrays.asList("Slowest steps:", "Slowest files:"), new GenerationReport(new Timings()).summary(3));
+    }
+
+    @Test
+    public void testSummaryListsTheSlowestFirst() throws Exception {
+        final Timings timings = new Timings();
+        timings.stop("format", Timings.start() - MS);
+        timings.stop("parse", Timings.start() - 20 * MS);
+        timings.stop("resolve", Timings.start() - 10 * MS);
+
+        timings.source(new File("Fast.java"));
+        timings.stop("generate.model", Timings.start() - 2 * MS);
+        timings.source(new File("Slow.java"));
+        timings.stop("generate.model", Timings.start() - 30 * MS);
+        timings.stop("parse", Timings.start() - 40 * MS);
+        timings.source(null);
+
+        final List<String> summary = new GenerationReport(timings).summary(2);
+        assertEquals(summary.toString(), 6, summary.size());
+        assertEquals("Slowest steps:", summary.get(0));
+        assertTrue(summary.get(1), summary.get(1).startsWith("  parse "));
+        assertTrue(summary.get(1), summary.get(1).contains(" in 2 calls"));
+        assertTrue(summary.get(2), summary.get(2).startsWith("  generate.model "));
+        assertEquals("Slowest files:", summary.get(3));
+        assertTrue(summary.get(4), summary.get(4).startsWith("  Slow.java "));
+        assertTrue(summary.get(5), summary.get(5).startsWith("  Fast.java "));
+        assertEquals(Arrays.asList("Slowest steps:", summary.get(1), "Slowest files:", summary.get(4)),
+                new GenerationReport(timings).summary(1));
+
+        // the file total is its generate task, the steps run inside it
+        final List<Object> files = list(write(timings).get("files"));
+        assertEquals("Slow.java", map(files.get(0)).get("file"));
+        assertEquals(map(map(files.get(0)).get("steps")).get("generate.model"), map(files.get(0)).get("totalMs"));
+        assertEquals("Fast.java", map(files.get(1)).get("file"));
+    }
+
+    private Map<String, Object> write(final Timings timings) throws Exception {
+        final File file = new File(root, "target/inget-report.json");
+        new GenerationReport(timings).write(file);
+        return map(new Json(IO.slurp(file)).value());
+    }
+
+    @SuppressWarnings("unchecked")
+    private static Map<String, Object> map(final Object value) {
+        return (Map<String, Object>) value;
+    }
+
+    @SuppressWarnings("unchecked")
+    private static List<Object> list(final Object value) {
+        return (List<Object>) value;
+    }
+
+    /**
+     * Reads the objects, arrays, strings and numbers the report is made of.
+     */
+    private static class Json {
+
+        private final String text;
+        private int position;
+
+        Json(final String text) {
+            this.text = text;
+        }
+
+        Object value() {
+            skipWhitespace();
+            final char c = text.charAt(position);
+            if (c == '{') {
+                return object();
+            }
+            if (c == '[') {
+                return array();
+            }
+            if (c == '"') {
+                return string();
+            }
+            return number();
+        }
+
+        private Map<String, Object> object() {
+            final Map<String, Object> object = new LinkedHashMap<>();
+            expect('{');
+            if (next() == '}') {
+                expect('}');
+                return object;
+            }
+            do {
+                skipWhitespace();
+                final String key = string();
+                expect(':');
+                object.put(key, value());
+            } while (consume(','));
+            expect('}');
+            return object;
+        }
+
+        private List<Object> array() {
+            final List<Object> array = new ArrayList<>();
+            expect('[');
+            if (next() == ']') {
+                expect(']');
+                return array;
+            }
+            do {
+                array.add(value());
+            } while (consume(','));
+            expect(']');
+            return array;
+        }
+
+        private String string() {
+            expect('"');
+            final StringBuilder value = new StringBuilder();
+            for (char c = text.charAt(position++); c != '"'; c = text.charAt(position++)) {
+                if (c == '\\') {
+                    final char escaped = text.charAt(position++);
+                    if (escaped == 'u') {
+                        value.append((char) Integer.parseInt(text.substring(position, position + 4), 16));
+                        position += 4;
+                    } else {
+                        value.append(escaped);
+                    }
+                } else {
+                    value.append(c);
+                }
+            }
+            return value.toString();
+        }
+
+        private Double number() {
+            final int start = position;
+            while (position < text.length() && "+-.0123456789eE".indexOf(text.charAt(position)) >= 0) {
+                position++;
+            }
+            return Double.valueOf(text.substring(start, position));
+        }
+
+        private char next() {
+            skipWhitespace();
+            return text.charAt(position);
+        }
+
+        private boolean consume(final char c) {
+            if (next() == c) {
+                position++;
+                return true;
+            }
+            return false;
+        }
+
+        private void expect(final char c) {
+            assertEquals("at " + position, c, next());
+            position++;
+        }
+
+        private void skipWhitespace() {
+            while (position < text.length() && Character.isWhitespace(text.charAt(position))) {
+                position++;
+            }
+        }
+    }
+}
@@ -0,0 +1,93 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ *
+ */
+package org.tomitribe.inget;
+
+import com.github.javaparser.symbolsolver.model.resolution.TypeSolver;
+import com.github.javaparser.symbolsolver.resolution.typesolvers.CombinedTypeSolver;
+import org.apache.maven.execution.DefaultMavenExecutionRequest;
+import org.apache.maven.execution.DefaultMavenExecutionResult;
+import org.apache.maven.execution.MavenSession;
+import org.eclipse.aether.DefaultRepositorySystemSession;
+import org.junit.Test;
+import org.tomitribe.util.Files;
+
+import java.io.File;
+import java.io.FileOutputStream;
+import java.util.Collections;
+import java.util.Map;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipOutputStream;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotSame;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+
+public class SessionCacheTest {
+
+    @Test
+    public void testClonedSessionsShareTheCache() {
+        final MavenSession session = session();
+
+        // each module of a parallel build runs with a clone of the session
+        final MavenSession module = session.clone();
+        assertNotSame(session, module);
+
+        assertSame(SessionCache.of(session), SessionCache.of(module));
+    }
+
+    @Test
+    public void testBuildsDoNotShareTheCache() {
+        assertNotSame(SessionCache.of(session()), SessionCache.of(session()));
+    }
+
+    @Test
+    public void testReturnedSolversAreReused() throws Exception {
+        final File root = Files.tmpdir();
+        try {
+            final File jar = new File(root, "movies-sources.jar");
+            try (final ZipOutputStream out = new ZipOutputStream(new FileOutputStream(jar))) {
+                out.putNextEntry(new ZipEntry("io/superbiz/Movie.java"));
+                out.closeEntry();
+            }
+
+            final SessionCache cache = SessionCache.of(session());
+            final File extracted = cache.extract(Collections.singletonList(jar), new File(root, "cache"));
+
+            final Map<String, TypeSolver> borrowed = cache.borrowSolvers();
+            assertEquals(Collections.singleton(extracted.getPath()), borrowed.keySet());
+            final TypeSolver solver = borrowed.get(extracted.getPath());
+            new CombinedTypeSolver().add(solver);
+
+            // in use, the next module gets its own
+            assertNotSame(solver, cache.borrowSolvers().get(extracted.getPath()));
+
+            cache.returnSolvers(borrowed);
+            assertNull(solver.getParent());
+            assertSame(solver, cache.borrowSolvers().get(extracted.getPath()));
+        } finally {
+            Files.remove(root);
+        }
+    }
+
+    private static MavenSession session() {
+        return new MavenSession(null, new DefaultRepositorySystemSession(),
+                new DefaultMavenExecutionRequest(), new DefaultMavenExecutionResult());
+    }
+}
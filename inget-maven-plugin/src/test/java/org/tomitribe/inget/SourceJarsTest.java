@@ -0,0 +1,132 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ *
+ */
+package org.tomitribe.inget;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.tomitribe.inget.common.Hashes;
+import org.tomitribe.util.Files;
+import org.tomitribe.util.IO;
+
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipOutputStream;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+public class SourceJarsTest {
+
+    private File root;
+    private File cache;
+
+    @Before
+    public void setUp() {
+        root = Files.tmpdir();
+        cache = new File(root, "cache");
+    }
+
+    @After
+    public void tearDown() {
+        Files.remove(root);
+    }
+
+    @Test
+    public void testExtractedOnce() throws Exception {
+        final File jar = jar("movies-sources.jar", "io/superbiz/Movie.java", "META-INF/MANIFEST.MF");
+        final String checksum = Hashes.sha1(jar);
+
+        final File extracted = SourceJars.extract(Collections.singletonList(jar), cache);
+        assertEquals(checksum, extracted.getName());
+        assertTrue(new File(extracted, "io/superbiz/Movie.java").isFile());
+        assertFalse(new File(extracted, "META-INF/MANIFEST.MF").exists());
+
+        // the jar is not read again once its sources are in the cache
+        assertTrue(jar.delete());
+        final File marker = new File(extracted, "marker");
+        IO.writeString(marker, "");
+        assertEquals(extracted, SourceJars.extract(Collections.singletonList(jar), Collections.singletonList(checksum), cache));
+        assertTrue(marker.exists());
+    }
+
+    @Test
+    public void testSeveralJarsShareOneDirectory() throws Exception {
+        final File movies = jar("movies-sources.jar", "io/superbiz/Movie.java");
+        final File books = jar("books-sources.jar", "io/superbiz/Book.java");
+
+        final File extracted = SourceJars.extract(Arrays.asList(movies, books), cache);
+        assertEquals(Hashes.sha1(Hashes.sha1(movies) + "\n" + Hashes.sha1(books) + "\n"), extracted.getName());
+        assertTrue(new File(extracted, "io/superbiz/Movie.java").isFile());
+        assertTrue(new File(extracted, "io/superbiz/Book.java").isFile());
+
+        // the temporary extraction directory is gone
+        assertEquals(Collections.singletonList(extracted), Arrays.asList(cache.listFiles()));
+    }
+
+    @Test
+    public void testConcurrentExtractionIsReused() throws Exception {
+        final File from = Files.mkdirs(new File(cache, "abc.123"));
+        IO.writeString(new File(from, "Movie.java"), "class Movie {}");
+        final File to = Files.mkdirs(new File(cache, "abc"));
+        IO.writeString(new File(to, "Movie.java"), "class Movie {}");
+
+        SourceJars.move(from.toPath(), to.toPath());
+        assertTrue(new File(to, "Movie.java").isFile());
+    }
+
+    @Test(expected = IOException.class)
+    public void testFailedMoveIsReported() throws Exception {
+        SourceJars.move(new File(cache, "missing").toPath(), new File(cache, "abc").toPath());
+    }
+
+    @Test
+    public void testEntryOutsideOfTheCacheIsRejected() throws Exception {
+        final File jar = jar("evil-sources.jar", "io/superbiz/Movie.java", "../../Evil.java");
+
+        try {
+            SourceJars.extract(Collections.singletonList(jar), cache);
+            fail("the entry was extracted");
+        } catch (IOException e) {
+            assertTrue(e.getMessage(), e.getMessage().contains("../../Evil.java"));
+        }
+
+        assertFalse(new File(root, "Evil.java").exists());
+        assertEquals(0, cache.listFiles().length);
+    }
+
+    private File jar(final String name, final String... entries) throws IOException {
+        final File jar = new File(root, name);
+        try (final ZipOutputStream out = new ZipOutputStream(new FileOutputStream(jar))) {
+            for (String entry : entries) {
+                out.putNextEntry(new ZipEntry(entry));
+                out.write(("// " + entry + "\n").getBytes(StandardCharsets.UTF_8));
+                out.closeEntry();
+            }
+        }
+        return jar;
+    }
+}
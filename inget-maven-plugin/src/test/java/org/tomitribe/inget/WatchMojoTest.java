@@ -0,0 +1,144 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ *
+ */
+package org.tomitribe.inget;
+
+import org.apache.maven.model.Build;
+import org.apache.maven.project.MavenProject;
+import org.codehaus.plexus.util.ReflectionUtils;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.tomitribe.util.Files;
+import org.tomitribe.util.IO;
+
+import java.io.File;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+public class WatchMojoTest {
+
+    private File sources;
+    private File model;
+    private File resource;
+    private WatchMojo mojo;
+
+    @Before
+    public void setUp() throws Exception {
+        sources = Files.tmpdir();
+        model = Files.mkdirs(new File(sources, "io/superbiz/video/model"));
+        resource = Files.mkdirs(new File(sources, "io/superbiz/video/rest"));
+
+        final MavenProject project = new MavenProject();
+        final Build build = new Build();
+        build.setSourceDirectory(sources.getAbsolutePath());
+        project.setBuild(build);
+
+        mojo = new WatchMojo();
+        set("project", project);
+        set("modelPackage", "io.superbiz.video.model");
+        set("resourcePackage", "io.superbiz.video.rest");
+        set("modelSuffix", "Model");
+        set("generateModel", true);
+        set("generateResources", true);
+        set("generateCli", false);
+    }
+
+    @After
+    public void tearDown() {
+        Files.remove(sources);
+    }
+
+    @Test
+    public void testChangedModel() throws Exception {
+        final File movie = write(model, "MovieModel", "public class MovieModel {\n}\n");
+        write(model, "BookModel", "public class BookModel {\n}\n");
+
+        assertEquals(Collections.singletonList(movie), mojo.changedModels(Collections.singletonList(movie), false));
+    }
+
+    @Test
+    public void testChangedBaseClass() throws Exception {
+        final File audited = write(model, "Audited", "public class Audited {\n}\n");
+        final File movie = write(model, "MovieModel", "public class MovieModel extends Audited {\n}\n");
+        final File book = write(model, "BookModel", "public class BookModel extends Audited {\n}\n");
+        write(model, "ActorModel", "public class ActorModel {\n}\n");
+
+        final List<File> models = mojo.changedModels(Collections.singletonList(audited), false);
+        assertEquals(2, models.size());
+        assertTrue(models.containsAll(Arrays.asList(movie, book)));
+    }
+
+    @Test
+    public void testChangedClassWithCommands() throws Exception {
+        final File address = write(model, "Address", "public class Address {\n}\n");
+        write(model, "MovieModel", "public class MovieModel {\n    private Address address;\n}\n");
+
+        assertEquals(Collections.emptyList(), mojo.changedModels(Collections.singletonList(address), false));
+
+        // the commands expand the fields of the address
+        set("generateCli", true);
+        assertNull(mojo.changedModels(Collections.singletonList(address), false));
+    }
+
+    @Test
+    public void testChangedResource() throws Exception {
+        final File movie = write(model, "MovieModel", "public class MovieModel {\n}\n");
+        final File bean = write(resource, "MovieResourceBean", "public class MovieResourceBean {\n}\n");
+
+        assertNull(mojo.changedModels(Arrays.asList(movie, bean), false));
+    }
+
+    @Test
+    public void testDeleted() throws Exception {
+        final File movie = write(model, "MovieModel", "public class MovieModel {\n}\n");
+
+        assertNull(mojo.changedModels(Collections.singletonList(movie), true));
+    }
+
+    @Test
+    public void testOwnWrite() throws Exception {
+        final File generated = write(resource, "MovieResourceBean", "public class MovieResourceBean {\n}\n");
+        final File other = write(resource, "BookResourceBean", "public class BookResourceBean {\n}\n");
+        mojo.written(Collections.singletonList(generated.getAbsolutePath()));
+
+        assertTrue(mojo.isOwnWrite(generated.toPath()));
+        assertFalse(mojo.isOwnWrite(other.toPath()));
+
+        // written again by the user after the generation
+        assertTrue(generated.setLastModified(generated.lastModified() + 2000));
+        assertFalse(mojo.isOwnWrite(generated.toPath()));
+    }
+
+    private File write(final File folder, final String name, final String content) throws Exception {
+        final String pkg = sources.toPath().relativize(folder.toPath()).toString().replace(File.separatorChar, '.');
+        final File file = new File(folder, name + ".java");
+        IO.writeString(file, "package " + pkg + ";\n\n" + content);
+        return file;
+    }
+
+    private void set(final String field, final Object value) throws Exception {
+        ReflectionUtils.setVariableValueInObject(mojo, field, value);
+    }
+}
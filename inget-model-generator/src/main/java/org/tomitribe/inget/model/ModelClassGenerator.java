@@ -33,8 +33,9 @@ import com.github.javaparser.ast.expr.NormalAnnotationExpr;
 import com.github.javaparser.ast.type.ClassOrInterfaceType;
 import com.github.javaparser.ast.type.Type;
 import com.github.javaparser.ast.type.TypeParameter;
-import org.tomitribe.inget.common.Configuration;
+import org.tomitribe.inget.common.GenerationContext;
 import org.tomitribe.inget.common.ImportManager;
+import org.tomitribe.inget.common.Template;
 import org.tomitribe.inget.common.Utils;
 import org.tomitribe.inget.model.base.ModelTemplates;
 
@@ -46,11 +47,13 @@ import java.util.stream.Collectors;
 
 public class ModelClassGenerator {
 
+    private static final Template RESULT = Template.of(ModelTemplates.RESULT, "%ENTITY", "%FILTER", "%ITEMS_NAME");
+
     private ModelClassGenerator() {
         // no-op
     }
 
-    static CompilationUnit createClass(CompilationUnit rootClassUnit, ClassOrInterfaceDeclaration rootClass,
+    static CompilationUnit createClass(GenerationContext context, CompilationUnit rootClassUnit, ClassOrInterfaceDeclaration rootClass,
                                        String rootClassName, String operation, String classPrefix) throws IOException {
         final CompilationUnit newClassCompilationUnit = new CompilationUnit(rootClassUnit.getPackageDeclaration().get().getName().toString());
         final String className = classPrefix + rootClassName;
@@ -76,10 +79,10 @@ public class ModelClassGenerator {
             newClass.addAnnotation(schema.get());
         }
 
-        handleExtendedClasses(rootClassUnit, rootClass, operation, newClass, classPrefix);
+        handleExtendedClasses(context, rootClassUnit, rootClass, operation, newClass, classPrefix);
 
         rootClass.getFields().stream().forEach(f -> {
-            handleField(operation, rootClassUnit, newClass, f, classPrefix);
+            handleField(context, operation, rootClassUnit, newClass, f, classPrefix);
         });
 
         Utils.addImports(rootClassUnit, newClassCompilationUnit);
@@ -87,7 +90,7 @@ public class ModelClassGenerator {
         return newClassCompilationUnit;
     }
 
-    private static void handleExtendedClasses(CompilationUnit rootClassUnit, ClassOrInterfaceDeclaration rootClass,
+    private static void handleExtendedClasses(GenerationContext context, CompilationUnit rootClassUnit, ClassOrInterfaceDeclaration rootClass,
                                               String operation, ClassOrInterfaceDeclaration newClass, String prefix)
             throws IOException {
 
@@ -95,10 +98,10 @@ public class ModelClassGenerator {
         while (extendedTypes.size() > 0) {
             for (ClassOrInterfaceType et : extendedTypes) {
                 ClassOrInterfaceDeclaration extendedClass =
-                        Utils.getExtendedClass(rootClassUnit, et.getNameAsString());
+                        Utils.getExtendedClass(context, rootClassUnit, et.getNameAsString());
 
                 extendedClass.getFields().forEach(f -> {
-                    handleField(operation, rootClassUnit, newClass, f, prefix);
+                    handleField(context, operation, rootClassUnit, newClass, f, prefix);
                 });
                 Utils.addImports(extendedClass.findCompilationUnit().get(), newClass.findCompilationUnit().get());
                 extendedTypes = extendedClass.getExtendedTypes();
@@ -106,13 +109,13 @@ public class ModelClassGenerator {
         }
     }
 
-    private static void handleField(String operation, CompilationUnit unit, ClassOrInterfaceDeclaration newClass,
+    private static void handleField(GenerationContext context, String operation, CompilationUnit unit, ClassOrInterfaceDeclaration newClass,
                                     FieldDeclaration f, String prefix) {
 
         FieldDeclaration newField = f.clone();
         if (!newField.getAnnotationByName("Model").isPresent() ||
                 !Utils.hasOperations(newField) || Utils.isOperationPresent(newField, operation)) {
-            handleExpandableField(newField, prefix, unit);
+            handleExpandableField(context, newField, prefix, unit);
             newClass.addMember(newField);
         }
 
@@ -123,19 +126,19 @@ public class ModelClassGenerator {
     }
 
 
-    private static void handleExpandableField(FieldDeclaration field, String prefix, CompilationUnit unit) {
+    private static void handleExpandableField(GenerationContext context, FieldDeclaration field, String prefix, CompilationUnit unit) {
         VariableDeclarator variable = field.getVariables().stream().findFirst().get();
-        boolean isExpandable = variable.getTypeAsString().contains(Configuration.modelSuffix);
+        boolean isExpandable = variable.getTypeAsString().contains(context.getModelSuffix());
         if (isExpandable) {
             String end = variable.getTypeAsString();
             String entityBefore = variable.getTypeAsString();
             String entityAfter;
             if (variable.getTypeAsString().contains("<")) {
                 entityBefore = end.substring(end.indexOf("<") + 1, end.indexOf(">"));
-                entityAfter = prefix + entityBefore.replace(Configuration.modelSuffix, "");
+                entityAfter = prefix + entityBefore.replace(context.getModelSuffix(), "");
                 end = end.replace(entityBefore, entityAfter);
             } else {
-                end = prefix + end.replace(Configuration.modelSuffix, "");
+                end = prefix + end.replace(context.getModelSuffix(), "");
                 entityAfter = end;
             }
             variable.setType(end);
@@ -152,7 +155,7 @@ public class ModelClassGenerator {
         }
     }
 
-    static CompilationUnit createListClass(CompilationUnit rootClassUnit, ClassOrInterfaceDeclaration rootClass,
+    static CompilationUnit createListClass(GenerationContext context, CompilationUnit rootClassUnit, ClassOrInterfaceDeclaration rootClass,
                                            String rootClassName, CompilationUnit filterClassUnit,
                                            CompilationUnit summaryClassUnit, String listClassName) throws IOException {
         if (!rootClass.getAnnotationByName("Resource").isPresent()) {
@@ -172,22 +175,19 @@ public class ModelClassGenerator {
             filterName = Utils.getClazz(filterClassUnit).getNameAsString();
         }
 
-        String resultTextClass = ModelTemplates.RESULT
-                .replaceAll("%ENTITY", summaryClassValue)
-                .replaceAll("%FILTER", filterName)
-                .replaceAll("%ITEMS_NAME", listClassName.toLowerCase());
+        String resultTextClass = RESULT.apply(summaryClassValue, filterName, listClassName.toLowerCase());
 
         CompilationUnit newClassCompilationUnit = JavaParser.parse(resultTextClass);
         newClassCompilationUnit.setPackageDeclaration(rootClassUnit.getPackageDeclaration().get().getNameAsString());
 
         Utils.addLicense(rootClassUnit, newClassCompilationUnit);
         if (importDefault) {
-            newClassCompilationUnit.addImport(Configuration.modelPackage + ".base.filter.DefaultFilter");
+            newClassCompilationUnit.addImport(context.getModelPackage() + ".base.filter.DefaultFilter");
         }
         return newClassCompilationUnit;
     }
 
-    static CompilationUnit createFilterClass(ClassOrInterfaceDeclaration rootClass, CompilationUnit rootClassUnit, String filterClassName) {
+    static CompilationUnit createFilterClass(GenerationContext context, ClassOrInterfaceDeclaration rootClass, CompilationUnit rootClassUnit, String filterClassName) {
         List<FieldDeclaration> filterFields = rootClass.getFields().stream()
                 .filter(f -> {
                     Optional<AnnotationExpr> modelAnnotationOptional = f.getAnnotationByName("Model");
@@ -211,7 +211,7 @@ public class ModelClassGenerator {
         filterClassCompilationUnit.addClass(filterClassName, Modifier.PUBLIC);
         final ClassOrInterfaceDeclaration filterClass = filterClassCompilationUnit.getClassByName(filterClassName).get();
         filterClass.addExtendedType("DefaultFilter");
-        filterClassCompilationUnit.addImport(Configuration.modelPackage + ".base.filter.DefaultFilter");
+        filterClassCompilationUnit.addImport(context.getModelPackage() + ".base.filter.DefaultFilter");
         filterClass.addMarkerAnnotation("Builder");
         filterClassCompilationUnit.addImport(ImportManager.getImport("Builder"));
         filterClass.addMarkerAnnotation("ToString");
@@ -255,7 +255,8 @@ public class ModelClassGenerator {
         return filterClassCompilationUnit;
     }
 
-    static CompilationUnit createBulkClass(CompilationUnit rootClassUnit, ClassOrInterfaceDeclaration rootClass, String rootClassName, String bulkClassName) throws IOException {
+    static CompilationUnit createBulkClass(GenerationContext context, CompilationUnit rootClassUnit, ClassOrInterfaceDeclaration rootClass,
+                                           String rootClassName, String bulkClassName) throws IOException {
         if (!rootClass.getAnnotationByName("Resource").isPresent()) {
             return null;
         }
@@ -283,13 +284,13 @@ public class ModelClassGenerator {
         fieldSchema.addPair("description", "\"The " + paramName + " that failed in the bulk operation.\"");
         FieldDeclaration fieldDeclaration = newClass.addField(new TypeParameter("List<Failure>"), paramName, Modifier.PRIVATE);
         fieldDeclaration.addAnnotation(fieldSchema);
-        newClassCompilationUnit.addImport(Configuration.modelPackage + ".base.bulk.Failure");
+        newClassCompilationUnit.addImport(context.getModelPackage() + ".base.bulk.Failure");
         newClassCompilationUnit.addImport(ImportManager.getImport("List"));
 
         return newClassCompilationUnit;
     }
 
-    public static CompilationUnit createSummaryClass(ClassOrInterfaceDeclaration rootClass, CompilationUnit rootClassUnit, String summaryClassName) {
+    public static CompilationUnit createSummaryClass(GenerationContext context, ClassOrInterfaceDeclaration rootClass, CompilationUnit rootClassUnit, String summaryClassName) {
         List<FieldDeclaration> summaryFields = rootClass.getFields().stream()
                 .filter(f -> {
                     Optional<AnnotationExpr> modelAnnotationOptional = f.getAnnotationByName("Model");
@@ -320,7 +321,7 @@ public class ModelClassGenerator {
         summaryUnit.addImport(ImportManager.getImport("AllArgsConstructor"));
         Utils.addLicense(rootClassUnit, summaryUnit);
 
-        String rootClassName = Utils.getRootName(Utils.getClazz(rootClassUnit));
+        String rootClassName = Utils.getRootName(context, Utils.getClazz(rootClassUnit));
         String schemaDescription = "Summary of the search for " + Utils.toPlural(rootClassName);
         NormalAnnotationExpr classSchema = new NormalAnnotationExpr();
         classSchema.setName("Schema");
@@ -340,25 +341,25 @@ public class ModelClassGenerator {
         return summaryUnit;
     }
 
-    public static void createBaseClasses() throws IOException {
-        String outputBasePackage = Configuration.modelPackage + ".base";
-        createFailureClass(outputBasePackage);
-        createDefaultFilterClass(outputBasePackage);
+    public static void createBaseClasses(final GenerationContext context) throws IOException {
+        String outputBasePackage = context.getModelPackage() + ".base";
+        createFailureClass(context, outputBasePackage);
+        createDefaultFilterClass(context, outputBasePackage);
     }
 
-    private static void createFailureClass(String outputBasePackage) throws IOException {
+    private static void createFailureClass(GenerationContext context, String outputBasePackage) throws IOException {
         String pkg = outputBasePackage + ".bulk";
         CompilationUnit content = JavaParser.parse(ModelTemplates.FAILURE);
         content.setPackageDeclaration(pkg);
         Utils.addGeneratedAnnotation(content, Utils.getClazz(content), null, ModelClassGenerator.class);
-        Utils.save("Failure.java", pkg, content.toString());
+        Utils.save(context, "Failure.java", pkg, content);
     }
 
-    private static void createDefaultFilterClass(String outputBasePackage) throws IOException {
+    private static void createDefaultFilterClass(GenerationContext context, String outputBasePackage) throws IOException {
         String pkg = outputBasePackage + ".filter";
         CompilationUnit content = JavaParser.parse(ModelTemplates.DEFAULT_FILTER);
         content.setPackageDeclaration(pkg);
         Utils.addGeneratedAnnotation(content, Utils.getClazz(content), null, ModelClassGenerator.class);
-        Utils.save("DefaultFilter.java", pkg, content.toString());
+        Utils.save(context, "DefaultFilter.java", pkg, content);
     }
 }
\ No newline at end of file
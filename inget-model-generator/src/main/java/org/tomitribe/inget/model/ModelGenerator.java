@@ -19,20 +19,18 @@
 
 package org.tomitribe.inget.model;
 
-import com.github.javaparser.JavaParser;
 import com.github.javaparser.ast.CompilationUnit;
 import com.github.javaparser.ast.body.ClassOrInterfaceDeclaration;
-import com.google.googlejavaformat.java.RemoveUnusedImports;
+import org.tomitribe.inget.common.GenerationContext;
 import org.tomitribe.inget.common.Operation;
-import org.tomitribe.inget.common.Reformat;
-import org.tomitribe.inget.common.RemoveDuplicateImports;
+import org.tomitribe.inget.common.Parallel;
+import org.tomitribe.inget.common.Timings;
 import org.tomitribe.inget.common.Utils;
 import org.tomitribe.util.IO;
 
 import java.io.File;
 import java.io.IOException;
 import java.util.List;
-import java.util.stream.Stream;
 
 import static org.tomitribe.inget.common.Utils.getClassOperations;
 import static org.tomitribe.inget.common.Utils.getClazz;
@@ -49,77 +47,86 @@ public class ModelGenerator {
     static final String UPDATE_PREFIX = "Update";
     static final String READ_PREFIX = "";
 
-    public static void execute() throws IOException {
-        List<File> modelFiles = getModel();
-
-        ModelClassGenerator.createBaseClasses();
-
-        for (File rootClassFile : modelFiles) {
-            final String rootClassSource = IO.slurp(rootClassFile);
-            final CompilationUnit rootClassUnit = JavaParser.parse(rootClassSource);
-            ClassOrInterfaceDeclaration rootClass = getClazz(rootClassUnit);
-            if (rootClass != null) {
-                final String rootClassName = getRootName(getClazz(rootClassUnit));
-                List<String> classOperations = getClassOperations(rootClass);
-
-                CompilationUnit createUnit = null;
-                CompilationUnit updateUnit = null;
+    public static void execute(final GenerationContext context) throws IOException {
+        context.getSourceIndex().reset();
+        generate(context, getModel(context));
+    }
 
-                String summaryClassName = rootClassName + "Summary";
-                CompilationUnit summaryUnit = ModelClassGenerator.createSummaryClass(rootClass, rootClassUnit, summaryClassName);
-                save(summaryClassName, rootClassUnit, summaryUnit);
+    /**
+     * Generates the classes of the given model files only.
+     */
+    public static void execute(final GenerationContext context, final List<File> modelFiles) throws IOException {
+        context.getSourceIndex().reset();
+        generate(context, modelFiles);
+    }
 
-                String filterClassName = rootClassName + "Filter";
-                CompilationUnit filterUnit = ModelClassGenerator.createFilterClass(rootClass, rootClassUnit, filterClassName);
-                save(filterClassName, rootClassUnit, filterUnit);
+    private static void generate(final GenerationContext context, final List<File> modelFiles) throws IOException {
+        ModelClassGenerator.createBaseClasses(context);
 
-                if (classOperations == null || classOperations.contains(Operation.READ_ALL)) {
-                    String listClassName = Utils.toPlural(rootClassName);
-                    CompilationUnit listUnit = ModelClassGenerator.createListClass(rootClassUnit, rootClass, rootClassName, filterUnit, summaryUnit, listClassName);
-                    if (listUnit != null) {
-                        save(rootClassName + "Result", rootClassUnit, listUnit);
-                    }
-                }
+        Parallel.forEach(context.getThreads(), modelFiles,
+                context.getTimings().bySource("generate.model", file -> generate(context, file)));
+    }
 
-                if(classOperations == null ||
-                        classOperations.contains(Operation.BULK_CREATE) ||
-                        classOperations.contains(Operation.BULK_UPDATE) ||
-                        classOperations.contains(Operation.BULK_DELETE)){
-                    String bulkClassName = "Bulk" + rootClassName + "Result";
-                    CompilationUnit bulkUnit = ModelClassGenerator.createBulkClass(rootClassUnit, rootClass, rootClassName, bulkClassName);
-                    if (bulkUnit != null) {
-                        save(bulkClassName, rootClassUnit, bulkUnit);
-                    }
+    private static void generate(final GenerationContext context, final File rootClassFile) throws IOException {
+        final String rootClassSource = IO.slurp(rootClassFile);
+        final long start = Timings.start();
+        final CompilationUnit rootClassUnit = context.parse(rootClassSource);
+        context.getTimings().stop("parse", start);
+        ClassOrInterfaceDeclaration rootClass = getClazz(rootClassUnit);
+        if (rootClass != null) {
+            final String rootClassName = getRootName(context, getClazz(rootClassUnit));
+            List<String> classOperations = getClassOperations(rootClass);
+
+            CompilationUnit createUnit = null;
+            CompilationUnit updateUnit = null;
+
+            String summaryClassName = rootClassName + "Summary";
+            CompilationUnit summaryUnit = ModelClassGenerator.createSummaryClass(context, rootClass, rootClassUnit, summaryClassName);
+            save(context, summaryClassName, rootClassUnit, summaryUnit);
+
+            String filterClassName = rootClassName + "Filter";
+            CompilationUnit filterUnit = ModelClassGenerator.createFilterClass(context, rootClass, rootClassUnit, filterClassName);
+            save(context, filterClassName, rootClassUnit, filterUnit);
+
+            if (classOperations == null || classOperations.contains(Operation.READ_ALL)) {
+                String listClassName = Utils.toPlural(rootClassName);
+                CompilationUnit listUnit = ModelClassGenerator.createListClass(context, rootClassUnit, rootClass, rootClassName, filterUnit, summaryUnit, listClassName);
+                if (listUnit != null) {
+                    save(context, rootClassName + "Result", rootClassUnit, listUnit);
                 }
+            }
 
-                if (classOperations == null || classOperations.contains(Operation.CREATE)) {
-                    createUnit = ModelClassGenerator.createClass(rootClassUnit, rootClass, rootClassName, Operation.CREATE, CREATE_PREFIX);
-                    save(CREATE_PREFIX + rootClassName, rootClassUnit, createUnit);
+            if(classOperations == null ||
+                    classOperations.contains(Operation.BULK_CREATE) ||
+                    classOperations.contains(Operation.BULK_UPDATE) ||
+                    classOperations.contains(Operation.BULK_DELETE)){
+                String bulkClassName = "Bulk" + rootClassName + "Result";
+                CompilationUnit bulkUnit = ModelClassGenerator.createBulkClass(context, rootClassUnit, rootClass, rootClassName, bulkClassName);
+                if (bulkUnit != null) {
+                    save(context, bulkClassName, rootClassUnit, bulkUnit);
                 }
+            }
 
-                if (classOperations == null || classOperations.contains(Operation.UPDATE)) {
-                    updateUnit = ModelClassGenerator.createClass(rootClassUnit, rootClass, rootClassName, Operation.UPDATE, UPDATE_PREFIX);
-                    save(UPDATE_PREFIX + rootClassName, rootClassUnit, updateUnit);
-                }
+            if (classOperations == null || classOperations.contains(Operation.CREATE)) {
+                createUnit = ModelClassGenerator.createClass(context, rootClassUnit, rootClass, rootClassName, Operation.CREATE, CREATE_PREFIX);
+                save(context, CREATE_PREFIX + rootClassName, rootClassUnit, createUnit);
+            }
 
-                CompilationUnit readUnit = ModelClassGenerator.createClass(rootClassUnit, rootClass, rootClassName, Operation.READ, READ_PREFIX);
-                readUnit = ModelMethodGenerator.createMethods(rootClassName, rootClassUnit, createUnit, updateUnit, readUnit, classOperations);
-                save(READ_PREFIX + rootClassName, rootClassUnit, readUnit);
+            if (classOperations == null || classOperations.contains(Operation.UPDATE)) {
+                updateUnit = ModelClassGenerator.createClass(context, rootClassUnit, rootClass, rootClassName, Operation.UPDATE, UPDATE_PREFIX);
+                save(context, UPDATE_PREFIX + rootClassName, rootClassUnit, updateUnit);
             }
 
+            CompilationUnit readUnit = ModelClassGenerator.createClass(context, rootClassUnit, rootClass, rootClassName, Operation.READ, READ_PREFIX);
+            readUnit = ModelMethodGenerator.createMethods(rootClassName, rootClassUnit, createUnit, updateUnit, readUnit, classOperations);
+            save(context, READ_PREFIX + rootClassName, rootClassUnit, readUnit);
         }
     }
 
-    public static void save(String className, CompilationUnit rootClassUnit, CompilationUnit classToBeSaved) throws IOException {
+    public static void save(GenerationContext context, String className, CompilationUnit rootClassUnit, CompilationUnit classToBeSaved) throws IOException {
         if (classToBeSaved == null) {
             return;
         }
-        String modified = Stream.of(classToBeSaved.toString())
-                .map(RemoveDuplicateImports::apply)
-                .map(Reformat::apply)
-                .map(RemoveUnusedImports::removeUnusedImports)
-                .findFirst().get();
-
-        Utils.save(className + ".java", rootClassUnit.getPackageDeclaration().get().getName().toString(), modified);
+        Utils.save(context, className + ".java", rootClassUnit.getPackageDeclaration().get().getName().toString(), classToBeSaved);
     }
 }
\ No newline at end of file
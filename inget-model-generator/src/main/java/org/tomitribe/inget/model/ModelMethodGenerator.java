@@ -26,6 +26,7 @@ import com.github.javaparser.ast.body.FieldDeclaration;
 import com.github.javaparser.ast.body.MethodDeclaration;
 import com.github.javaparser.ast.body.VariableDeclarator;
 import org.tomitribe.inget.common.Operation;
+import org.tomitribe.inget.common.Template;
 import org.tomitribe.inget.common.Utils;
 
 import java.util.List;
@@ -33,6 +34,18 @@ import java.util.Optional;
 
 public class ModelMethodGenerator {
 
+    private static final Template DELETE = Template.of("public String toDelete() {return this.%field;}", "%field");
+
+    private static final Template BUILDER = Template.of(
+            "public static %classname.%prefix %methodname(){return %classname.builder();}",
+            "%classname", "%methodname", "%prefix");
+
+    private static final Template CONVERSION = Template.of(
+            "public %classname.%prefix to%prefix() {return %classname.builder()",
+            "%classname", "%prefix");
+
+    private static final Template PROPERTY = Template.of(".%property(this.%property)", "%property");
+
     private ModelMethodGenerator() {
         // no-op
     }
@@ -68,15 +81,10 @@ public class ModelMethodGenerator {
     static void addDeleteMethod(CompilationUnit rootUnit, ClassOrInterfaceDeclaration readClass) {
         ClassOrInterfaceDeclaration rootClass = Utils.getClazz(rootUnit);
         List<FieldDeclaration> fields = rootClass.getFields();
-        StringBuilder methodBuilder = new StringBuilder();
-        methodBuilder.append("public String toDelete() {");
-        methodBuilder.append("return this.%field;");
-        methodBuilder.append("}");
 
         Optional<FieldDeclaration> id = fields.stream().filter(f -> Utils.isId(f)).findFirst();
         if (id.isPresent()) {
-            final String result = methodBuilder.toString()
-                    .replaceAll("%field", id.get().getVariables().stream().findFirst().get().getNameAsString());
+            final String result = DELETE.apply(id.get().getVariables().stream().findFirst().get().getNameAsString());
             MethodDeclaration methodDeclaration = JavaParser.parseBodyDeclaration(result).asMethodDeclaration();
             readClass.addMember(methodDeclaration);
         }
@@ -84,38 +92,27 @@ public class ModelMethodGenerator {
 
     static void addBuilderMethods(CompilationUnit classToBeBuiltUnit, ClassOrInterfaceDeclaration readClass, String prefix) {
         ClassOrInterfaceDeclaration classToBeBuilt = Utils.getClazz(classToBeBuiltUnit);
-        StringBuilder methodBuilder = new StringBuilder();
-        methodBuilder.append("public static %classname.%prefix %methodname(){");
-        methodBuilder.append("return %classname.builder();");
-        methodBuilder.append("}");
-        final String result = methodBuilder.toString()
-                .replaceAll("%classname", classToBeBuilt.getNameAsString())
-                .replaceAll("%methodname", prefix.toLowerCase())
-                .replaceAll("%prefix", prefix);
+        final String result = BUILDER.apply(classToBeBuilt.getNameAsString(), prefix.toLowerCase(), prefix);
         MethodDeclaration methodDeclaration = JavaParser.parseBodyDeclaration(result).asMethodDeclaration();
         readClass.addMember(methodDeclaration);
     }
 
     static void addConversionMethod(CompilationUnit classToBeConvertedUnit, ClassOrInterfaceDeclaration readClass, String prefix) {
-        final StringBuilder methodBuilder = new StringBuilder();
-        methodBuilder.append("public %classname.%prefix to%prefix() {");
-        methodBuilder.append("return %classname.builder()");
         ClassOrInterfaceDeclaration classToBeConverted = Utils.getClazz(classToBeConvertedUnit);
+        final StringBuilder methodBuilder = new StringBuilder();
+        methodBuilder.append(CONVERSION.apply(classToBeConverted.getNameAsString(), prefix));
         classToBeConverted.getFields().stream().forEach(f -> {
             VariableDeclarator fieldClassToBeConverted = f.getVariables().stream().findFirst().get();
             String propertyName = fieldClassToBeConverted.getNameAsString();
             String typeName = fieldClassToBeConverted.getTypeAsString();
             Optional<FieldDeclaration> readField = readClass.getFieldByName(propertyName);
             if (readField.isPresent() && readField.get().getCommonType().asString().equals(typeName)) {
-                methodBuilder.append(".%property(this.%property)".replaceAll("%property", propertyName));
+                methodBuilder.append(PROPERTY.apply(propertyName));
             }
         });
         methodBuilder.append(";");
         methodBuilder.append("\n}");
-        final String result = methodBuilder.toString()
-                .replaceAll("%classname", classToBeConverted.getNameAsString())
-                .replaceAll("%prefix", prefix);
-        MethodDeclaration methodDeclaration = JavaParser.parseBodyDeclaration(result).asMethodDeclaration();
+        MethodDeclaration methodDeclaration = JavaParser.parseBodyDeclaration(methodBuilder.toString()).asMethodDeclaration();
         readClass.addMember(methodDeclaration);
     }
 }
\ No newline at end of file
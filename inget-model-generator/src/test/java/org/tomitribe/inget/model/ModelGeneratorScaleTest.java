@@ -0,0 +1,115 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ *
+ */
+package org.tomitribe.inget.model;
+
+import org.junit.Test;
+import org.tomitribe.inget.common.GenerationContext;
+import org.tomitribe.inget.test.CleanOnExit;
+import org.tomitribe.inget.test.CorpusGenerator;
+import org.tomitribe.util.Files;
+
+import java.io.File;
+import java.util.List;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * Runs the model generation on a synthetic corpus. The size and the budgets can be raised
+ * from the command line, e.g. -Dscale.models=10000 -Dscale.seconds=600 -Dscale.heapMb=2048
+ * -Dscale.streamingModels=1000
+ */
+public class ModelGeneratorScaleTest {
+
+    @Test
+    public void testScale() throws Exception {
+        generate(GenerationContext.builder(), Integer.getInteger("scale.models", 10));
+    }
+
+    /**
+     * The generated types stay registered for type resolution until the generation is over,
+     * streaming keeps the ASTs they retain bounded by the budget instead of the corpus size.
+     */
+    @Test
+    public void testScaleStreaming() throws Exception {
+        final int models = Integer.getInteger("scale.streamingModels", 40);
+        final int budget = 16;
+
+        final GenerationContext streaming = generate(GenerationContext.builder().streaming(true).astCacheSize(budget), models);
+        assertTrue(streaming.getTypeSolver().generated().toString(), streaming.getTypeSolver().generated().size() <= budget);
+        assertTrue(streaming.getTypeSolver().get().toString(), streaming.getTypeSolver().get().getSolved() <= budget);
+
+        final GenerationContext full = generate(GenerationContext.builder(), models);
+        assertTrue(full.getTypeSolver().generated().toString(), full.getTypeSolver().generated().size() > budget);
+    }
+
+    private GenerationContext generate(final GenerationContext.Builder builder, final int models) throws Exception {
+        final long seconds = Long.getLong("scale.seconds", 120);
+        final long heapMb = Long.getLong("scale.heapMb", 256);
+
+        final File input = Files.tmpdir();
+        final File actual = Files.tmpdir();
+        final File tempSource = Files.tmpdir();
+
+        CorpusGenerator.models(models)
+                .fields(8)
+                .references(2)
+                .inheritance(2)
+                .filters(2)
+                .summaries(2)
+                .operations(true)
+                .write(input);
+
+        final GenerationContext context = builder
+                .modelSources(input.getAbsolutePath())
+                .generatedSources(actual.getAbsolutePath())
+                .modelPackage("io.superbiz.video.model")
+                .modelSuffix("Model")
+                .tempSource(tempSource.getAbsolutePath())
+                .build();
+
+        final long before = usedHeap();
+        final long start = System.nanoTime();
+
+        ModelGenerator.execute(context);
+
+        final long elapsed = System.nanoTime() - start;
+        final long retained = usedHeap() - before;
+
+        // every fourth model starting with the second one is read only
+        final List<File> created = Files.collect(actual, ".*/CreateEntity[0-9]+\\.java$");
+        assertEquals(models - (models + 2) / 4, created.size());
+
+        assertTrue("Generation of " + models + " models took " + elapsed / 1000000 + "ms",
+                elapsed / 1000000000 < seconds);
+        assertTrue("Generation of " + models + " models retained " + retained / (1024 * 1024) + "MB",
+                retained / (1024 * 1024) < heapMb);
+
+        CleanOnExit.delete(input);
+        CleanOnExit.delete(actual);
+        CleanOnExit.delete(tempSource);
+        return context;
+    }
+
+    private static long usedHeap() {
+        final Runtime runtime = Runtime.getRuntime();
+        System.gc();
+        return runtime.totalMemory() - runtime.freeMemory();
+    }
+}
@@ -19,9 +19,18 @@
 package org.tomitribe.inget.model;
 
 import org.junit.Test;
-import org.tomitribe.inget.common.Configuration;
+import org.tomitribe.inget.common.Format;
+import org.tomitribe.inget.common.GenerationContext;
 import org.tomitribe.inget.test.Resources;
+import org.tomitribe.util.Files;
+import org.tomitribe.util.IO;
 
+import java.io.File;
+import java.util.Map;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
 import static org.tomitribe.inget.test.Scenarios.assertFiles;
 
 public class ModelGeneratorTest {
@@ -30,17 +39,16 @@ public class ModelGeneratorTest {
     public void testExecute() throws Exception {
         final Resources movies = Resources.name("movies");
 
-        Configuration.modelSources = movies.input().getAbsolutePath();
-        Configuration.generatedSources = movies.actual().getAbsolutePath();
-        Configuration.modelPackage = "io.superbiz.video.model";
-        Configuration.resourcePackage = null;
-        Configuration.clientName = null;
-        Configuration.resourceSuffix = null;
-        Configuration.modelSuffix = "Model";
-        Configuration.tempSource = movies.tempSource().getAbsolutePath();
+        final GenerationContext context = GenerationContext.builder()
+                .modelSources(movies.input().getAbsolutePath())
+                .generatedSources(movies.actual().getAbsolutePath())
+                .modelPackage("io.superbiz.video.model")
+                .modelSuffix("Model")
+                .tempSource(movies.tempSource().getAbsolutePath())
+                .build();
 
         // do the magic
-        ModelGenerator.execute();
+        ModelGenerator.execute(context);
 
         // check the magic
         assertFiles(movies.expected(".*\\.java$"), movies.actual(".*\\.java$"));
@@ -50,18 +58,16 @@ public class ModelGeneratorTest {
     public void testCustomPackage() throws Exception {
         final Resources movies = Resources.name("custom-package");
 
-        Configuration.modelSources = movies.input().getAbsolutePath();
-        Configuration.resourceSources = null;
-        Configuration.generatedSources = movies.actual().getAbsolutePath();
-        Configuration.modelPackage = "io.superbiz.video.dao";
-        Configuration.resourcePackage = null;
-        Configuration.clientName = null;
-        Configuration.resourceSuffix = null;
-        Configuration.modelSuffix = "Model";
-        Configuration.tempSource = movies.tempSource().getAbsolutePath();
+        final GenerationContext context = GenerationContext.builder()
+                .modelSources(movies.input().getAbsolutePath())
+                .generatedSources(movies.actual().getAbsolutePath())
+                .modelPackage("io.superbiz.video.dao")
+                .modelSuffix("Model")
+                .tempSource(movies.tempSource().getAbsolutePath())
+                .build();
 
         // do the magic
-        ModelGenerator.execute();
+        ModelGenerator.execute(context);
 
         // check the magic
         assertFiles(movies.expected(".*\\.java$"), movies.actual(".*\\.java$"));
@@ -71,21 +77,113 @@ public class ModelGeneratorTest {
     public void testCustomSuffix() throws Exception {
         final Resources movies = Resources.name("custom-suffix");
 
-        Configuration.modelSources = movies.input().getAbsolutePath();
-        Configuration.resourceSources = null;
-        Configuration.generatedSources = movies.actual().getAbsolutePath();
-        Configuration.modelPackage = "io.superbiz.video.dao";
-        Configuration.resourcePackage = null;
-        Configuration.clientName = null;
-        Configuration.resourceSuffix = null;
-        Configuration.modelSuffix = "Dao";
-        Configuration.tempSource = movies.tempSource().getAbsolutePath();
+        final GenerationContext context = GenerationContext.builder()
+                .modelSources(movies.input().getAbsolutePath())
+                .generatedSources(movies.actual().getAbsolutePath())
+                .modelPackage("io.superbiz.video.dao")
+                .modelSuffix("Dao")
+                .tempSource(movies.tempSource().getAbsolutePath())
+                .build();
 
         // do the magic
-        ModelGenerator.execute();
+        ModelGenerator.execute(context);
 
         // check the magic
         assertFiles(movies.expected(".*\\.java$"), movies.actual(".*\\.java$"));
     }
 
+    @Test
+    public void testParallel() throws Exception {
+        final Resources movies = Resources.name("movies");
+
+        final GenerationContext context = GenerationContext.builder()
+                .modelSources(movies.input().getAbsolutePath())
+                .generatedSources(movies.actual().getAbsolutePath())
+                .modelPackage("io.superbiz.video.model")
+                .modelSuffix("Model")
+                .tempSource(movies.tempSource().getAbsolutePath())
+                .threads(4)
+                .build();
+
+        ModelGenerator.execute(context);
+
+        assertFiles(movies.expected(".*\\.java$"), movies.actual(".*\\.java$"));
+    }
+
+    @Test
+    public void testModelAddedAndDeletedBetweenRuns() throws Exception {
+        final Resources movies = Resources.name("movies");
+        final File sources = Files.tmpdir();
+        final File models = Files.mkdirs(new File(sources, "io/superbiz/video/model"));
+        final File generated = new File(movies.actual(), "io/superbiz/video/model");
+        for (final File model : new File(movies.input(), "io/superbiz/video/model").listFiles()) {
+            IO.copy(model, new File(models, model.getName()));
+        }
+
+        final GenerationContext context = GenerationContext.builder()
+                .modelSources(sources.getAbsolutePath())
+                .generatedSources(movies.actual().getAbsolutePath())
+                .modelPackage("io.superbiz.video.model")
+                .modelSuffix("Model")
+                .tempSource(movies.tempSource().getAbsolutePath())
+                .build();
+
+        ModelGenerator.execute(context);
+        assertTrue(new File(generated, "Movie.java").exists());
+        assertFalse(new File(generated, "Book.java").exists());
+
+        // a model added after the first run is generated by the next one
+        final File book = new File(models, "BookModel.java");
+        IO.writeString(book, "package io.superbiz.video.model;\n" +
+                "\n" +
+                "import org.tomitribe.inget.api.Model;\n" +
+                "\n" +
+                "@Model\n" +
+                "class BookModel {\n" +
+                "    @Model(id = true, operation = Model.Operation.READ)\n" +
+                "    private String id;\n" +
+                "    private String title;\n" +
+                "}\n");
+
+        ModelGenerator.execute(context);
+        assertTrue(new File(generated, "Book.java").exists());
+        assertTrue(new File(generated, "CreateBook.java").exists());
+
+        // and a deleted one is no longer read
+        Files.remove(book);
+        Files.remove(new File(generated, "Book.java"));
+
+        ModelGenerator.execute(context);
+        assertFalse(new File(generated, "Book.java").exists());
+        assertTrue(new File(generated, "Movie.java").exists());
+    }
+
+    @Test
+    public void testFastFormat() throws Exception {
+        final Resources movies = Resources.name("movies");
+
+        final GenerationContext context = GenerationContext.builder()
+                .modelSources(movies.input().getAbsolutePath())
+                .generatedSources(movies.actual().getAbsolutePath())
+                .modelPackage("io.superbiz.video.model")
+                .modelSuffix("Model")
+                .tempSource(movies.tempSource().getAbsolutePath())
+                .format(Format.FAST)
+                .build();
+
+        ModelGenerator.execute(context);
+
+        // same classes, only the layout differs
+        final Map<String, File> expected = movies.expected(".*\\.java$");
+        final Map<String, File> actual = movies.actual(".*\\.java$");
+        assertEquals(expected.keySet(), actual.keySet());
+        for (final Map.Entry<String, File> file : actual.entrySet()) {
+            assertEquals(file.getKey(), withoutWhitespace(IO.slurp(expected.get(file.getKey()))), withoutWhitespace(IO.slurp(file.getValue())));
+        }
+    }
+
+    private static String withoutWhitespace(final String source) {
+        return source.replaceAll("\\s+", "");
+    }
+
 }
\ No newline at end of file
@@ -19,7 +19,7 @@
 package org.tomitribe.inget.model;
 
 import org.junit.Test;
-import org.tomitribe.inget.common.Configuration;
+import org.tomitribe.inget.common.GenerationContext;
 import org.tomitribe.inget.test.Resources;
 
 import static org.tomitribe.inget.test.Scenarios.assertFiles;
@@ -63,16 +63,17 @@ public class OperationBulkUpdateTest {
                         "    private int rating;\n" +
                         "}\n");
 
-        Configuration.clean();
-        Configuration.modelSources = resources.input().getAbsolutePath();
-        Configuration.resourceSources = resources.input().getAbsolutePath();
-        Configuration.generatedSources = resources.actual().getAbsolutePath();
-        Configuration.modelPackage = "io.superbiz.video.model";
-        Configuration.modelSuffix = "Model";
-        Configuration.tempSource = resources.tempSource().getAbsolutePath();
+        final GenerationContext context = GenerationContext.builder()
+                .modelSources(resources.input().getAbsolutePath())
+                .resourceSources(resources.input().getAbsolutePath())
+                .generatedSources(resources.actual().getAbsolutePath())
+                .modelPackage("io.superbiz.video.model")
+                .modelSuffix("Model")
+                .tempSource(resources.tempSource().getAbsolutePath())
+                .build();
 
         // do the magic
-        ModelGenerator.execute();
+        ModelGenerator.execute(context);
 
         // Generation.saveResults("OperationBulkUpdateTest/testOnClass", "expected", resources.actual(".*\\.java$"));
 
@@ -119,16 +120,17 @@ public class OperationBulkUpdateTest {
                         "    private int rating;\n" +
                         "}\n");
 
-        Configuration.clean();
-        Configuration.modelSources = resources.input().getAbsolutePath();
-        Configuration.resourceSources = resources.input().getAbsolutePath();
-        Configuration.generatedSources = resources.actual().getAbsolutePath();
-        Configuration.modelPackage = "io.superbiz.video.model";
-        Configuration.modelSuffix = "Model";
-        Configuration.tempSource = resources.tempSource().getAbsolutePath();
+        final GenerationContext context = GenerationContext.builder()
+                .modelSources(resources.input().getAbsolutePath())
+                .resourceSources(resources.input().getAbsolutePath())
+                .generatedSources(resources.actual().getAbsolutePath())
+                .modelPackage("io.superbiz.video.model")
+                .modelSuffix("Model")
+                .tempSource(resources.tempSource().getAbsolutePath())
+                .build();
 
         // do the magic
-        ModelGenerator.execute();
+        ModelGenerator.execute(context);
 
         // Generation.saveResults("OperationBulkUpdateTest/testOnField", "expected", resources.actual(".*\\.java$"));
 
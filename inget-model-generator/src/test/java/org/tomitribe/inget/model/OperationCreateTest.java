@@ -19,7 +19,7 @@
 package org.tomitribe.inget.model;
 
 import org.junit.Test;
-import org.tomitribe.inget.common.Configuration;
+import org.tomitribe.inget.common.GenerationContext;
 import org.tomitribe.inget.test.Resources;
 
 import static org.tomitribe.inget.test.Scenarios.assertFiles;
@@ -62,16 +62,17 @@ public class OperationCreateTest {
                 "    private int rating;\n" +
                 "}\n");
 
-        Configuration.clean();
-        Configuration.modelSources = resources.input().getAbsolutePath();
-        Configuration.resourceSources = resources.input().getAbsolutePath();
-        Configuration.generatedSources = resources.actual().getAbsolutePath();
-        Configuration.modelPackage = "io.superbiz.video.model";
-        Configuration.modelSuffix = "Model";
-        Configuration.tempSource = resources.tempSource().getAbsolutePath();
+        final GenerationContext context = GenerationContext.builder()
+                .modelSources(resources.input().getAbsolutePath())
+                .resourceSources(resources.input().getAbsolutePath())
+                .generatedSources(resources.actual().getAbsolutePath())
+                .modelPackage("io.superbiz.video.model")
+                .modelSuffix("Model")
+                .tempSource(resources.tempSource().getAbsolutePath())
+                .build();
 
         // do the magic
-        ModelGenerator.execute();
+        ModelGenerator.execute(context);
 
         // check the magic
         assertFiles(resources.expected(".*\\.java$"), resources.actual(".*\\.java$"));
@@ -115,16 +116,17 @@ public class OperationCreateTest {
                 "    private int rating;\n" +
                 "}\n");
 
-        Configuration.clean();
-        Configuration.modelSources = resources.input().getAbsolutePath();
-        Configuration.resourceSources = resources.input().getAbsolutePath();
-        Configuration.generatedSources = resources.actual().getAbsolutePath();
-        Configuration.modelPackage = "io.superbiz.video.model";
-        Configuration.modelSuffix = "Model";
-        Configuration.tempSource = resources.tempSource().getAbsolutePath();
+        final GenerationContext context = GenerationContext.builder()
+                .modelSources(resources.input().getAbsolutePath())
+                .resourceSources(resources.input().getAbsolutePath())
+                .generatedSources(resources.actual().getAbsolutePath())
+                .modelPackage("io.superbiz.video.model")
+                .modelSuffix("Model")
+                .tempSource(resources.tempSource().getAbsolutePath())
+                .build();
 
         // do the magic
-        ModelGenerator.execute();
+        ModelGenerator.execute(context);
 
         // Generation.saveResults("OperationCreateTest/testOnField", "expected", resources.actual(".*\\.java$"));
 
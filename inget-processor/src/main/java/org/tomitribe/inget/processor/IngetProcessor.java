@@ -0,0 +1,303 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ *
+ */
+package org.tomitribe.inget.processor;
+
+import com.sun.source.util.TreePath;
+import com.sun.source.util.Trees;
+import org.tomitribe.inget.api.Model;
+import org.tomitribe.inget.client.ClientGenerator;
+import org.tomitribe.inget.common.Authentication;
+import org.tomitribe.inget.common.Format;
+import org.tomitribe.inget.common.GenerationContext;
+import org.tomitribe.inget.model.ModelGenerator;
+import org.tomitribe.inget.resource.ResourcesGenerator;
+import org.tomitribe.util.Files;
+import org.tomitribe.util.IO;
+
+import javax.annotation.processing.AbstractProcessor;
+import javax.annotation.processing.RoundEnvironment;
+import javax.annotation.processing.SupportedAnnotationTypes;
+import javax.annotation.processing.SupportedOptions;
+import javax.lang.model.SourceVersion;
+import javax.lang.model.element.Element;
+import javax.lang.model.element.ElementKind;
+import javax.lang.model.element.PackageElement;
+import javax.lang.model.element.TypeElement;
+import javax.tools.Diagnostic;
+import javax.tools.JavaFileObject;
+import java.io.File;
+import java.io.IOException;
+import java.io.PrintWriter;
+import java.io.StringWriter;
+import java.io.Writer;
+import java.net.URI;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+/**
+ * Runs the model, resource and client generation inside javac, as an
+ * alternative to the maven plugin.
+ *
+ * The models are the types javac found, read from the source files it
+ * compiles, so nothing is scanned or copied and no dependency jar is
+ * extracted. The generated classes are written through the Filer so they are
+ * compiled in the same javac run. Resources written by hand are compiled as
+ * they are, as the Filer cannot replace a source that is part of the
+ * compilation, and no client is generated for them.
+ *
+ * The options mirror the plugin configuration, e.g.
+ * -Ainget.modelPackage=io.superbiz.video.model -Ainget.generateModel=true
+ */
+@SupportedAnnotationTypes({"org.tomitribe.inget.api.Model", "org.tomitribe.inget.api.Resource"})
+@SupportedOptions({
+        "inget.modelPackage",
+        "inget.resourcePackage",
+        "inget.generateModel",
+        "inget.generateResources",
+        "inget.generateClient",
+        "inget.clientName",
+        "inget.resourceSuffix",
+        "inget.modelSuffix",
+        "inget.authentication",
+        "inget.format"})
+public class IngetProcessor extends AbstractProcessor {
+
+    private boolean generated;
+
+    @Override
+    public SourceVersion getSupportedSourceVersion() {
+        return SourceVersion.latestSupported();
+    }
+
+    @Override
+    public boolean process(final Set<? extends TypeElement> annotations, final RoundEnvironment round) {
+        if (generated || round.processingOver()) {
+            return false;
+        }
+
+        final String modelPackage = option("modelPackage", null);
+        if (modelPackage == null) {
+            error("The 'inget.modelPackage' option was not found.");
+            generated = true;
+            return false;
+        }
+
+        // the generated classes are annotated as well, only the first round with models generates
+        if (round.getElementsAnnotatedWith(Model.class).stream().noneMatch(element -> isIn(element, modelPackage))) {
+            return false;
+        }
+        generated = true;
+
+        // the same classes the generators pick when they scan the sources
+        final String modelSuffix = option("modelSuffix", "Model");
+        final List<TypeElement> models = round.getRootElements().stream()
+                .filter(element -> element.getKind() == ElementKind.CLASS)
+                .map(TypeElement.class::cast)
+                .filter(type -> isIn(type, modelPackage) && type.getSimpleName().toString().endsWith(modelSuffix))
+                .sorted(Comparator.comparing(type -> type.getQualifiedName().toString()))
+                .collect(Collectors.toList());
+        if (models.isEmpty()) {
+            return false;
+        }
+
+        final File staging = Files.tmpdir();
+        try {
+            generate(models, staging);
+        } catch (Exception e) {
+            error("Inget generation failed: " + stackTrace(e));
+        } finally {
+            Files.remove(staging);
+        }
+        return false;
+    }
+
+    private void generate(final List<TypeElement> models, final File staging) throws IOException {
+        final List<File> modelFiles = new ArrayList<>();
+        for (final TypeElement model : models) {
+            final File file = sourceOf(model);
+            if (file == null) {
+                error("The source of " + model.getQualifiedName() + " is not a file, it cannot be generated from.");
+                return;
+            }
+            modelFiles.add(file);
+        }
+
+        final String modelPackage = option("modelPackage", null);
+        final File sources = rootOf(modelFiles.get(0), packageOf(models.get(0)));
+        final File output = Files.mkdirs(new File(staging, "generated"));
+
+        final GenerationContext.Builder builder = GenerationContext.builder()
+                .modelSources(sources.getAbsolutePath())
+                .resourceSources(output.getAbsolutePath())
+                .generatedSources(output.getAbsolutePath())
+                .tempSource(new File(staging, "temp-source").getAbsolutePath())
+                .modelPackage(modelPackage)
+                .resourcePackage(option("resourcePackage", null))
+                .clientName(option("clientName", "ResourceClient"))
+                .resourceSuffix(option("resourceSuffix", null))
+                .modelSuffix(option("modelSuffix", "Model"))
+                .format("fast".equalsIgnoreCase(option("format", "eclipse")) ? Format.FAST : Format.ECLIPSE);
+
+        final String authentication = option("authentication", null);
+        if (authentication != null) {
+            builder.authentication(Authentication.valueOf(authentication.toUpperCase()));
+        }
+
+        final GenerationContext generation = builder.build();
+        try {
+            generate(models, modelFiles, generation, output);
+        } finally {
+            generation.getTypeSolver().close();
+        }
+    }
+
+    private void generate(final List<TypeElement> models, final List<File> modelFiles, final GenerationContext generation,
+                          final File output) throws IOException {
+        GenerationContext context = generation;
+        if (Boolean.parseBoolean(option("generateModel", "false"))) {
+            ModelGenerator.execute(context, modelFiles);
+        }
+
+        if (Boolean.parseBoolean(option("generateResources", "false"))) {
+            if (context.getResourcePackage() == null) {
+                context = context.with().resourcePackage("org.tomitribe.resources").build();
+            }
+            ResourcesGenerator.execute(context, modelFiles, null);
+
+            // the classes written by hand win, a resource written by hand gets no client
+            for (final File file : generatedFiles(output)) {
+                if (isCompiled(output, file)) {
+                    context.getOutputWriter().delete(file);
+                }
+            }
+        }
+        context = context.with().clientSources(context.getResourceSources()).build();
+
+        context.getTypeSolver().init(context);
+
+        if (Boolean.parseBoolean(option("generateClient", "false"))) {
+            if (context.getResourcePackage() == null) {
+                error("The 'inget.resourcePackage' option was not found.");
+                return;
+            }
+            ClientGenerator.execute(context);
+        }
+
+        emit(output, models);
+    }
+
+    /**
+     * The file javac read the type from, null when it was not read from disk.
+     */
+    private File sourceOf(final TypeElement type) {
+        final TreePath path = Trees.instance(processingEnv).getPath(type);
+        if (path == null) {
+            return null;
+        }
+
+        final URI uri = path.getCompilationUnit().getSourceFile().toUri();
+        return "file".equals(uri.getScheme()) ? new File(uri) : null;
+    }
+
+    private String packageOf(final TypeElement type) {
+        return processingEnv.getElementUtils().getPackageOf(type).getQualifiedName().toString();
+    }
+
+    /**
+     * The source folder of a file, the directory its package starts in.
+     */
+    private static File rootOf(final File file, final String pkg) {
+        File root = file.getParentFile();
+        for (final String ignored : pkg.split("\\.")) {
+            root = root.getParentFile();
+        }
+        return root;
+    }
+
+    private void emit(final File output, final List<TypeElement> models) throws IOException {
+        final Element[] originating = models.toArray(new Element[0]);
+
+        for (final File file : generatedFiles(output)) {
+            if (isCompiled(output, file)) {
+                continue;
+            }
+
+            final JavaFileObject source = processingEnv.getFiler().createSourceFile(nameOf(output, file), originating);
+            try (final Writer writer = source.openWriter()) {
+                writer.write(IO.slurp(file));
+            }
+        }
+    }
+
+    private static List<File> generatedFiles(final File output) {
+        final List<File> files = Files.collect(output, ".*\\.java$");
+        Collections.sort(files);
+        return files;
+    }
+
+    /**
+     * Whether the class of a generated file is already part of the compilation.
+     */
+    private boolean isCompiled(final File output, final File file) {
+        final String name = nameOf(output, file);
+        if (processingEnv.getElementUtils().getTypeElement(name) == null) {
+            return false;
+        }
+
+        note(name + " already exists, it is not generated.");
+        return true;
+    }
+
+    private static String nameOf(final File output, final File file) {
+        final String path = file.getAbsolutePath().substring(output.getAbsolutePath().length() + 1);
+        return path.substring(0, path.length() - ".java".length()).replace(File.separatorChar, '.');
+    }
+
+    private static boolean isIn(final Element element, final String pkg) {
+        Element enclosing = element.getEnclosingElement();
+        while (!(enclosing instanceof PackageElement)) {
+            enclosing = enclosing.getEnclosingElement();
+        }
+        final String name = ((PackageElement) enclosing).getQualifiedName().toString();
+        return name.equals(pkg) || name.startsWith(pkg + ".");
+    }
+
+    private static String stackTrace(final Exception e) {
+        final StringWriter trace = new StringWriter();
+        e.printStackTrace(new PrintWriter(trace));
+        return trace.toString();
+    }
+
+    private String option(final String name, final String defaultValue) {
+        final String value = processingEnv.getOptions().get("inget." + name);
+        return value != null ? value : defaultValue;
+    }
+
+    private void error(final String message) {
+        processingEnv.getMessager().printMessage(Diagnostic.Kind.ERROR, message);
+    }
+
+    private void note(final String message) {
+        processingEnv.getMessager().printMessage(Diagnostic.Kind.NOTE, message);
+    }
+}
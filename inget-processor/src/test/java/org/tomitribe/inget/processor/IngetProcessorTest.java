@@ -0,0 +1,100 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ *
+ */
+package org.tomitribe.inget.processor;
+
+import org.junit.Test;
+import org.tomitribe.inget.test.Resources;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+import static org.tomitribe.inget.test.Scenarios.assertFiles;
+
+public class IngetProcessorTest {
+
+    @Test
+    public void testModel() throws Exception {
+        final Resources movies = Resources.name("movies");
+
+        // do the magic
+        final List<String> errors = Processing.run(movies.input(), movies.actual(),
+                "inget.modelPackage=io.superbiz.video.model",
+                "inget.generateModel=true");
+
+        // check the magic
+        assertEquals(Collections.emptyList(), errors);
+        assertFiles(movies.expected(".*\\.java$"), movies.actual(".*\\.java$"));
+    }
+
+    @Test
+    public void testResources() throws Exception {
+        final Resources movies = Resources.name("movies-resources");
+
+        final List<String> errors = Processing.run(movies.input(), movies.actual(),
+                "inget.modelPackage=io.superbiz.video.model",
+                "inget.resourcePackage=io.superbiz.video.rest",
+                "inget.resourceSuffix=ResourceBean",
+                "inget.generateModel=true",
+                "inget.generateResources=true");
+
+        assertEquals(Collections.emptyList(), errors);
+        assertFiles(movies.expected(".*\\.java$"), movies.actual(".*\\.java$"));
+    }
+
+    @Test
+    public void testClient() throws Exception {
+        final Resources movies = Resources.name("movies-client");
+
+        final List<String> errors = Processing.run(movies.input(), movies.actual(),
+                "inget.modelPackage=io.superbiz.video.model",
+                "inget.resourcePackage=io.superbiz.video.rest",
+                "inget.resourceSuffix=ResourceBean",
+                "inget.clientName=MovieClient",
+                "inget.generateModel=true",
+                "inget.generateResources=true",
+                "inget.generateClient=true");
+
+        assertEquals(Collections.emptyList(), errors);
+        assertFiles(movies.expected(".*\\.java$"), movies.actual(".*\\.java$"));
+    }
+
+    @Test
+    public void testResourceWrittenByHand() throws Exception {
+        final Resources movies = Resources.name("movies-handwritten");
+
+        final List<String> notes = new ArrayList<>();
+        final List<String> errors = Processing.run(movies.input(), movies.actual(), notes,
+                "inget.modelPackage=io.superbiz.video.model",
+                "inget.resourcePackage=io.superbiz.video.rest",
+                "inget.resourceSuffix=ResourceBean",
+                "inget.clientName=MovieClient",
+                "inget.generateModel=true",
+                "inget.generateResources=true",
+                "inget.generateClient=true");
+
+        assertEquals(Collections.emptyList(), errors);
+        assertTrue(notes.contains("io.superbiz.video.rest.MovieResourceBean already exists, it is not generated."));
+
+        // neither the resource nor its client are generated, the list resource and its client are
+        assertFiles(movies.expected(".*\\.java$"), movies.actual(".*\\.java$"));
+    }
+}
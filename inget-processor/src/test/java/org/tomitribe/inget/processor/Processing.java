@@ -0,0 +1,85 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ *
+ */
+package org.tomitribe.inget.processor;
+
+import org.tomitribe.util.Files;
+
+import javax.tools.Diagnostic;
+import javax.tools.DiagnosticCollector;
+import javax.tools.JavaCompiler;
+import javax.tools.JavaFileObject;
+import javax.tools.StandardJavaFileManager;
+import javax.tools.ToolProvider;
+import java.io.File;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Runs the processor on a folder of sources without compiling them.
+ */
+public class Processing {
+
+    private Processing() {
+        // no-op
+    }
+
+    /**
+     * @return the errors reported by the processor. The generated sources are not
+     * compiled but javac still reports the symbols they miss, e.g. lombok, those are ignored.
+     */
+    public static List<String> run(final File input, final File output, final String... processorOptions) throws IOException {
+        return run(input, output, new ArrayList<>(), processorOptions);
+    }
+
+    /**
+     * @param notes receives the notes reported by the processor
+     */
+    public static List<String> run(final File input, final File output, final List<String> notes,
+                                   final String... processorOptions) throws IOException {
+        final JavaCompiler compiler = ToolProvider.getSystemJavaCompiler();
+        final DiagnosticCollector<JavaFileObject> diagnostics = new DiagnosticCollector<>();
+        final StandardJavaFileManager fileManager = compiler.getStandardFileManager(diagnostics, null, null);
+
+        final List<String> options = new ArrayList<>(Arrays.asList(
+                "-proc:only",
+                "-classpath", System.getProperty("java.class.path"),
+                "-s", output.getAbsolutePath()));
+        for (final String option : processorOptions) {
+            options.add("-A" + option);
+        }
+
+        final JavaCompiler.CompilationTask task = compiler.getTask(null, fileManager, diagnostics, options, null,
+                fileManager.getJavaFileObjectsFromFiles(Files.collect(input, ".*\\.java$")));
+        task.setProcessors(Collections.singletonList(new IngetProcessor()));
+        task.call();
+
+        final List<String> errors = new ArrayList<>();
+        for (final Diagnostic<? extends JavaFileObject> diagnostic : diagnostics.getDiagnostics()) {
+            if (diagnostic.getKind() == Diagnostic.Kind.ERROR && diagnostic.getSource() == null) {
+                errors.add(diagnostic.toString());
+            } else if (diagnostic.getKind() == Diagnostic.Kind.NOTE) {
+                notes.add(diagnostic.getMessage(null));
+            }
+        }
+        return errors;
+    }
+}
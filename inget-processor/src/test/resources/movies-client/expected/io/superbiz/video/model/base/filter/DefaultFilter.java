@@ -0,0 +1,10 @@
+package io.superbiz.video.model.base.filter;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import javax.annotation.Generated;
+
+@Schema(description = "A generic filter, part of the page result used for any search request. "
+        + "Sub-classes contain the elements that can be used for filtering.")
+@Generated("org.tomitribe.inget.model.ModelClassGenerator")
+public class DefaultFilter {
+}
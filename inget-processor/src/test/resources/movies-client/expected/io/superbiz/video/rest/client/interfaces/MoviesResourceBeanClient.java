@@ -0,0 +1,60 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+
+
+
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.superbiz.video.rest.client.interfaces;
+
+import io.superbiz.video.model.BulkMovieResult;
+import io.superbiz.video.model.CreateMovie;
+import io.superbiz.video.model.MovieResult;
+import io.superbiz.video.model.UpdateMovie;
+import java.util.List;
+import javax.annotation.Generated;
+import javax.ws.rs.Consumes;
+import javax.ws.rs.DELETE;
+import javax.ws.rs.GET;
+import javax.ws.rs.POST;
+import javax.ws.rs.PUT;
+import javax.ws.rs.Path;
+import javax.ws.rs.Produces;
+import javax.ws.rs.core.MediaType;
+import org.apache.cxf.interceptor.OutInterceptors;
+import org.tomitribe.inget.client.NoOpInterceptor;
+
+@Path("movies/bean")
+@Consumes(MediaType.APPLICATION_JSON)
+@Produces(MediaType.APPLICATION_JSON)
+@OutInterceptors(classes = NoOpInterceptor.class)
+@Generated("org.tomitribe.inget.client.ClientGenerator")
+public interface MoviesResourceBeanClient {
+
+    @POST
+    BulkMovieResult bulkCreate(
+            final List<CreateMovie> movies);
+
+    @PUT
+    BulkMovieResult bulkUpdate(
+            final List<UpdateMovie> movies);
+
+    @DELETE
+    BulkMovieResult bulkDelete(
+            final List<String> ids);
+
+    @GET
+    MovieResult readAll();
+}
@@ -0,0 +1,7 @@
+package io.superbiz.video.rest.client.base;
+
+import javax.annotation.Generated;
+
+@Generated("org.tomitribe.inget.client.ClientGenerator")
+public class EntityNotFoundException extends MovieClientException {
+}
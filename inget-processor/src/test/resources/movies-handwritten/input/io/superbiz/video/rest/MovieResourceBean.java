@@ -0,0 +1,16 @@
+package io.superbiz.video.rest;
+
+import javax.ws.rs.GET;
+import javax.ws.rs.Path;
+import javax.ws.rs.core.Response;
+
+/**
+ * Written by hand, it is compiled as it is.
+ */
+@Path("movie/bean")
+public interface MovieResourceBean {
+
+    @GET
+    @Path("ping")
+    Response ping();
+}
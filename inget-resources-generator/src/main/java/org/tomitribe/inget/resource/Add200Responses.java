@@ -18,7 +18,6 @@
  */
 package org.tomitribe.inget.resource;
 
-import com.github.javaparser.JavaParser;
 import com.github.javaparser.ast.CompilationUnit;
 import com.github.javaparser.ast.body.ClassOrInterfaceDeclaration;
 import com.github.javaparser.ast.body.MethodDeclaration;
@@ -34,8 +33,7 @@ public class Add200Responses {
 
     }
 
-    public static String apply(final String source) {
-        final CompilationUnit unit = JavaParser.parse(source);
+    public static void apply(final CompilationUnit unit) {
         final ClassOrInterfaceDeclaration clazz = getClazz(unit);
 
         clazz.getMethods().stream().forEach(new Consumer<MethodDeclaration>() {
@@ -50,7 +48,5 @@ public class Add200Responses {
             }
 
         });
-
-        return unit.toString();
     }
 }
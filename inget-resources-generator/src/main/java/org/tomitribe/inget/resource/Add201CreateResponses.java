@@ -18,10 +18,10 @@
  */
 package org.tomitribe.inget.resource;
 
-import com.github.javaparser.JavaParser;
 import com.github.javaparser.ast.CompilationUnit;
 import com.github.javaparser.ast.body.ClassOrInterfaceDeclaration;
 import com.github.javaparser.ast.body.MethodDeclaration;
+import org.tomitribe.inget.common.GenerationContext;
 import org.tomitribe.inget.common.Header;
 import org.tomitribe.inget.common.Utils;
 
@@ -35,12 +35,12 @@ public class Add201CreateResponses {
 
     }
 
-    public static String apply(final String source, CompilationUnit rootClassUnit) {
-        final CompilationUnit unit = JavaParser.parse(source);
+    public static void apply(final GenerationContext context, final CompilationUnit unit,
+                             final CompilationUnit rootClassUnit) {
         final ClassOrInterfaceDeclaration resourceClass = getClazz(unit);
-        final String resourceName = Utils.getRootName(resourceClass);
+        final String resourceName = Utils.getRootName(context, resourceClass);
         ClassOrInterfaceDeclaration rootClass = Utils.getClazz(rootClassUnit);
-        final String rootClassName = Utils.getRootName(rootClass);
+        final String rootClassName = Utils.getRootName(context, rootClass);
 
         resourceClass.getMethods().stream().forEach(new Consumer<MethodDeclaration>() {
 
@@ -50,7 +50,7 @@ public class Add201CreateResponses {
                     Utils.removeApiResponse(m, 201);
                     return;
                 }
-                if (Utils.isRootResource(rootClassName, resourceName)) {
+                if (Utils.isRootResource(context, rootClassName, resourceName)) {
                     Utils.addApiResponse(m, 201, "Created",
                             new Header("Location", "The resource to the created ", rootClassName));
                 } else {
@@ -60,7 +60,5 @@ public class Add201CreateResponses {
 
             }
         });
-
-        return unit.toString();
     }
 }
@@ -18,36 +18,36 @@
  */
 package org.tomitribe.inget.resource;
 
-import com.github.javaparser.JavaParser;
 import com.github.javaparser.ast.CompilationUnit;
 import com.github.javaparser.ast.body.ClassOrInterfaceDeclaration;
 import com.github.javaparser.ast.body.MethodDeclaration;
 import com.github.javaparser.ast.comments.LineComment;
 
+import java.util.regex.Pattern;
+
 import static org.tomitribe.inget.common.Utils.getClazz;
 
 public class AddMethodSeparators {
 
     private static final String separator = " ----------------------------------------------------------------------------------------";
+    private static final String COMMENT = "\n    //" + separator;
+    private static final Pattern DUPLICATE = Pattern.compile(COMMENT + COMMENT);
 
     private AddMethodSeparators() {
 
     }
 
-    public static String apply(String slurp) {
-        final CompilationUnit unit = JavaParser.parse(slurp);
+    public static void apply(final CompilationUnit unit) {
         final ClassOrInterfaceDeclaration clazz = getClazz(unit);
 
         for (final MethodDeclaration method : clazz.getMethods()) {
             method.setComment(new LineComment(separator));
         }
 
-        return removeDuplicates(unit.toString());
     }
 
-    private static String removeDuplicates(final String content) {
-        final String comment = "\n    //" + separator;
-        final String modified = content.replaceAll(comment + comment, comment);
+    static String removeDuplicates(final String content) {
+        final String modified = DUPLICATE.matcher(content).replaceAll(COMMENT);
 
         if (content.equals(modified)) {
             return content;
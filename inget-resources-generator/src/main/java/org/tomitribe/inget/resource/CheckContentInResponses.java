@@ -25,6 +25,7 @@ import com.github.javaparser.ast.body.ClassOrInterfaceDeclaration;
 import com.github.javaparser.ast.body.MethodDeclaration;
 import com.github.javaparser.ast.expr.MemberValuePair;
 import com.github.javaparser.ast.expr.NormalAnnotationExpr;
+import org.tomitribe.inget.common.GenerationContext;
 import org.tomitribe.inget.common.Utils;
 
 import java.util.Map;
@@ -39,8 +40,8 @@ public class CheckContentInResponses {
 
     }
 
-    public static String apply(final String source, final CompilationUnit modelClassUnit, CompilationUnit resourceClassUnit) {
-        final CompilationUnit unit = JavaParser.parse(source);
+    public static void apply(final GenerationContext context, final CompilationUnit unit,
+                             final CompilationUnit modelClassUnit) {
         final ClassOrInterfaceDeclaration clazz = getClazz(unit);
 
         clazz.getMethods().stream().forEach(new Consumer<MethodDeclaration>() {
@@ -55,17 +56,15 @@ public class CheckContentInResponses {
                 final MemberValuePair value = pairs(apiResponses).get("value");
                 final NodeList<NormalAnnotationExpr> annotations = Utils.arrayValue(value.getValue());
 
-                annotations.stream().forEach(applyContent(m, unit, modelClassUnit, resourceClassUnit));
+                annotations.stream().forEach(applyContent(context, m, unit, modelClassUnit));
 
             }
         });
-
-        return unit.toString();
     }
 
-    private static Consumer<NormalAnnotationExpr> applyContent(final MethodDeclaration m, final CompilationUnit unit,
-                                                               final CompilationUnit modelClassUnit,
-                                                               final CompilationUnit resourceClassUnit) {
+    private static Consumer<NormalAnnotationExpr> applyContent(final GenerationContext context, final MethodDeclaration m,
+                                                               final CompilationUnit unit,
+                                                               final CompilationUnit modelClassUnit) {
         return new Consumer<NormalAnnotationExpr>() {
             @Override
             public void accept(NormalAnnotationExpr responseAnnotation) {
@@ -74,7 +73,7 @@ public class CheckContentInResponses {
 
 
                     ClassOrInterfaceDeclaration modelClass = Utils.getClazz(modelClassUnit);
-                    final String modelClassName = Utils.getRootName(modelClass);
+                    final String modelClassName = Utils.getRootName(context, modelClass);
 
                     if (Utils.isMethodDelete(m, Utils.getIdName(modelClass))) {
                         return;
@@ -91,16 +90,16 @@ public class CheckContentInResponses {
                         if (Utils.isBulkMethod(m)) {
                             final String bulkClassName = "Bulk" + modelClassName + "Result";
                             unit.addImport(modelClassPackage + "." + bulkClassName);
-                            responseAnnotation.addPair("content", "@Content(schema = @Schema(implementation = " + bulkClassName + ".class))");
+                            responseAnnotation.getPairs().add(content(bulkClassName));
                         } else {
                             String className = modelClassName;
-                            ClassOrInterfaceDeclaration resourceClass = Utils.getClazz(resourceClassUnit);
+                            ClassOrInterfaceDeclaration resourceClass = Utils.getClazz(unit);
 
-                            if (!Utils.isRootResource(modelClassName, resourceClass.getNameAsString())) {
+                            if (!Utils.isRootResource(context, modelClassName, resourceClass.getNameAsString())) {
                                 className = modelClassName + "Result";
                             }
                             unit.addImport(modelClassPackage + "." + className);
-                            responseAnnotation.addPair("content", "@Content(schema = @Schema(implementation = " + className + ".class))");
+                            responseAnnotation.getPairs().add(content(className));
                         }
 
                     }
@@ -108,4 +107,9 @@ public class CheckContentInResponses {
             }
         };
     }
+
+    private static MemberValuePair content(final String className) {
+        return new MemberValuePair("content",
+                JavaParser.parseAnnotation("@Content(schema = @Schema(implementation = " + className + ".class))"));
+    }
 }
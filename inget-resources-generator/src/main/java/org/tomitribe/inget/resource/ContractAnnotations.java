@@ -18,7 +18,6 @@
  */
 package org.tomitribe.inget.resource;
 
-import com.github.javaparser.JavaParser;
 import com.github.javaparser.ast.CompilationUnit;
 import com.github.javaparser.ast.NodeList;
 import com.github.javaparser.ast.body.ClassOrInterfaceDeclaration;
@@ -41,8 +40,7 @@ public class ContractAnnotations {
 
     }
 
-    public static String apply(final String source) {
-        final CompilationUnit unit = JavaParser.parse(source);
+    public static void apply(final CompilationUnit unit) {
         final ClassOrInterfaceDeclaration clazz = getClazz(unit);
 
         convert(clazz.getAnnotations());
@@ -54,8 +52,6 @@ public class ContractAnnotations {
                 .map(MethodDeclaration::getParameters)
                 .flatMap(Collection::stream)
                 .forEach(parameter -> convert(parameter.getAnnotations()));
-
-        return unit.toString();
     }
 
     public static void convert(final NodeList<AnnotationExpr> annotations) {
@@ -18,7 +18,6 @@
  */
 package org.tomitribe.inget.resource;
 
-import com.github.javaparser.JavaParser;
 import com.github.javaparser.ast.CompilationUnit;
 import com.github.javaparser.ast.NodeList;
 import com.github.javaparser.ast.body.ClassOrInterfaceDeclaration;
@@ -43,8 +42,7 @@ public class ExpandAnnotations {
 
     }
 
-    public static String apply(final String source) {
-        final CompilationUnit unit = JavaParser.parse(source);
+    public static void apply(final CompilationUnit unit) {
         final ClassOrInterfaceDeclaration clazz = getClazz(unit);
 
         convert(clazz.getAnnotations());
@@ -56,8 +54,6 @@ public class ExpandAnnotations {
                 .map(MethodDeclaration::getParameters)
                 .flatMap(Collection::stream)
                 .forEach(parameter -> convert(parameter.getAnnotations()));
-
-        return unit.toString();
     }
 
     public static void convert(NodeList<AnnotationExpr> annotations) {
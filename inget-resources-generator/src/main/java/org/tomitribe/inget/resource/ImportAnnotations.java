@@ -18,7 +18,6 @@
  */
 package org.tomitribe.inget.resource;
 
-import com.github.javaparser.JavaParser;
 import com.github.javaparser.ast.CompilationUnit;
 import com.github.javaparser.ast.body.ClassOrInterfaceDeclaration;
 import com.github.javaparser.ast.expr.AnnotationExpr;
@@ -51,8 +50,7 @@ public class ImportAnnotations {
 
     }
 
-    public static String apply(final String source) {
-        final CompilationUnit unit = JavaParser.parse(source);
+    public static void apply(final CompilationUnit unit) {
         final ClassOrInterfaceDeclaration clazz = getClazz(unit);
 
         final Consumer<AnnotationExpr> addImport = importer(unit);
@@ -71,16 +69,13 @@ public class ImportAnnotations {
                 .flatMap(method -> method.getParameters().stream())
                 .flatMap(parameter -> parameter.getAnnotations().stream())
                 .forEach(addImport);
-
-
-        return unit.toString();
     }
 
     public static Consumer<AnnotationExpr> importer(final CompilationUnit unit) {
         return annotation -> {
             final String name = annotation.getNameAsString();
             if (name.contains(".")) {
-                annotation.setName(name.replaceAll(".*\\.", ""));
+                annotation.setName(name.substring(name.lastIndexOf('.') + 1));
                 unit.addImport(name);
             }
         };
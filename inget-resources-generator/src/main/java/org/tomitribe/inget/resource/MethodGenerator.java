@@ -28,15 +28,16 @@ import com.github.javaparser.ast.body.VariableDeclarator;
 import com.github.javaparser.ast.expr.AnnotationExpr;
 import com.github.javaparser.ast.expr.NormalAnnotationExpr;
 import com.github.javaparser.ast.type.TypeParameter;
-import org.tomitribe.inget.common.Configuration;
+import org.tomitribe.inget.common.GenerationContext;
 import org.tomitribe.inget.common.ImportManager;
 import org.tomitribe.inget.common.Operation;
 import org.tomitribe.inget.common.Utils;
 import org.tomitribe.inget.exception.GeneratorException;
+import org.tomitribe.util.IO;
 import org.tomitribe.util.Strings;
 
 import java.io.File;
-import java.io.FileNotFoundException;
+import java.io.IOException;
 import java.util.Arrays;
 import java.util.List;
 import java.util.Optional;
@@ -48,38 +49,35 @@ public class MethodGenerator {
 
     private static final String CREATE = "Create";
     private static final String UPDATE = "Update";
-    private static String idParam = "id";
 
     private MethodGenerator() {
 
     }
 
-    public static String apply(CompilationUnit resourceUnit, CompilationUnit rootClassUnit) {
+    public static void apply(GenerationContext context, CompilationUnit resourceUnit, CompilationUnit rootClassUnit) {
         ClassOrInterfaceDeclaration resourceClass = Utils.getClazz(resourceUnit);
         ClassOrInterfaceDeclaration rootClass = Utils.getClazz(rootClassUnit);
-        final String rootClassName = Utils.getRootName(rootClass);
+        final String rootClassName = Utils.getRootName(context, rootClass);
         final String rootClassPackage = rootClassUnit.getPackageDeclaration().get().getName().toString();
-        idParam = Utils.getIdName(rootClass);
 
         removeGeneratedMethods(resourceClass);
 //        removeCrudAndBulkMethods(resourceClass);
-        generateMethods(resourceUnit, resourceClass, rootClass, rootClassName, rootClassPackage);
-        return resourceUnit.toString();
+        generateMethods(context, resourceUnit, resourceClass, rootClass, rootClassName, rootClassPackage);
     }
 
-    private static void generateMethods(CompilationUnit resourceUnit,
+    private static void generateMethods(GenerationContext context, CompilationUnit resourceUnit,
                                         ClassOrInterfaceDeclaration resourceClass, ClassOrInterfaceDeclaration rootClass,
                                         String rootClassName, String rootClassPackage) {
         List<String> classOperations = Utils.getClassOperations(rootClass);
-        if (isRootResource(rootClassName, resourceClass.getName().toString())) {
+        if (isRootResource(context, rootClassName, resourceClass.getName().toString())) {
             createRootResourceMethods(resourceUnit, resourceClass, rootClass, rootClassName, rootClassPackage, classOperations);
 
         } else {
-            createListResourceMethods(resourceUnit, resourceClass, rootClass, rootClassName, rootClassPackage, classOperations);
+            createListResourceMethods(context, resourceUnit, resourceClass, rootClass, rootClassName, rootClassPackage, classOperations);
         }
     }
 
-    private static void createListResourceMethods(CompilationUnit resourceUnit,
+    private static void createListResourceMethods(GenerationContext context, CompilationUnit resourceUnit,
                                                   ClassOrInterfaceDeclaration resourceClass, ClassOrInterfaceDeclaration rootClass, String rootClassName,
                                                   String rootClassPackage, List<String> classOperations) {
         if (classOperations == null || classOperations.contains(Operation.BULK_CREATE)) {
@@ -95,7 +93,7 @@ public class MethodGenerator {
         }
 
         if (classOperations == null || classOperations.contains(Operation.READ_ALL)) {
-            readAll(rootClassName, rootClass, resourceClass, resourceUnit);
+            readAll(context, rootClassName, rootClass, resourceClass, resourceUnit);
         }
     }
 
@@ -129,7 +127,7 @@ public class MethodGenerator {
     }
 
     // TODO: Remove when all methods have @Generated
-    private static void removeCrudAndBulkMethods(ClassOrInterfaceDeclaration resourceClass) {
+    private static void removeCrudAndBulkMethods(ClassOrInterfaceDeclaration resourceClass, String idParam) {
         resourceClass.getMethods().forEach(method -> {
             boolean remove =
                     Utils.isMethodCreate(method) ||
@@ -145,7 +143,7 @@ public class MethodGenerator {
         });
     }
 
-    private static MethodDeclaration createBaseMethod(final String methodName, final String verb, final boolean path,
+    private static MethodDeclaration createBaseMethod(final String methodName, final String verb, final String idParam,
                                                       ClassOrInterfaceDeclaration clazz, CompilationUnit unit, AnnotationExpr operation) {
         unit.addImport(getImport(verb));
 
@@ -156,7 +154,7 @@ public class MethodGenerator {
         unit.addImport(getImport("Response"));
 
         method.addMarkerAnnotation(verb);
-        if (path) {
+        if (idParam != null) {
             unit.addImport(getImport("Path"));
             NormalAnnotationExpr pathAnnotation = new NormalAnnotationExpr();
             pathAnnotation.setName("Path");
@@ -242,12 +240,13 @@ public class MethodGenerator {
         final String paramType = CREATE + rootClassName;
         final String description = "The new " + rootClassName;
         AnnotationExpr operation = JavaParser.parseAnnotation("@Operation(summary = \"Create a new " + rootClassName + ".\")");
-        final MethodDeclaration baseMethod = createBaseMethod(CREATE.toLowerCase(), "POST", false, clazz, unit, operation);
+        final MethodDeclaration baseMethod = createBaseMethod(CREATE.toLowerCase(), "POST", null, clazz, unit, operation);
         createRequestBody(paramType, rootClassName.toLowerCase(), rootClassPackage, description, null, baseMethod, unit);
     }
 
 
     private static void update(String rootClassName, ClassOrInterfaceDeclaration rootClass, String rootClassPackage, ClassOrInterfaceDeclaration clazz, CompilationUnit unit) {
+        final String idParam = Utils.getIdName(rootClass);
         boolean isMethodPresent = clazz.getMethods().stream()
                 .filter(m -> Utils.isMethodUpdate(m, idParam))
                 .findFirst()
@@ -260,14 +259,14 @@ public class MethodGenerator {
         final String idDescription = "The " + rootClassName + " " + idParam;
         final String idExample = Utils.getExample(getId(rootClass));
         AnnotationExpr operation = JavaParser.parseAnnotation("@Operation(summary = \"Update " + rootClassName + " by " + idParam + ".\")");
-        final MethodDeclaration baseMethod = createBaseMethod(UPDATE.toLowerCase(), "PUT", true, clazz, unit, operation);
+        final MethodDeclaration baseMethod = createBaseMethod(UPDATE.toLowerCase(), "PUT", idParam, clazz, unit, operation);
         createParameter("String", idParam, true, null, idDescription, idExample, baseMethod, unit);
         final String requestBodyDescription = "The updated data for the existing " + rootClassName;
         createRequestBody(paramType, rootClassName.toLowerCase(), rootClassPackage, requestBodyDescription, null, baseMethod, unit);
     }
 
     private static FieldDeclaration getId(ClassOrInterfaceDeclaration rootClass) {
-        Optional<FieldDeclaration> id = rootClass.getFieldByName(idParam);
+        Optional<FieldDeclaration> id = rootClass.getFieldByName(Utils.getIdName(rootClass));
         if (!id.isPresent()) {
             throw new GeneratorException("Class " + rootClass.getNameAsString() + ": Id was not found. Add to a field id = true in @Model.");
         }
@@ -275,6 +274,7 @@ public class MethodGenerator {
     }
 
     private static void read(String rootClassName, ClassOrInterfaceDeclaration rootClass, ClassOrInterfaceDeclaration clazz, CompilationUnit unit) {
+        final String idParam = Utils.getIdName(rootClass);
         boolean isMethodPresent = clazz.getMethods().stream()
                 .filter(m -> Utils.isMethodRead(m, idParam))
                 .findFirst()
@@ -286,12 +286,13 @@ public class MethodGenerator {
         final String description = "The " + rootClassName + " " + idParam;
         final String example = Utils.getExample(getId(rootClass));
         AnnotationExpr operation = JavaParser.parseAnnotation("@Operation(summary = \"Read " + rootClassName + " by " + idParam + ".\")");
-        final MethodDeclaration baseMethod = createBaseMethod("read", "GET", true, clazz, unit, operation);
+        final MethodDeclaration baseMethod = createBaseMethod("read", "GET", idParam, clazz, unit, operation);
         createParameter("String", idParam, true, null, description, example, baseMethod, unit);
 
     }
 
     private static void delete(String rootClassName, ClassOrInterfaceDeclaration rootClass, ClassOrInterfaceDeclaration clazz, CompilationUnit unit) {
+        final String idParam = Utils.getIdName(rootClass);
         boolean isMethodPresent = clazz.getMethods().stream()
                 .filter(m -> Utils.isMethodDelete(m, idParam))
                 .findFirst()
@@ -303,7 +304,7 @@ public class MethodGenerator {
         final String idDescription = "The " + rootClassName + " " + idParam;
         final String example = Utils.getExample(getId(rootClass));
         AnnotationExpr operation = JavaParser.parseAnnotation("@Operation(summary = \"Delete by " + idParam + ".\")");
-        final MethodDeclaration baseMethod = createBaseMethod("delete", "DELETE", true, clazz, unit, operation);
+        final MethodDeclaration baseMethod = createBaseMethod("delete", "DELETE", idParam, clazz, unit, operation);
         createParameter("String", idParam, true, null, idDescription, example, baseMethod, unit);
     }
 
@@ -312,11 +313,12 @@ public class MethodGenerator {
             return;
         }
 
+        final String idParam = Utils.getIdName(rootClass);
         final String paramName = Utils.toPlural(idParam);
         final String idsDescription = "Set of " + rootClassName + " " + paramName + " to delete";
         final String idExample = Utils.getExample(rootClass.getFieldByName(idParam).get());
         AnnotationExpr operation = JavaParser.parseAnnotation("@Operation(summary = \"Bulk delete " + Utils.toPlural(rootClassName).toLowerCase() + ".\")");
-        final MethodDeclaration baseMethod = createBaseMethod("bulkDelete", "DELETE", false, clazz, unit, operation);
+        final MethodDeclaration baseMethod = createBaseMethod("bulkDelete", "DELETE", null, clazz, unit, operation);
         createParameter("List<String>", paramName, false, Arrays.asList("java.util.List"), idsDescription, idExample, baseMethod, unit);
     }
 
@@ -328,7 +330,7 @@ public class MethodGenerator {
         final String paramName = CREATE + rootClassName;
         final String description = "Set of " + paramName + " to create";
         AnnotationExpr operation = JavaParser.parseAnnotation("@Operation(summary = \"Bulk create " + Utils.toPlural(rootClassName).toLowerCase() + ".\")");
-        final MethodDeclaration baseMethod = createBaseMethod("bulkCreate", "POST", false, clazz, unit, operation);
+        final MethodDeclaration baseMethod = createBaseMethod("bulkCreate", "POST", null, clazz, unit, operation);
         final String rootClassImport = rootClassPackage + "." + paramName;
         final List<String> imports = Arrays.asList("java.util.List", rootClassImport);
         createParameter("List<" + paramName + ">", Strings.lcfirst(rootClassName + "s"), false, imports, description, null, baseMethod, unit);
@@ -341,14 +343,14 @@ public class MethodGenerator {
         final String paramName = UPDATE + rootClassName;
         final String description = "Set of " + paramName + " to update";
         AnnotationExpr operation = JavaParser.parseAnnotation("@Operation(summary = \"Bulk update " + Utils.toPlural(rootClassName).toLowerCase() + ".\")");
-        final MethodDeclaration baseMethod = createBaseMethod("bulkUpdate", "PUT", false, clazz, unit, operation);
+        final MethodDeclaration baseMethod = createBaseMethod("bulkUpdate", "PUT", null, clazz, unit, operation);
         final String rootClassImport = rootClassPackage + "." + paramName;
         final List<String> imports = Arrays.asList("java.util.List", rootClassImport);
         createParameter("List<" + paramName + ">", Strings.lcfirst(rootClassName + "s"), false, imports, description, null, baseMethod, unit);
     }
 
 
-    private static void readAll(String rootClassName, ClassOrInterfaceDeclaration rootClass, ClassOrInterfaceDeclaration clazz, CompilationUnit unit) {
+    private static void readAll(GenerationContext context, String rootClassName, ClassOrInterfaceDeclaration rootClass, ClassOrInterfaceDeclaration clazz, CompilationUnit unit) {
         boolean isMethodPresent = clazz.getMethods().stream()
                 .filter(m -> Utils.isMethodReadAll(m))
                 .findFirst()
@@ -358,21 +360,21 @@ public class MethodGenerator {
         }
 
         AnnotationExpr operation = JavaParser.parseAnnotation("@Operation(summary = \"Read all " + Utils.toPlural(rootClassName) + ".\")");
-        final MethodDeclaration baseMethod = createBaseMethod("readAll", "GET", false, clazz, unit, operation);
+        final MethodDeclaration baseMethod = createBaseMethod("readAll", "GET", null, clazz, unit, operation);
 
         String modelPackage = rootClass.findCompilationUnit().get().getPackageDeclaration().get().getNameAsString();
 
         File filterFile = new File(
-                Configuration.modelSources + File.separator +
+                context.getModelSources() + File.separator +
                         Utils.transformPackageToPath(modelPackage) + File.separator + rootClassName + "Filter.java");
 
         if (filterFile.exists()) {
             ClassOrInterfaceDeclaration filterClazz = null;
             CompilationUnit filterUnit = null;
             try {
-                filterUnit = JavaParser.parse(filterFile);
+                filterUnit = context.parse(IO.slurp(filterFile));
                 filterClazz = Utils.getClazz(filterUnit);
-            } catch (FileNotFoundException e) {
+            } catch (IOException e) {
                 //This will never happend as we are checking if it exists()
             }
 
@@ -388,7 +390,5 @@ public class MethodGenerator {
 
             Utils.addImports(filterUnit, unit);
         }
-
-        rootClass.addMember(baseMethod);
     }
 }
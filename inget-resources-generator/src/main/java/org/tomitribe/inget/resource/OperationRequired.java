@@ -23,12 +23,15 @@ import com.github.javaparser.ast.CompilationUnit;
 import com.github.javaparser.ast.body.ClassOrInterfaceDeclaration;
 import com.github.javaparser.ast.body.MethodDeclaration;
 import com.github.javaparser.ast.expr.AnnotationExpr;
+import org.tomitribe.inget.common.GenerationContext;
 import org.tomitribe.inget.common.Utils;
 
 import java.util.HashMap;
 import java.util.Map;
 import java.util.Optional;
+import java.util.regex.Pattern;
 
+import static java.util.regex.Matcher.quoteReplacement;
 import static org.tomitribe.inget.common.Utils.getClazz;
 import static org.tomitribe.inget.common.Utils.isMethodReadAll;
 import static org.tomitribe.inget.common.Utils.toPlural;
@@ -36,6 +39,9 @@ import static org.tomitribe.inget.common.Utils.toPlural;
 public class OperationRequired {
 
     private static final Map<String, String> methods = new HashMap<>();
+    private static final Pattern ACCOUNTS = Pattern.compile("accounts");
+    private static final Pattern ACCOUNT = Pattern.compile("Account");
+    private static final Pattern LOWER_ACCOUNT = Pattern.compile("account");
 
 
     static {
@@ -46,10 +52,10 @@ public class OperationRequired {
 
     }
 
-    public static String apply(String source, CompilationUnit rootClassUnit) {
+    public static void apply(final GenerationContext context, final CompilationUnit unit,
+                             final CompilationUnit rootClassUnit) {
         ClassOrInterfaceDeclaration rootClass = Utils.getClazz(rootClassUnit);
-        final String rootClassName = Utils.getRootName(rootClass);
-        final CompilationUnit unit = JavaParser.parse(source);
+        final String rootClassName = Utils.getRootName(context, rootClass);
         final ClassOrInterfaceDeclaration clazz = getClazz(unit);
 
         for (final MethodDeclaration method : clazz.getMethods()) {
@@ -57,11 +63,9 @@ public class OperationRequired {
                     .orElse(null);
 
             if (annotationSource != null) {
-                annotationSource =
-                        annotationSource
-                                .replaceAll("accounts", toPlural(rootClassName))
-                                .replaceAll("Account", rootClassName)
-                                .replaceAll("account", rootClassName);
+                annotationSource = ACCOUNTS.matcher(annotationSource).replaceAll(quoteReplacement(toPlural(rootClassName)));
+                annotationSource = ACCOUNT.matcher(annotationSource).replaceAll(quoteReplacement(rootClassName));
+                annotationSource = LOWER_ACCOUNT.matcher(annotationSource).replaceAll(quoteReplacement(rootClassName));
 
                 Optional<AnnotationExpr> existingAnnotation = method.getAnnotationByName("Operation");
                 if (existingAnnotation.isPresent()) {
@@ -71,8 +75,6 @@ public class OperationRequired {
                 unit.addImport("io.swagger.v3.oas.annotations.Operation");
             }
         }
-
-        return unit.toString();
     }
 
     private static String getOperation(MethodDeclaration method) {
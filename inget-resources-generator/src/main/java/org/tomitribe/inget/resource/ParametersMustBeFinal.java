@@ -18,7 +18,6 @@
  */
 package org.tomitribe.inget.resource;
 
-import com.github.javaparser.JavaParser;
 import com.github.javaparser.ast.CompilationUnit;
 import com.github.javaparser.ast.body.ClassOrInterfaceDeclaration;
 import com.github.javaparser.ast.body.MethodDeclaration;
@@ -36,15 +35,12 @@ public class ParametersMustBeFinal {
 
     }
 
-    public static String apply(final String source) {
-        final CompilationUnit unit = JavaParser.parse(source);
+    public static void apply(final CompilationUnit unit) {
         final ClassOrInterfaceDeclaration clazz = getClazz(unit);
 
         clazz.getMethods().stream()
                 .map(MethodDeclaration::getParameters)
                 .flatMap(Collection::stream)
                 .forEach(parameter -> parameter.setFinal(true));
-
-        return unit.toString();
     }
 }
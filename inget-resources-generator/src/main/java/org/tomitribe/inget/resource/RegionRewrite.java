@@ -0,0 +1,404 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ *
+ */
+package org.tomitribe.inget.resource;
+
+import com.github.javaparser.Position;
+import com.github.javaparser.Range;
+import com.github.javaparser.ast.CompilationUnit;
+import com.github.javaparser.ast.ImportDeclaration;
+import com.github.javaparser.ast.Node;
+import com.github.javaparser.ast.body.ClassOrInterfaceDeclaration;
+import com.github.javaparser.ast.body.MethodDeclaration;
+import com.github.javaparser.ast.comments.Comment;
+import com.github.javaparser.ast.expr.AnnotationExpr;
+import com.github.javaparser.ast.nodeTypes.NodeWithAnnotations;
+import org.tomitribe.inget.common.GenerationContext;
+import org.tomitribe.inget.common.Reformat;
+import org.tomitribe.inget.common.Utils;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+/**
+ * Writes what the rules changed back into a hand-written resource without
+ * printing and formatting the whole file again. The generated methods are
+ * replaced, the annotations the rules added or changed are spliced in and
+ * the imports are rewritten. Only these regions are formatted, the rest of
+ * the file is kept byte for byte.
+ *
+ * The other changes the rules make to hand-written methods, like final
+ * parameters, the order of the annotations or the method separators, are
+ * left out.
+ */
+class RegionRewrite {
+
+    private static final String HOLDER = "Regions";
+    private static final String INDENT = "    ";
+
+    private RegionRewrite() {
+        // no-op
+    }
+
+    /**
+     * The resource as it was parsed, taken before the rules change it.
+     */
+    static final class Snapshot {
+
+        private final Map<Node, Range> ranges = new IdentityHashMap<>();
+        private final Map<AnnotationExpr, String> printed = new IdentityHashMap<>();
+        private final Map<Node, List<AnnotationExpr>> annotations = new IdentityHashMap<>();
+        private final List<Range> generated = new ArrayList<>();
+        private final List<Range> comments = new ArrayList<>();
+        private Range imports;
+        private Range pkg;
+        private Range type;
+        private Range member;
+    }
+
+    static Snapshot snapshot(final CompilationUnit unit) {
+        final Snapshot snapshot = new Snapshot();
+        final ClassOrInterfaceDeclaration clazz = Utils.getClazz(unit);
+
+        snapshot.type = clazz.getRange().orElse(null);
+        snapshot.pkg = unit.getPackageDeclaration().flatMap(Node::getRange).orElse(null);
+        if (unit.getImports().isNonEmpty()) {
+            snapshot.imports = new Range(
+                    unit.getImports().get(0).getRange().get().begin,
+                    unit.getImports().get(unit.getImports().size() - 1).getRange().get().end);
+        }
+
+        record(snapshot, clazz, clazz);
+        for (MethodDeclaration method : clazz.getMethods()) {
+            if (snapshot.member == null) {
+                snapshot.member = method.getRange().get();
+            }
+            record(snapshot, method, method);
+            if (method.getAnnotationByName("Generated").isPresent()) {
+                snapshot.generated.add(method.getRange().get());
+            }
+        }
+
+        // the separator of a method may be attached to its first annotation
+        unit.getAllContainedComments().stream()
+                .map(Comment::getRange)
+                .filter(Optional::isPresent)
+                .map(Optional::get)
+                .forEach(snapshot.comments::add);
+        return snapshot;
+    }
+
+    private static void record(final Snapshot snapshot, final Node node, final NodeWithAnnotations<?> annotated) {
+        snapshot.ranges.put(node, node.getRange().get());
+        snapshot.annotations.put(node, new ArrayList<>(annotated.getAnnotations()));
+        for (AnnotationExpr annotation : annotated.getAnnotations()) {
+            snapshot.ranges.put(annotation, annotation.getRange().get());
+            snapshot.printed.put(annotation, annotation.toString());
+        }
+    }
+
+    static String apply(final GenerationContext context, final String source, final CompilationUnit unit,
+                        final Snapshot before) {
+        final Text text = new Text(source);
+        final List<Edit> edits = new ArrayList<>();
+        final ClassOrInterfaceDeclaration clazz = Utils.getClazz(unit);
+
+        imports(text, unit, before, edits);
+        annotations(context, text, clazz, clazz, before, edits);
+
+        final List<MethodDeclaration> added = new ArrayList<>();
+        for (MethodDeclaration method : clazz.getMethods()) {
+            if (before.ranges.containsKey(method)) {
+                annotations(context, text, method, method, before, edits);
+            } else {
+                added.add(method);
+            }
+        }
+
+        for (Range generated : before.generated) {
+            final int begin = text.withComments(text.offset(generated.begin), before.comments);
+            edits.add(new Edit(text.afterContent(begin), text.offset(generated.end) + 1, ""));
+        }
+
+        if (!added.isEmpty()) {
+            final int end = text.afterContent(text.offset(before.type.end));
+            // the generated methods are indented like the others
+            final String indent = before.member == null ? INDENT : text.indent(text.offset(before.member.begin));
+            edits.add(new Edit(end, end, "\n\n" + reindent(members(context, added), indent)));
+        }
+
+        return text.apply(edits);
+    }
+
+    private static void imports(final Text text, final CompilationUnit unit, final Snapshot before, final List<Edit> edits) {
+        final String imports = unit.getImports().stream()
+                .map(ImportDeclaration::toString)
+                .map(String::trim)
+                .collect(Collectors.joining("\n"));
+
+        if (before.imports != null) {
+            final int begin = text.offset(before.imports.begin);
+            final int end = text.offset(before.imports.end) + 1;
+            if (!text.source.substring(begin, end).equals(imports)) {
+                edits.add(new Edit(begin, end, imports));
+            }
+        } else if (!imports.isEmpty()) {
+            final int at = before.pkg == null ? 0 : text.offset(before.pkg.end) + 1;
+            edits.add(before.pkg == null ? new Edit(at, at, imports + "\n\n") : new Edit(at, at, "\n\n" + imports));
+        }
+    }
+
+    /**
+     * Replaces the annotations the rules changed or replaced and adds the new
+     * ones after the last annotation of the declaration.
+     */
+    private static void annotations(final GenerationContext context, final Text text, final Node node,
+                                    final NodeWithAnnotations<?> annotated, final Snapshot before, final List<Edit> edits) {
+        final List<AnnotationExpr> original = before.annotations.get(node);
+        final List<AnnotationExpr> current = annotated.getAnnotations();
+        final String indent = text.indent(text.offset(before.ranges.get(node).begin));
+
+        // the nodes are compared by identity, their equals compares the structure
+        final Set<AnnotationExpr> replaced = Collections.newSetFromMap(new IdentityHashMap<>());
+        final List<AnnotationExpr> inserted = new ArrayList<>();
+        for (AnnotationExpr annotation : current) {
+            if (before.printed.containsKey(annotation)) {
+                if (!before.printed.get(annotation).equals(annotation.toString())) {
+                    edits.add(replace(context, text, before.ranges.get(annotation), annotation, indent));
+                }
+                replaced.add(annotation);
+                continue;
+            }
+
+            final Optional<AnnotationExpr> previous = original.stream()
+                    .filter(a -> !replaced.contains(a) && current.stream().noneMatch(c -> c == a))
+                    .filter(a -> a.getNameAsString().equals(annotation.getNameAsString()))
+                    .findFirst();
+            if (previous.isPresent()) {
+                edits.add(replace(context, text, before.ranges.get(previous.get()), annotation, indent));
+                replaced.add(previous.get());
+            } else {
+                inserted.add(annotation);
+            }
+        }
+
+        for (AnnotationExpr annotation : original) {
+            if (!replaced.contains(annotation)) {
+                edits.add(text.deleteLine(before.ranges.get(annotation)));
+            }
+        }
+
+        if (inserted.isEmpty()) {
+            return;
+        }
+
+        final String annotations = reindent(annotations(context, inserted), indent);
+        if (original.isEmpty()) {
+            final int at = text.lineStart(text.offset(before.ranges.get(node).begin));
+            edits.add(new Edit(at, at, annotations + "\n"));
+        } else {
+            final int at = text.offset(before.ranges.get(original.get(original.size() - 1)).end) + 1;
+            edits.add(new Edit(at, at, "\n" + annotations));
+        }
+    }
+
+    private static Edit replace(final GenerationContext context, final Text text, final Range range,
+                                final AnnotationExpr annotation, final String indent) {
+        final String formatted = reindent(annotations(context, Collections.singletonList(annotation)), indent);
+        return new Edit(text.offset(range.begin), text.offset(range.end) + 1, formatted.substring(indent.length()));
+    }
+
+    /**
+     * The methods printed and formatted as members of an empty interface.
+     */
+    private static String members(final GenerationContext context, final List<MethodDeclaration> methods) {
+        final CompilationUnit holder = new CompilationUnit();
+        final ClassOrInterfaceDeclaration type = holder.addInterface(HOLDER);
+        methods.forEach(method -> type.addMember(method.clone()));
+        return body(Reformat.format(context, AddMethodSeparators.removeDuplicates(holder.toString())), "}");
+    }
+
+    /**
+     * The annotations printed and formatted as the annotations of a method of an empty interface.
+     */
+    private static String annotations(final GenerationContext context, final List<AnnotationExpr> annotations) {
+        final CompilationUnit holder = new CompilationUnit();
+        final MethodDeclaration method = holder.addInterface(HOLDER).addMethod("regions").removeBody();
+        annotations.forEach(annotation -> method.addAnnotation(annotation.clone()));
+        return body(Reformat.format(context, holder.toString()), "void regions();");
+    }
+
+    private static String body(final String holder, final String last) {
+        final List<String> lines = new ArrayList<>();
+        boolean inside = false;
+        for (String line : holder.split("\n")) {
+            if (!inside) {
+                inside = line.contains("interface " + HOLDER);
+                continue;
+            }
+            if (line.trim().equals(last)) {
+                break;
+            }
+            lines.add(line);
+        }
+
+        while (!lines.isEmpty() && lines.get(0).trim().isEmpty()) {
+            lines.remove(0);
+        }
+        while (!lines.isEmpty() && lines.get(lines.size() - 1).trim().isEmpty()) {
+            lines.remove(lines.size() - 1);
+        }
+        return String.join("\n", lines);
+    }
+
+    private static String reindent(final String members, final String indent) {
+        if (indent.equals(INDENT)) {
+            return members;
+        }
+        return Arrays.stream(members.split("\n"))
+                .map(line -> line.startsWith(INDENT) ? indent + line.substring(INDENT.length()) : line)
+                .collect(Collectors.joining("\n"));
+    }
+
+    private static final class Edit {
+
+        private final int begin;
+        private final int end;
+        private final String replacement;
+
+        private Edit(final int begin, final int end, final String replacement) {
+            this.begin = begin;
+            this.end = end;
+            this.replacement = replacement;
+        }
+    }
+
+    /**
+     * The original source and the offsets of its lines, as the parser counts them.
+     */
+    private static final class Text {
+
+        private final String source;
+        private final int[] lines;
+
+        private Text(final String source) {
+            this.source = source;
+
+            final List<Integer> starts = new ArrayList<>();
+            starts.add(0);
+            for (int i = 0; i < source.length(); i++) {
+                if (source.charAt(i) == '\n') {
+                    starts.add(i + 1);
+                }
+            }
+            this.lines = starts.stream().mapToInt(Integer::intValue).toArray();
+        }
+
+        private int offset(final Position position) {
+            return lines[position.line - 1] + position.column - 1;
+        }
+
+        private int lineStart(final int offset) {
+            return source.lastIndexOf('\n', offset - 1) + 1;
+        }
+
+        private String indent(final int offset) {
+            final int start = lineStart(offset);
+            int end = start;
+            while (end < source.length() && (source.charAt(end) == ' ' || source.charAt(end) == '\t')) {
+                end++;
+            }
+            return source.substring(start, end);
+        }
+
+        /**
+         * The offset right after the last non blank character before the given one.
+         */
+        private int afterContent(final int offset) {
+            int i = offset;
+            while (i > 0 && Character.isWhitespace(source.charAt(i - 1))) {
+                i--;
+            }
+            return i;
+        }
+
+        /**
+         * Moves the offset before the comments on their own lines right above it.
+         */
+        private int withComments(final int offset, final List<Range> comments) {
+            int begin = offset;
+            boolean found = true;
+            while (found) {
+                found = false;
+                for (Range comment : comments) {
+                    final int start = offset(comment.begin);
+                    final int end = offset(comment.end) + 1;
+                    if (start < begin && end <= begin && source.substring(end, begin).trim().isEmpty()
+                            && source.substring(lineStart(start), start).trim().isEmpty()) {
+                        begin = start;
+                        found = true;
+                    }
+                }
+            }
+            return begin;
+        }
+
+        /**
+         * Removes the range, and its line when nothing else is on it.
+         */
+        private Edit deleteLine(final Range range) {
+            final int begin = offset(range.begin);
+            final int end = offset(range.end) + 1;
+            final int lineStart = lineStart(begin);
+            int lineEnd = source.indexOf('\n', end);
+            lineEnd = lineEnd < 0 ? source.length() : lineEnd;
+
+            if (source.substring(lineStart, begin).trim().isEmpty() && source.substring(end, lineEnd).trim().isEmpty()) {
+                return new Edit(lineStart, Math.min(lineEnd + 1, source.length()), "");
+            }
+            return new Edit(begin, end, "");
+        }
+
+        /**
+         * Applies the edits from the end, so the offsets stay valid. At the same offset the
+         * removed text goes first, then the insertions in reverse, which keeps them in order.
+         */
+        private String apply(final List<Edit> edits) {
+            final List<Integer> order = IntStream.range(0, edits.size()).boxed().collect(Collectors.toList());
+            order.sort(Comparator.<Integer>comparingInt(i -> edits.get(i).begin).reversed()
+                    .thenComparing(i -> edits.get(i).end == edits.get(i).begin)
+                    .thenComparing(Comparator.<Integer>reverseOrder()));
+
+            final StringBuilder result = new StringBuilder(source);
+            for (int i : order) {
+                final Edit edit = edits.get(i);
+                result.replace(edit.begin, edit.end, edit.replacement);
+            }
+            return result.toString();
+        }
+    }
+}
@@ -0,0 +1,54 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ *
+ */
+package org.tomitribe.inget.resource;
+
+import com.github.javaparser.ast.CompilationUnit;
+import org.tomitribe.inget.common.GenerationContext;
+import org.tomitribe.inget.common.Timings;
+
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Ordered, named set of {@link ResourceRule}s run against a single resource unit.
+ */
+public class ResourceRules {
+
+    private final Map<String, ResourceRule> rules = new LinkedHashMap<>();
+
+    public ResourceRules add(final String name, final ResourceRule rule) {
+        rules.put(name, rule);
+        return this;
+    }
+
+    public Set<String> names() {
+        return Collections.unmodifiableSet(rules.keySet());
+    }
+
+    public void apply(final GenerationContext context, final CompilationUnit resourceUnit,
+                      final CompilationUnit modelClassUnit) {
+        for (final Map.Entry<String, ResourceRule> rule : rules.entrySet()) {
+            final long start = Timings.start();
+            rule.getValue().apply(context, resourceUnit, modelClassUnit);
+            context.getTimings().stop("rule." + rule.getKey(), start);
+        }
+    }
+}
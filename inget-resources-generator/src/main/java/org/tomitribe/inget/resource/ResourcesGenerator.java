@@ -19,16 +19,17 @@
 
 package org.tomitribe.inget.resource;
 
-import com.github.javaparser.JavaParser;
 import com.github.javaparser.ast.CompilationUnit;
 import com.github.javaparser.ast.Modifier;
 import com.github.javaparser.ast.body.ClassOrInterfaceDeclaration;
 import com.github.javaparser.ast.expr.AnnotationExpr;
-import com.google.googlejavaformat.java.RemoveUnusedImports;
-import org.tomitribe.inget.common.Configuration;
+import org.tomitribe.inget.common.Format;
+import org.tomitribe.inget.common.GenerationContext;
 import org.tomitribe.inget.common.ImportManager;
+import org.tomitribe.inget.common.ImportTracker;
+import org.tomitribe.inget.common.Parallel;
 import org.tomitribe.inget.common.Reformat;
-import org.tomitribe.inget.common.RemoveDuplicateImports;
+import org.tomitribe.inget.common.Timings;
 import org.tomitribe.inget.common.Utils;
 import org.tomitribe.util.IO;
 
@@ -36,83 +37,128 @@ import java.io.File;
 import java.io.IOException;
 import java.util.List;
 import java.util.Optional;
-import java.util.stream.Stream;
 
 public class ResourcesGenerator {
 
+    static final ResourceRules RULES = new ResourceRules()
+            .add("MethodGenerator", MethodGenerator::apply)
+            .add("ImportAnnotations", (context, unit, model) -> ImportAnnotations.apply(unit))
+            .add("ExpandAnnotations", (context, unit, model) -> ExpandAnnotations.apply(unit))
+
+//          REST API requirements
+            .add("TagRequired", TagRequired::apply)
+            .add("OperationRequired", OperationRequired::apply)
+            .add("Add200Responses", (context, unit, model) -> Add200Responses.apply(unit))
+            .add("Add201CreateResponses", Add201CreateResponses::apply)
+            .add("CheckContentInResponses", CheckContentInResponses::apply)
+            .add("Response409onCreateConflict", (context, unit, model) -> Response409onCreateConflict.apply(unit))
+            .add("Response404onIdReferences", (context, unit, model) -> Response404onIdReferences.apply(unit))
+            .add("ParametersMustBeFinal", (context, unit, model) -> ParametersMustBeFinal.apply(unit))
+
+//          Beautify the source
+            .add("SortMethodAnnotations", (context, unit, model) -> SortMethodAnnotations.apply(unit))
+            .add("SortApiOperationFields", (context, unit, model) -> SortApiOperationFields.apply(unit))
+            .add("ContractAnnotations", (context, unit, model) -> ContractAnnotations.apply(unit))
+            .add("ImportTracker", (context, unit, model) -> ImportTracker.apply(unit))
+            .add("AddMethodSeparators", (context, unit, model) -> AddMethodSeparators.apply(unit));
+
+    /**
+     * Told about each resource as soon as its generation is complete.
+     */
+    public interface Listener {
+        void generated(File resource, String content) throws IOException;
+    }
+
     private ResourcesGenerator() {
 
     }
 
-    public static void execute() throws IOException {
-        final List<File> files = Utils.getModel();
+    public static void execute(final GenerationContext context) throws IOException {
+        execute(context, (Listener) null);
+    }
 
-        for (final File file : files) {
-            final String modelClassSource = IO.slurp(file);
-            final CompilationUnit modelClassUnit = JavaParser.parse(modelClassSource);
-            final ClassOrInterfaceDeclaration modelClass = Utils.getClazz(modelClassUnit);
+    public static void execute(final GenerationContext context, final Listener listener) throws IOException {
+        context.getSourceIndex().reset();
+        generate(context, Utils.getModel(context), listener);
+    }
 
-            if (modelClass != null) {
-                Optional<AnnotationExpr> resourceAnnotation = modelClass.getAnnotationByName("Resource");
-                if (!resourceAnnotation.isPresent()) {
-                    continue;
-                }
+    /**
+     * Generates the resources of the given model files only.
+     */
+    public static void execute(final GenerationContext context, final List<File> modelFiles,
+                               final Listener listener) throws IOException {
+        context.getSourceIndex().reset();
+        generate(context, modelFiles, listener);
+    }
+
+    private static void generate(final GenerationContext context, final List<File> modelFiles,
+                                 final Listener listener) throws IOException {
+        Parallel.forEach(context.getThreads(), modelFiles,
+                context.getTimings().bySource("generate.resources", file -> generate(context, file, listener)));
+    }
+
+    private static void generate(final GenerationContext context, final File file,
+                                 final Listener listener) throws IOException {
+        final String modelClassSource = IO.slurp(file);
+        final long start = Timings.start();
+        final CompilationUnit modelClassUnit = context.parse(modelClassSource);
+        context.getTimings().stop("parse", start);
+        final ClassOrInterfaceDeclaration modelClass = Utils.getClazz(modelClassUnit);
+
+        if (modelClass != null) {
+            Optional<AnnotationExpr> resourceAnnotation = modelClass.getAnnotationByName("Resource");
+            if (!resourceAnnotation.isPresent()) {
+                return;
+            }
 
-                final String modelClassName = Utils.getRootName(modelClass);
+            final String modelClassName = Utils.getRootName(context, modelClass);
 
-                List<File> relatedResources = Utils.getResources(modelClassName);
+            List<File> relatedResources = Utils.getResources(context, modelClassName);
 
-                relatedResources = generateResources(modelClassName, modelClassUnit, relatedResources);
+            relatedResources = generateResources(context, modelClassName, modelClassUnit, relatedResources);
 
-                for (File resource : relatedResources) {
-                    applyGenerationInResource(modelClassUnit, resource);
-                }
+            for (File resource : relatedResources) {
+                applyGenerationInResource(context, modelClassUnit, resource, listener);
             }
         }
     }
 
-    private static List<File> generateResources(String modelClassName, CompilationUnit modelClassUnit, List<File> relatedResources) throws IOException {
+    private static List<File> generateResources(GenerationContext context, String modelClassName, CompilationUnit modelClassUnit, List<File> relatedResources) throws IOException {
         if (relatedResources.size() == 2) {
             return relatedResources;
         }
 
-        final String rootResourceName = modelClassName + Configuration.resourceSuffix;
+        final String rootResourceName = modelClassName + context.getResourceSuffix();
         Optional<File> rootResource = relatedResources.stream()
                 .filter(f -> f.getName().equals(rootResourceName + ".java"))
                 .findFirst();
         if (!rootResource.isPresent()) {
-            generateResource(rootResourceName, modelClassUnit);
+            generateResource(context, rootResourceName, modelClassUnit);
         }
 
-        final String listResourceName = Utils.toPlural(modelClassName) + Configuration.resourceSuffix;
+        final String listResourceName = Utils.toPlural(modelClassName) + context.getResourceSuffix();
         Optional<File> listResource = relatedResources.stream()
                 .filter(f -> f.getName().equals(listResourceName + ".java"))
                 .findFirst();
 
         if (!listResource.isPresent()) {
-            generateResource(listResourceName, modelClassUnit);
+            generateResource(context, listResourceName, modelClassUnit);
         }
 
-        return Utils.getResources(modelClassName);
+        return Utils.getResources(context, modelClassName);
     }
 
-    public static void save(String packageLocation, String className, CompilationUnit classToBeSaved) throws IOException {
+    public static void save(GenerationContext context, String packageLocation, String className, CompilationUnit classToBeSaved) throws IOException {
         if (classToBeSaved == null) {
             return;
         }
 
-        String modified = Stream.of(classToBeSaved.toString())
-                .map(RemoveDuplicateImports::apply)
-                .map(Reformat::apply)
-                .map(RemoveUnusedImports::removeUnusedImports)
-                .findFirst().get();
-
-        Utils.save(className + ".java", packageLocation, modified);
+        Utils.save(context, className + ".java", packageLocation, classToBeSaved);
     }
 
-    private static void generateResource(final String resourceName, final CompilationUnit modelClassUnit) throws IOException {
+    private static void generateResource(final GenerationContext context, final String resourceName, final CompilationUnit modelClassUnit) throws IOException {
         String resourceClassPackage = modelClassUnit.getPackageDeclaration().get().getNameAsString();
-        resourceClassPackage = resourceClassPackage.replace(Configuration.modelPackage, Configuration.resourcePackage);
+        resourceClassPackage = resourceClassPackage.replace(context.getModelPackage(), context.getResourcePackage());
         final CompilationUnit newClassCompilationUnit = new CompilationUnit(resourceClassPackage);
         newClassCompilationUnit.addClass(resourceName, Modifier.PUBLIC);
         final ClassOrInterfaceDeclaration newClass = newClassCompilationUnit.getClassByName(resourceName).get();
@@ -128,46 +174,42 @@ public class ResourcesGenerator {
         newClassCompilationUnit.addImport(ImportManager.getImport("MediaType"));
         Utils.addGeneratedAnnotation(newClassCompilationUnit, newClass, null, ResourcesGenerator.class);
         Utils.addLicense(modelClassUnit, newClassCompilationUnit);
-        save(resourceClassPackage, resourceName, newClassCompilationUnit);
+        save(context, resourceClassPackage, resourceName, newClassCompilationUnit);
     }
 
-    static void applyGenerationInResource(CompilationUnit modelClassUnit, File resource) throws IOException {
-        String resourceSource = IO.slurp(resource);
-        final CompilationUnit resourceUnit = JavaParser.parse(resourceSource);
+    static void applyGenerationInResource(final GenerationContext context, final CompilationUnit modelClassUnit,
+                                          final File resource, final Listener listener) throws IOException {
+        final String source = IO.slurp(resource);
+        final long start = Timings.start();
+        final CompilationUnit resourceUnit = context.parse(source);
+        context.getTimings().stop("parse", start);
+
+        final boolean handWritten = !Utils.getClazz(resourceUnit).getAnnotationByName("Generated").isPresent();
+
+        // a resource written by hand only gets the regions the rules changed rewritten
+        final RegionRewrite.Snapshot before = context.isPreserveResources() && handWritten
+                ? RegionRewrite.snapshot(resourceUnit) : null;
+
         // Perform transformations
-        final String modified = Stream.of(resourceSource)
-                .map(s -> MethodGenerator.apply(resourceUnit, modelClassUnit))
-                .map(ImportAnnotations::apply)
-                .map(ExpandAnnotations::apply)
-
-//                   REST API requirements
-                .map(s -> TagRequired.apply(s, modelClassUnit))
-                .map(s -> OperationRequired.apply(s, modelClassUnit))
-                .map(Add200Responses::apply)
-                .map(s -> Add201CreateResponses.apply(s, modelClassUnit))
-                .map(s -> CheckContentInResponses.apply(s, modelClassUnit, resourceUnit))
-                .map(Response409onCreateConflict::apply)
-                .map(Response404onIdReferences::apply)
-                .map(ParametersMustBeFinal::apply)
-
-//                   Beautify the source
-                .map(SortMethodAnnotations::apply)
-                .map(SortApiOperationFields::apply)
-                .map(ContractAnnotations::apply)
-                .map(RemoveDuplicateImports::apply)
-                .map(AddMethodSeparators::apply)
-                .map(Reformat::apply)
-                .map(RemoveUnusedImports::removeUnusedImports)
-                .findFirst().get();
-
-        CompilationUnit modifiedUnit = JavaParser.parse(modified);
-        ClassOrInterfaceDeclaration modifiedClazz = Utils.getClazz(modifiedUnit);
-        if (modifiedClazz.getMethods().size() > 0) {
-            IO.copy(IO.read(modified), resource);
+        RULES.apply(context, resourceUnit, modelClassUnit);
+
+        // a resource written by hand is part of the sources, it is formatted even when the generated ones are not
+        final GenerationContext formatting = handWritten && context.getFormat() == Format.FAST
+                ? context.with().format(Format.ECLIPSE).build() : context;
+        final String modified = before != null
+                ? RegionRewrite.apply(formatting, source, resourceUnit, before)
+                : Reformat.format(formatting, AddMethodSeparators.removeDuplicates(resourceUnit.toString()));
+
+        if (Utils.getClazz(resourceUnit).getMethods().size() > 0) {
+            context.getOutputWriter().write(resource, modified);
+
+            if (listener != null) {
+                listener.generated(resource, modified);
+            }
         } else {
             if (resource.exists() && IO.slurp(resource)
                     .contains("@Generated(\"org.tomitribe.inget.resource.ResourcesGenerator\")")) {
-                resource.delete();
+                context.getOutputWriter().delete(resource);
             }
         }
 
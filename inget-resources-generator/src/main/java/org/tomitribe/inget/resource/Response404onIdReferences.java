@@ -18,7 +18,6 @@
  */
 package org.tomitribe.inget.resource;
 
-import com.github.javaparser.JavaParser;
 import com.github.javaparser.ast.CompilationUnit;
 import com.github.javaparser.ast.body.ClassOrInterfaceDeclaration;
 import org.tomitribe.inget.common.Utils;
@@ -31,8 +30,7 @@ public class Response404onIdReferences {
 
     }
 
-    public static String apply(final String source) {
-        final CompilationUnit unit = JavaParser.parse(source);
+    public static void apply(final CompilationUnit unit) {
         final ClassOrInterfaceDeclaration clazz = getClazz(unit);
 
         clazz.getMethods().stream()
@@ -42,7 +40,5 @@ public class Response404onIdReferences {
         clazz.getMethods().stream()
                 .filter(method -> !Utils.hasPathParameter(method))
                 .forEach(method -> Utils.removeApiResponse(method, 404));
-
-        return unit.toString();
     }
 }
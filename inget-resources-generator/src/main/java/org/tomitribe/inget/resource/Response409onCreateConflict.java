@@ -18,7 +18,6 @@
  */
 package org.tomitribe.inget.resource;
 
-import com.github.javaparser.JavaParser;
 import com.github.javaparser.ast.CompilationUnit;
 import com.github.javaparser.ast.body.ClassOrInterfaceDeclaration;
 import org.tomitribe.inget.common.Utils;
@@ -38,8 +37,7 @@ public class Response409onCreateConflict {
 
     }
 
-    public static String apply(final String source) {
-        final CompilationUnit unit = JavaParser.parse(source);
+    public static void apply(final CompilationUnit unit) {
         final ClassOrInterfaceDeclaration clazz = getClazz(unit);
 
         // Ensure create method returning 201 also return 409
@@ -51,8 +49,6 @@ public class Response409onCreateConflict {
         clazz.getMethods().stream()
                 .filter(m -> !(Utils.isMethodCreate(m) || Utils.isMethodBulkCreate(m)))
                 .forEach(m -> Utils.removeApiResponse(m, 409));
-
-        return unit.toString();
     }
 
 }
@@ -18,7 +18,6 @@
  */
 package org.tomitribe.inget.resource;
 
-import com.github.javaparser.JavaParser;
 import com.github.javaparser.ast.CompilationUnit;
 import com.github.javaparser.ast.body.ClassOrInterfaceDeclaration;
 import com.github.javaparser.ast.body.MethodDeclaration;
@@ -37,8 +36,7 @@ public class SortMethodAnnotations {
         
     }
 
-    public static String apply(final String source) {
-        final CompilationUnit unit = JavaParser.parse(source);
+    public static void apply(final CompilationUnit unit) {
         final ClassOrInterfaceDeclaration clazz = getClazz(unit);
 
         for (final MethodDeclaration method : clazz.getMethods()) {
@@ -50,8 +48,6 @@ public class SortMethodAnnotations {
                     "Operation",
                     "ApiResponses");
         }
-
-        return unit.toString();
     }
 
 }
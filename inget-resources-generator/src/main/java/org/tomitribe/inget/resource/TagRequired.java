@@ -21,8 +21,12 @@ package org.tomitribe.inget.resource;
 import com.github.javaparser.JavaParser;
 import com.github.javaparser.ast.CompilationUnit;
 import com.github.javaparser.ast.body.ClassOrInterfaceDeclaration;
+import org.tomitribe.inget.common.GenerationContext;
 import org.tomitribe.inget.common.Utils;
 
+import java.util.regex.Pattern;
+
+import static java.util.regex.Matcher.quoteReplacement;
 import static org.tomitribe.inget.common.Utils.getClazz;
 
 /**
@@ -35,27 +39,32 @@ public class TagRequired {
     }
 
     private static final String DEFAULT = "@Tag(name = \"Account\", description = \"This endpoint manages a single account.\")";
+    private static final Pattern ACCOUNT = Pattern.compile("Account");
+    private static final Pattern LOWER_ACCOUNT = Pattern.compile("account");
 
-    public static String apply(String source, CompilationUnit rootClassUnit) {
+    public static void apply(final GenerationContext context, final CompilationUnit unit,
+                             final CompilationUnit rootClassUnit) {
         final ClassOrInterfaceDeclaration modelClass = Utils.getClazz(rootClassUnit);
-        final String rootClassName = Utils.getRootName(modelClass);
-        final CompilationUnit unit = JavaParser.parse(source);
+        final String rootClassName = Utils.getRootName(context, modelClass);
         final ClassOrInterfaceDeclaration resourceClass = getClazz(unit);
-        final boolean isRootClass = Utils.isRootResource(rootClassName, resourceClass.getNameAsString());
-        if (resourceClass.getAnnotationByName("Tag").isPresent()) return source;
+        final boolean isRootClass = Utils.isRootResource(context, rootClassName, resourceClass.getNameAsString());
+        if (resourceClass.getAnnotationByName("Tag").isPresent()) return;
 
         unit.addImport("io.swagger.v3.oas.annotations.tags.Tag");
         String annotationSource = "";
         if (isRootClass) {
-            annotationSource = DEFAULT.replaceAll("Account", rootClassName).replaceAll("account", Utils.formatCamelCaseTo(rootClassName, " "));
+            annotationSource = replace(rootClassName);
         } else {
             final String plural = Utils.toPlural(rootClassName);
-            annotationSource = DEFAULT.replaceAll("Account", plural).replaceAll("account", Utils.formatCamelCaseTo(plural, " "));
+            annotationSource = replace(plural);
             annotationSource = annotationSource.replace("a single", "multiple");
         }
         resourceClass.addAnnotation(JavaParser.parseAnnotation(annotationSource));
+    }
 
-        return unit.toString();
+    private static String replace(final String name) {
+        final String source = ACCOUNT.matcher(DEFAULT).replaceAll(quoteReplacement(name));
+        return LOWER_ACCOUNT.matcher(source).replaceAll(quoteReplacement(Utils.formatCamelCaseTo(name, " ")));
     }
 
 }
@@ -20,39 +20,133 @@
 
 package org.tomitribe;
 
-import org.junit.After;
 import org.junit.Test;
-import org.tomitribe.inget.common.Configuration;
-import org.tomitribe.inget.common.CustomTypeSolver;
+import org.tomitribe.inget.common.Format;
+import org.tomitribe.inget.common.GenerationContext;
 import org.tomitribe.inget.resource.ResourcesGenerator;
 import org.tomitribe.inget.test.Resources;
+import org.tomitribe.util.Files;
+import org.tomitribe.util.IO;
 
+import java.io.File;
+import java.io.IOException;
+import java.util.Map;
+
+import static org.junit.Assert.assertEquals;
 import static org.tomitribe.inget.test.Scenarios.assertFiles;
 
 public class ResourceGeneratorTest {
 
-    @After
-    public void after(){
-        Configuration.clean();
+    @Test
+    public void testMovies() throws Exception {
+        final Resources movies = Resources.name("movies");
+
+        final GenerationContext context = GenerationContext.builder()
+                .modelSources(movies.input().getAbsolutePath())
+                .resourceSources(movies.input().getAbsolutePath())
+                .generatedSources(movies.actual().getAbsolutePath())
+                .modelPackage("io.superbiz.video.model")
+                .resourcePackage("io.superbiz.video.rest")
+                .resourceSuffix("ResourceBean")
+                .modelSuffix("Model")
+                .tempSource(movies.tempSource().getAbsolutePath())
+                .build();
+
+        context.getTypeSolver().init(context);
+
+        ResourcesGenerator.execute(context);
+
+        assertFiles(movies.expected(".*\\.java$"), movies.actual(".*\\.java$"));
     }
 
     @Test
-    public void testMovies() throws Exception {
+    public void testMoviesParallel() throws Exception {
         final Resources movies = Resources.name("movies");
 
-        Configuration.modelSources = movies.input().getAbsolutePath();
-        Configuration.resourceSources = movies.input().getAbsolutePath();
-        Configuration.generatedSources = movies.actual().getAbsolutePath();
-        Configuration.modelPackage = "io.superbiz.video.model";
-        Configuration.resourcePackage = "io.superbiz.video.rest";
-        Configuration.resourceSuffix = "ResourceBean";
-        Configuration.modelSuffix = "Model";
-        Configuration.tempSource = movies.tempSource().getAbsolutePath();
+        final GenerationContext context = GenerationContext.builder()
+                .modelSources(movies.input().getAbsolutePath())
+                .resourceSources(movies.input().getAbsolutePath())
+                .generatedSources(movies.actual().getAbsolutePath())
+                .modelPackage("io.superbiz.video.model")
+                .resourcePackage("io.superbiz.video.rest")
+                .resourceSuffix("ResourceBean")
+                .modelSuffix("Model")
+                .tempSource(movies.tempSource().getAbsolutePath())
+                .threads(4)
+                .build();
 
-        CustomTypeSolver.init();
+        context.getTypeSolver().init(context);
 
-        ResourcesGenerator.execute();
+        ResourcesGenerator.execute(context);
 
         assertFiles(movies.expected(".*\\.java$"), movies.actual(".*\\.java$"));
     }
-}
\ No newline at end of file
+
+    @Test
+    public void testHandWrittenResourceKeepsItsLayout() throws Exception {
+        final Resources handwritten = handWritten(true, Format.ECLIPSE);
+
+        assertFiles(handwritten.expected(".*\\.java$"), handwritten.actual(".*/rest/.*\\.java$"));
+    }
+
+    @Test
+    public void testHandWrittenResourceIsFormattedInFastMode() throws Exception {
+        final Resources handwritten = handWritten(true, Format.FAST);
+
+        assertFiles(handwritten.expected(".*/MovieResourceBean\\.java$"), handwritten.actual(".*/rest/MovieResourceBean\\.java$"));
+
+        // the generated resource is left unformatted, only its layout differs
+        assertSameCode(handwritten.expected(".*/MoviesResourceBean\\.java$"), handwritten.actual(".*/rest/MoviesResourceBean\\.java$"));
+    }
+
+    @Test
+    public void testReprintedHandWrittenResourceIsFormattedInFastMode() throws Exception {
+        final Resources eclipse = handWritten(false, Format.ECLIPSE);
+        final Resources fast = handWritten(false, Format.FAST);
+
+        assertFiles(eclipse.actual(".*/rest/MovieResourceBean\\.java$"), fast.actual(".*/rest/MovieResourceBean\\.java$"));
+        assertSameCode(eclipse.actual(".*/rest/MoviesResourceBean\\.java$"), fast.actual(".*/rest/MoviesResourceBean\\.java$"));
+    }
+
+    private static Resources handWritten(final boolean preserveResources, final Format format) throws IOException {
+        final Resources handwritten = Resources.name("handwritten");
+        copy(handwritten.input(), handwritten.actual());
+
+        final GenerationContext context = GenerationContext.builder()
+                .modelSources(handwritten.actual().getAbsolutePath())
+                .resourceSources(handwritten.actual().getAbsolutePath())
+                .generatedSources(handwritten.actual().getAbsolutePath())
+                .modelPackage("io.superbiz.video.model")
+                .resourcePackage("io.superbiz.video.rest")
+                .resourceSuffix("ResourceBean")
+                .modelSuffix("Model")
+                .tempSource(handwritten.tempSource().getAbsolutePath())
+                .preserveResources(preserveResources)
+                .format(format)
+                .build();
+
+        context.getTypeSolver().init(context);
+
+        ResourcesGenerator.execute(context);
+        return handwritten;
+    }
+
+    private static void assertSameCode(final Map<String, File> expected, final Map<String, File> actual) throws IOException {
+        assertEquals(expected.keySet(), actual.keySet());
+        for (final Map.Entry<String, File> file : actual.entrySet()) {
+            assertEquals(file.getKey(), withoutWhitespace(IO.slurp(expected.get(file.getKey()))), withoutWhitespace(IO.slurp(file.getValue())));
+        }
+    }
+
+    private static String withoutWhitespace(final String source) {
+        return source.replaceAll("\\s+", "");
+    }
+
+    private static void copy(final File from, final File to) throws IOException {
+        for (final File file : Files.collect(from, ".*\\.java$")) {
+            final File target = new File(to, file.getAbsolutePath().substring(from.getAbsolutePath().length() + 1));
+            Files.mkparent(target);
+            IO.copy(file, target);
+        }
+    }
+}
@@ -12,7 +12,6 @@
  * distributed under the License is distributed on an "AS IS" BASIS,
 
 
-
  * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
  * See the License for the specific language governing permissions and
  * limitations under the License.
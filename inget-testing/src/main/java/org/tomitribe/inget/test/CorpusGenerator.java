@@ -0,0 +1,232 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ *
+ */
+package org.tomitribe.inget.test;
+
+import org.tomitribe.inget.api.Model;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+import static org.tomitribe.inget.api.Model.Operation.BULK_CREATE;
+import static org.tomitribe.inget.api.Model.Operation.BULK_DELETE;
+import static org.tomitribe.inget.api.Model.Operation.BULK_UPDATE;
+import static org.tomitribe.inget.api.Model.Operation.CREATE;
+import static org.tomitribe.inget.api.Model.Operation.DELETE;
+import static org.tomitribe.inget.api.Model.Operation.READ;
+import static org.tomitribe.inget.api.Model.Operation.READ_ALL;
+import static org.tomitribe.inget.api.Model.Operation.UPDATE;
+
+/**
+ * Writes an input folder with any number of @Model/@Resource classes so the
+ * generators can be exercised on something bigger than the movies fixtures.
+ *
+ * `CorpusGenerator.models(1000).references(2).inheritance(1).write(resources.input());`
+ *
+ * The output only depends on the settings. Model references always point to
+ * a model with a higher index, so the references never form a cycle.
+ */
+public class CorpusGenerator {
+
+    private static final String[] TYPES = {"String", "int", "String", "long", "boolean"};
+
+    private static final Model.Operation[][] OPERATIONS = {
+            null,
+            {READ, READ_ALL},
+            {READ, CREATE, UPDATE, DELETE, READ_ALL, BULK_CREATE, BULK_UPDATE, BULK_DELETE},
+            {READ, CREATE, DELETE},
+    };
+
+    private final int models;
+    private String modelPackage = "io.superbiz.video.model";
+    private String modelSuffix = "Model";
+    private int fields = 6;
+    private int references = 0;
+    private int inheritance = 0;
+    private int filters = 1;
+    private int summaries = 0;
+    private boolean operations = false;
+
+    private CorpusGenerator(final int models) {
+        this.models = models;
+    }
+
+    public static CorpusGenerator models(final int models) {
+        return new CorpusGenerator(models);
+    }
+
+    public CorpusGenerator modelPackage(final String modelPackage) {
+        this.modelPackage = modelPackage;
+        return this;
+    }
+
+    public CorpusGenerator modelSuffix(final String modelSuffix) {
+        this.modelSuffix = modelSuffix;
+        return this;
+    }
+
+    /**
+     * Plain fields per model, not counting the id and the references.
+     */
+    public CorpusGenerator fields(final int fields) {
+        this.fields = fields;
+        return this;
+    }
+
+    /**
+     * Fields per model whose type is another model.
+     */
+    public CorpusGenerator references(final int references) {
+        this.references = references;
+        return this;
+    }
+
+    /**
+     * Depth of the chain of base classes every model extends.
+     */
+    public CorpusGenerator inheritance(final int inheritance) {
+        this.inheritance = inheritance;
+        return this;
+    }
+
+    /**
+     * Fields per model with a @Filter.
+     */
+    public CorpusGenerator filters(final int filters) {
+        this.filters = filters;
+        return this;
+    }
+
+    /**
+     * Fields per model marked as summary.
+     */
+    public CorpusGenerator summaries(final int summaries) {
+        this.summaries = summaries;
+        return this;
+    }
+
+    /**
+     * Restricts the operations of most models to one of a few subsets.
+     */
+    public CorpusGenerator operations(final boolean operations) {
+        this.operations = operations;
+        return this;
+    }
+
+    /**
+     * The generated sources, by path relative to the input folder.
+     */
+    public Map<String, String> sources() {
+        final Map<String, String> sources = new LinkedHashMap<>();
+        final String path = modelPackage.replace('.', '/') + "/";
+
+        for (int depth = 1; depth <= inheritance; depth++) {
+            sources.put(path + base(depth) + ".java", baseClass(depth));
+        }
+
+        for (int i = 0; i < models; i++) {
+            sources.put(path + model(i) + ".java", modelClass(i));
+        }
+        return sources;
+    }
+
+    /**
+     * Writes the sources under the given input folder and returns it.
+     */
+    public File write(final File input) throws IOException {
+        Generation.saveContent(sources(), input);
+        return input;
+    }
+
+    private String model(final int index) {
+        return "Entity" + index + modelSuffix;
+    }
+
+    private static String base(final int depth) {
+        return "Base" + depth;
+    }
+
+    private String baseClass(final int depth) {
+        final StringBuilder source = new StringBuilder();
+        source.append("package ").append(modelPackage).append(";\n\n");
+        source.append("class ").append(base(depth));
+        if (depth < inheritance) {
+            source.append(" extends ").append(base(depth + 1));
+        }
+        source.append(" {\n");
+        source.append("    private String createdBy").append(depth).append(";\n");
+        source.append("    private long createdAt").append(depth).append(";\n");
+        source.append("}\n");
+        return source.toString();
+    }
+
+    private String modelClass(final int index) {
+        final StringBuilder source = new StringBuilder();
+        source.append("package ").append(modelPackage).append(";\n\n");
+        source.append("import org.tomitribe.inget.api.Filter;\n");
+        source.append("import org.tomitribe.inget.api.Model;\n");
+        source.append("import org.tomitribe.inget.api.Resource;\n\n");
+
+        final Model.Operation[] subset = operations ? OPERATIONS[index % OPERATIONS.length] : null;
+        if (subset == null) {
+            source.append("@Model\n");
+        } else {
+            source.append("@Model(operation = {").append(Stream.of(subset)
+                    .map(o -> "Model.Operation." + o.name())
+                    .collect(Collectors.joining(", "))).append("})\n");
+        }
+        source.append("@Resource\n");
+        source.append("class ").append(model(index));
+        if (inheritance > 0) {
+            source.append(" extends ").append(base(1));
+        }
+        source.append(" {\n");
+        source.append("    @Model(id = true, operation = Model.Operation.READ)\n");
+        source.append("    private String id;\n");
+
+        for (int f = 0; f < fields; f++) {
+            final String name = "field" + f;
+            if (f < filters) {
+                source.append("    @Model(filter = @Filter(name = \"").append(name).append("\", multiple = false))\n");
+            } else if (f < filters + summaries) {
+                source.append("    @Model(summary = true)\n");
+            }
+            source.append("    private ").append(TYPES[f % TYPES.length]).append(" ").append(name).append(";\n");
+        }
+
+        for (final int reference : referenced(index)) {
+            source.append("    private ").append(model(reference)).append(" entity").append(reference).append(";\n");
+        }
+        source.append("}\n");
+        return source.toString();
+    }
+
+    private List<Integer> referenced(final int index) {
+        final List<Integer> list = new ArrayList<>();
+        for (int r = 1; r <= references && index + r < models; r++) {
+            list.add(index + r);
+        }
+        return list;
+    }
+}
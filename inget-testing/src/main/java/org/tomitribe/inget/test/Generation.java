@@ -126,7 +126,7 @@ public class Generation {
                     "package org.tomitribe.model;\n" +
                     "\n" +
                     "import org.junit.Test;\n" +
-                    "import org.tomitribe.inget.common.Configuration;\n" +
+                    "import org.tomitribe.inget.common.GenerationContext;\n" +
                     "import org.tomitribe.inget.test.Resources;\n" +
                     "import org.tomitribe.inget.test.Generation;\n" +
                     "\n" +
@@ -138,16 +138,17 @@ public class Generation {
                     "    public void testOnClass() throws Exception {\n" +
                     "        final Resources resources = Resources.name(\"" + testName + "/testOnClass\");\n" +
                     "\n" +
-                    "        Configuration.clean();\n" +
-                    "        Configuration.modelSources = resources.input().getAbsolutePath();\n" +
-                    "        Configuration.resourceSources = resources.input().getAbsolutePath();\n" +
-                    "        Configuration.generatedSources = resources.actual().getAbsolutePath();\n" +
-                    "        Configuration.modelPackage = \"io.superbiz.video.model\";\n" +
-                    "        Configuration.modelSuffix = \"Model\";\n" +
-                    "        Configuration.tempSource = resources.tempSource().getAbsolutePath();\n" +
+                    "        final GenerationContext context = GenerationContext.builder()\n" +
+                    "                .modelSources(resources.input().getAbsolutePath())\n" +
+                    "                .resourceSources(resources.input().getAbsolutePath())\n" +
+                    "                .generatedSources(resources.actual().getAbsolutePath())\n" +
+                    "                .modelPackage(\"io.superbiz.video.model\")\n" +
+                    "                .modelSuffix(\"Model\")\n" +
+                    "                .tempSource(resources.tempSource().getAbsolutePath())\n" +
+                    "                .build();\n" +
                     "\n" +
                     "        // do the magic\n" +
-                    "        ModelGenerator.execute();\n" +
+                    "        ModelGenerator.execute(context);\n" +
                     "\n" +
                     "        Generation.saveResults(\"" + testName + "/testOnClass\", \"expected\", resources.actual(\".*\\\\.java$\"));\n" +
                     "\n" +
@@ -159,16 +160,17 @@ public class Generation {
                     "    public void testOnField() throws Exception {\n" +
                     "        final Resources resources = Resources.name(\"" + testName + "/testOnField\");\n" +
                     "\n" +
-                    "        Configuration.clean();\n" +
-                    "        Configuration.modelSources = resources.input().getAbsolutePath();\n" +
-                    "        Configuration.resourceSources = resources.input().getAbsolutePath();\n" +
-                    "        Configuration.generatedSources = resources.actual().getAbsolutePath();\n" +
-                    "        Configuration.modelPackage = \"io.superbiz.video.model\";\n" +
-                    "        Configuration.modelSuffix = \"Model\";\n" +
-                    "        Configuration.tempSource = resources.tempSource().getAbsolutePath();\n" +
+                    "        final GenerationContext context = GenerationContext.builder()\n" +
+                    "                .modelSources(resources.input().getAbsolutePath())\n" +
+                    "                .resourceSources(resources.input().getAbsolutePath())\n" +
+                    "                .generatedSources(resources.actual().getAbsolutePath())\n" +
+                    "                .modelPackage(\"io.superbiz.video.model\")\n" +
+                    "                .modelSuffix(\"Model\")\n" +
+                    "                .tempSource(resources.tempSource().getAbsolutePath())\n" +
+                    "                .build();\n" +
                     "\n" +
                     "        // do the magic\n" +
-                    "        ModelGenerator.execute();\n" +
+                    "        ModelGenerator.execute(context);\n" +
                     "\n" +
                     "        Generation.saveResults(\"" + testName + "/testOnField\", \"expected\", resources.actual(\".*\\\\.java$\"));\n" +
                     "\n" +